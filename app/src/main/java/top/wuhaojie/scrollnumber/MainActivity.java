@@ -24,6 +24,7 @@ public class MainActivity extends AppCompatActivity {
         //只滚一轮情况下
         scrollNumber = (MultiScrollNumber) findViewById(R.id.scroll_number);
 
+        scrollNumber.beginUpdate();
         scrollNumber.setTextColors(new int[]{R.color.blue01, R.color.red01,
                 R.color.green01, R.color.purple01});
 //        scrollNumber.setTextSize(64);
@@ -36,6 +37,7 @@ public class MainActivity extends AppCompatActivity {
         scrollNumber.setUnitTextFont("Helvetica_LT45_Light.ttf");
         scrollNumber.setScollAnimationMode(MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST);
         scrollNumber.setNumber(lastText);
+        scrollNumber.commit();
 //        scrollNumber.play();
 
         Button button = (Button) findViewById(R.id.play);
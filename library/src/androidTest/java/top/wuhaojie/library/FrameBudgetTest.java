@@ -0,0 +1,172 @@
+package top.wuhaojie.library;
+
+import android.os.Debug;
+import android.test.AndroidTestCase;
+import android.view.View;
+import android.view.animation.AnimationUtils;
+
+/**
+ * 逐帧开销回归测试(设备上运行)
+ * 说明: 按照脚本在每一种模式下播放动画，逐帧统计内存分配、drawText次数和重绘的数字Text个数，
+ * 超过下面的预算时失败。防止onDraw和逐帧流程中重新出现Pattern.compile、Log.d、
+ * 字符串拼接等开销。修改预算需要说明原因。
+ */
+public class FrameBudgetTest extends AndroidTestCase {
+    /** 每一帧允许的内存分配次数 */
+    private static final int BUDGET_ALLOCATIONS_PER_FRAME = 0;
+    /** 每一帧每个数字Text允许的drawText次数(当前数字和下一个数字) */
+    private static final int BUDGET_DRAW_TEXT_PER_CELL = 2;
+    /** 每一帧每个正在播放的数字Text允许的重绘次数(已经停止的数字Text不能请求重绘) */
+    private static final int BUDGET_REDRAWS_PER_ANIMATING_CELL = 1;
+    /** 帧间隔(60fps) */
+    private static final long FRAME_INTERVAL = 16L;
+    /** 单个脚本最多播放的帧数(超过说明动画没有结束) */
+    private static final int MAX_FRAMES = 1000;
+    /** Canvas大小 */
+    private static final int CANVAS_WIDTH = 1080;
+    private static final int CANVAS_HEIGHT = 300;
+
+    /** 动画脚本(起始数字 目标数字) */
+    private static final String[][] SCRIPTS = {
+            {"0", "1234567890"},
+            {"1234567890", "987654321"},
+            {"99999", "100000"},
+            {"12万3456", "1亿2345万6789"},
+            {"98.76亿", "1.5万"},
+            {"100 USD", "99 USD"},
+    };
+
+    private RecordingCanvas mCanvas;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mCanvas = new RecordingCanvas(CANVAS_WIDTH, CANVAS_HEIGHT);
+    }
+
+    public void testStartFirstArrivalLast() {
+        runScripts(MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST);
+    }
+
+    public void testStartArrivalSameTime() {
+        runScripts(MultiScrollNumber.Mode.START_ARRIVAL_SAME_TIME);
+    }
+
+    public void testStartFirstArrivalFirst() {
+        runScripts(MultiScrollNumber.Mode.START_FIRST_ARRIVAL_FIRST);
+    }
+
+    public void testCalendar() {
+        runScripts(MultiScrollNumber.Mode.CALENDAR);
+    }
+
+    public void testScoreboard() {
+        runScripts(MultiScrollNumber.Mode.SCOREBOARD);
+    }
+
+    public void testShortestStrategyWithStepBudget() {
+        MultiScrollNumber scrollNumber = createScrollNumber(MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST);
+        scrollNumber.setStrategy(ScrollNumber.Strategy.SHORTEST);
+        scrollNumber.setMaxTotalSteps(20);
+        for (String[] script : SCRIPTS) {
+            play(scrollNumber, script[0], script[1], "SHORTEST " + script[0] + "->" + script[1]);
+        }
+    }
+
+    private void runScripts(MultiScrollNumber.Mode mode) {
+        MultiScrollNumber scrollNumber = createScrollNumber(mode);
+        //预热(第一次播放时创建画笔、测量字形和JIT编译)
+        play(scrollNumber, SCRIPTS[0][0], SCRIPTS[0][1], null);
+        for (String[] script : SCRIPTS) {
+            play(scrollNumber, script[0], script[1], mode + " " + script[0] + "->" + script[1]);
+        }
+    }
+
+    private MultiScrollNumber createScrollNumber(MultiScrollNumber.Mode mode) {
+        MultiScrollNumber scrollNumber = new MultiScrollNumber(getContext());
+        scrollNumber.setScollAnimationMode(mode);
+        //脚本按照模拟的帧时间连续播放，关闭按照更新频率降级，保证每一位都播放动画
+        scrollNumber.setRateAdaptive(false);
+        layout(scrollNumber);
+        return scrollNumber;
+    }
+
+    /** 测量和布局(新添加的数字Text需要尺寸才能绘制) */
+    private static void layout(MultiScrollNumber scrollNumber) {
+        scrollNumber.measure(View.MeasureSpec.makeMeasureSpec(CANVAS_WIDTH, View.MeasureSpec.AT_MOST),
+                View.MeasureSpec.makeMeasureSpec(CANVAS_HEIGHT, View.MeasureSpec.AT_MOST));
+        scrollNumber.layout(0, 0, scrollNumber.getMeasuredWidth(), scrollNumber.getMeasuredHeight());
+    }
+
+    /**
+     * 播放一个脚本并检查每一帧的开销
+     *
+     * @param name : 脚本名称(null表示预热，不检查)
+     */
+    private void play(MultiScrollNumber scrollNumber, String from, String to, String name) {
+        scrollNumber.setNumberWithAnimation(from, to);
+        layout(scrollNumber);
+        int cellCount = scrollNumber.getChildCount();
+        for (int i = 0; i < cellCount; i++) {
+            ((ScrollNumber) scrollNumber.getChildAt(i)).pauseFrames();
+        }
+        //应用数字的这一帧(直接显示的数字Text在这一帧重绘)
+        scrollNumber.draw(mCanvas);
+        long frameTime = AnimationUtils.currentAnimationTimeMillis();
+        int frames = 0;
+        boolean isAnimating = true;
+        Debug.startAllocCounting();
+        try {
+            while (isAnimating) {
+                assertTrue(name + " did not finish in " + MAX_FRAMES + " frames", frames < MAX_FRAMES);
+                frameTime += FRAME_INTERVAL;
+                int animatingCells = countAnimatingCells(scrollNumber);
+                mCanvas.reset();
+                Debug.resetThreadAllocCount();
+
+                isAnimating = false;
+                for (int i = 0; i < cellCount; i++) {
+                    isAnimating |= ((ScrollNumber) scrollNumber.getChildAt(i)).doFrame(frameTime);
+                }
+                //绘制之前请求了重绘的数字Text(绘制后清除)
+                int redraws = countDirtyCells(scrollNumber);
+                scrollNumber.draw(mCanvas);
+
+                int allocations = Debug.getThreadAllocCount();
+                if (null != name) {
+                    assertTrue(name + " frame " + frames + " allocations: " + allocations,
+                            allocations <= BUDGET_ALLOCATIONS_PER_FRAME);
+                    assertTrue(name + " frame " + frames + " drawText: " + mCanvas.getDrawTextCount(),
+                            mCanvas.getDrawTextCount() <= BUDGET_DRAW_TEXT_PER_CELL * cellCount);
+                    assertTrue(name + " frame " + frames + " redraws: " + redraws + " animating: " + animatingCells,
+                            redraws <= BUDGET_REDRAWS_PER_ANIMATING_CELL * animatingCells);
+                }
+                frames++;
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    /** 正在播放(包括等待开始)的数字Text个数 */
+    private static int countAnimatingCells(MultiScrollNumber scrollNumber) {
+        int count = 0;
+        for (int i = 0; i < scrollNumber.getChildCount(); i++) {
+            if (((ScrollNumber) scrollNumber.getChildAt(i)).isAnimating()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** 上一次绘制之后请求重绘的数字Text个数(从测试一侧统计，不需要在控件中计数) */
+    private static int countDirtyCells(MultiScrollNumber scrollNumber) {
+        int count = 0;
+        for (int i = 0; i < scrollNumber.getChildCount(); i++) {
+            if (scrollNumber.getChildAt(i).isDirty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
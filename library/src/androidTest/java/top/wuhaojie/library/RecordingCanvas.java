@@ -0,0 +1,49 @@
+package top.wuhaojie.library;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * 统计drawText调用次数的Canvas
+ */
+public class RecordingCanvas extends Canvas {
+    /** drawText调用次数 */
+    private int mDrawTextCount;
+
+    public RecordingCanvas(int width, int height) {
+        super(Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888));
+    }
+
+    public int getDrawTextCount() {
+        return mDrawTextCount;
+    }
+
+    public void reset() {
+        mDrawTextCount = 0;
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        mDrawTextCount++;
+        super.drawText(text, index, count, x, y, paint);
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        mDrawTextCount++;
+        super.drawText(text, x, y, paint);
+    }
+
+    @Override
+    public void drawText(String text, int start, int end, float x, float y, Paint paint) {
+        mDrawTextCount++;
+        super.drawText(text, start, end, x, y, paint);
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        mDrawTextCount++;
+        super.drawText(text, start, end, x, y, paint);
+    }
+}
@@ -0,0 +1,82 @@
+package top.wuhaojie.library;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Debug;
+import android.test.AndroidTestCase;
+
+/**
+ * 离屏渲染测试(设备上运行)
+ * 说明: 每秒更新一次桌面小部件时只轮流使用两个Bitmap缓冲区，逐帧渲染不分配内存。
+ */
+public class ScrollNumberBitmapRendererTest extends AndroidTestCase {
+    /** 帧间隔(60fps) */
+    private static final long FRAME_INTERVAL = 16L;
+    /** 单次动画最多渲染的帧数 */
+    private static final int MAX_FRAMES = 1000;
+
+    private ScrollNumberBitmapRenderer mRenderer;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mRenderer = new ScrollNumberBitmapRenderer(ScrollNumberStyle.obtain(40, 30, Color.BLACK, Color.BLACK));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mRenderer.release();
+        super.tearDown();
+    }
+
+    public void testBuffersAreReusedEverySecond() {
+        mRenderer.setNumber("12:00:00");
+        Bitmap first = mRenderer.renderFinal();
+        Bitmap second = mRenderer.renderFinal();
+        assertNotSame(first, second);
+        for (int i = 1; i < 10; i++) {
+            mRenderer.setNumberWithAnimation("12:00:0" + (i - 1), "12:00:0" + i);
+            Bitmap bitmap = mRenderer.renderFinal();
+            assertTrue(bitmap == first || bitmap == second);
+            assertEquals(mRenderer.getWidth(), bitmap.getWidth());
+            assertEquals(mRenderer.getHeight(), bitmap.getHeight());
+        }
+    }
+
+    public void testFramesDoNotAllocate() {
+        //预热(创建缓冲区和JIT编译，位数相同时Bitmap尺寸不变)
+        play("00000", "99999");
+        Debug.startAllocCounting();
+        try {
+            Debug.resetThreadAllocCount();
+            int frames = play("99999", "12345");
+            int allocations = Debug.getThreadAllocCount();
+            assertTrue(frames > 1);
+            assertEquals("allocations in " + frames + " frames", 0, allocations);
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    public void testFrameTimeCouldNotGoBackwards() {
+        mRenderer.setNumberWithAnimation("1", "9");
+        mRenderer.renderFrame(100);
+        try {
+            mRenderer.renderFrame(50);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    /** 逐帧渲染一次动画 返回帧数 */
+    private int play(String from, String to) {
+        mRenderer.setNumberWithAnimation(from, to);
+        int frames = 0;
+        for (long elapsed = 0; mRenderer.isAnimating(); elapsed += FRAME_INTERVAL) {
+            assertTrue(from + "->" + to + " did not finish", frames < MAX_FRAMES);
+            mRenderer.renderFrame(elapsed);
+            frames++;
+        }
+        return frames;
+    }
+}
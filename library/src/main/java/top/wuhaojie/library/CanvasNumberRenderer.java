@@ -0,0 +1,76 @@
+package top.wuhaojie.library;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * 基于Canvas的数字Text绘制
+ * 说明: 每一帧绘制前通过setCanvas设置当前的Canvas。
+ */
+public class CanvasNumberRenderer implements NumberRenderer {
+    /** 当前绘制的Canvas */
+    private Canvas mCanvas;
+    /** 数字Text画笔 */
+    private Paint mPaint;
+    /** 文字Text画笔 */
+    private Paint mUnitPaint;
+    /** 测量用的边框 */
+    private Rect mBounds = new Rect();
+
+    public CanvasNumberRenderer(Paint paint, Paint unitPaint) {
+        mPaint = paint;
+        mUnitPaint = unitPaint;
+    }
+
+    /** 设置当前绘制的Canvas */
+    public void setCanvas(Canvas canvas) {
+        mCanvas = canvas;
+    }
+
+    /** 设置画笔 */
+    public void setPaints(Paint paint, Paint unitPaint) {
+        mPaint = paint;
+        mUnitPaint = unitPaint;
+    }
+
+    private Paint getPaint(boolean isUnit) {
+        return isUnit ? mUnitPaint : mPaint;
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, boolean isUnit) {
+        mCanvas.drawText(text, index, count, x, y, getPaint(isUnit));
+    }
+
+    @Override
+    public float measureText(char[] text, int index, int count, boolean isUnit) {
+        return getPaint(isUnit).measureText(text, index, count);
+    }
+
+    @Override
+    public int measureTextHeight(char[] text, int index, int count, boolean isUnit) {
+        getPaint(isUnit).getTextBounds(text, index, count, mBounds);
+        return mBounds.height();
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        mCanvas.translate(dx, dy);
+    }
+
+    @Override
+    public void clipRect(float left, float top, float right, float bottom) {
+        mCanvas.clipRect(left, top, right, bottom);
+    }
+
+    @Override
+    public int save() {
+        return mCanvas.save();
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        mCanvas.restoreToCount(saveCount);
+    }
+}
@@ -0,0 +1,106 @@
+package top.wuhaojie.library;
+
+/**
+ * 时钟模式的格式(HH:MM:SS)
+ * 说明: 按照数字Text数组的顺序(低位在前)填充，0~1列为秒，3~4列为分钟，6列以上为小时。
+ * 每一列有自己的进制: 秒和分钟的十位为6，24小时制小时的十位为3，小时为2x时个位为4。
+ */
+final class ClockFormat {
+    /** 分隔符 */
+    static final char SEPARATOR = ':';
+    /** 一天的秒数 */
+    static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    /** 小时的个位所在的列 */
+    private static final int HOUR_COLUMN = 6;
+
+    private ClockFormat() {
+    }
+
+    /** 格式化后的列数(小时至少两位，倒计时超过99小时时增加位数) */
+    static int calLength(long seconds) {
+        int length = HOUR_COLUMN + 2;
+        for (long hours = seconds / 3600; hours >= 100; hours /= 10) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * 按照低位在前填充数字Text数组
+     *
+     * @param seconds : 显示的秒数(时钟为当天的秒数，倒计时为剩余秒数)
+     * @param columns : 数字Text数组(容量不少于calLength)
+     * @return 列数
+     */
+    static int fillColumns(long seconds, ScrollAlphabet alphabet, char[] columns) {
+        int length = calLength(seconds);
+        columns[0] = alphabet.charAt((int) (seconds % 10));
+        columns[1] = alphabet.charAt((int) (seconds % 60 / 10));
+        columns[2] = SEPARATOR;
+        columns[3] = alphabet.charAt((int) (seconds / 60 % 10));
+        columns[4] = alphabet.charAt((int) (seconds / 60 % 60 / 10));
+        columns[5] = SEPARATOR;
+        long hours = seconds / 3600;
+        for (int i = HOUR_COLUMN; i < length; i++) {
+            columns[i] = alphabet.charAt((int) (hours % 10));
+            hours /= 10;
+        }
+        return length;
+    }
+
+    /** 格式化(HH:MM:SS) */
+    static String format(long seconds, ScrollAlphabet alphabet) {
+        char[] columns = new char[calLength(seconds)];
+        fillColumns(seconds, alphabet, columns);
+        StringBuilder builder = new StringBuilder(columns.length);
+        for (int i = columns.length - 1; i >= 0; i--) {
+            builder.append(columns[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 计算一列的进制(循环的数字个数)
+     * 说明: 时间跳变时(例如23点直接到07点)数字超出进制，按照十进制。
+     *
+     * @param column : 列索引(低位在前，不能是分隔符)
+     * @param isCountdown : 是否倒计时(倒计时的小时不按照24小时循环)
+     * @param from : 变化前的数字Text数组(计算小时个位时读取小时的十位)
+     * @param to : 变化后的数字Text数组
+     */
+    static int calColumnBase(int column, boolean isCountdown, char[] from, char[] to, ScrollAlphabet alphabet) {
+        int base;
+        switch (column) {
+            case 1:
+            case 4:
+                base = 6;
+                break;
+            case HOUR_COLUMN:
+                base = !isCountdown && 2 == alphabet.indexOf(from[HOUR_COLUMN + 1]) ? 4 : 10;
+                break;
+            case HOUR_COLUMN + 1:
+                base = isCountdown ? 10 : 3;
+                break;
+            default:
+                base = 10;
+                break;
+        }
+        if (alphabet.indexOf(from[column]) >= base || alphabet.indexOf(to[column]) >= base) {
+            return 10;
+        }
+        return base;
+    }
+
+    /**
+     * 计算一列滚动的步数
+     * 说明: 正常走时(相邻的数字)按照方向滚动一步，时间跳变时在进制内走最短路径。
+     *
+     * @param direction : 走时方向(时钟向上 倒计时向下)
+     */
+    static int calSteps(int fromNum, int toNum, int base, int direction) {
+        if ((fromNum + direction + base) % base == toNum) {
+            return direction;
+        }
+        return ScrollColumn.calShortestSteps(fromNum, toNum, base);
+    }
+}
@@ -0,0 +1,18 @@
+package top.wuhaojie.library;
+
+/**
+ * 时钟模式的时间来源
+ * 说明: 默认使用系统时间，测试或者与服务器时间同步时可以替换。
+ */
+public interface ClockSource {
+    /** 系统时间 */
+    ClockSource SYSTEM = new ClockSource() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /** 当前时间(ms，与System.currentTimeMillis相同的时间基准) */
+    long currentTimeMillis();
+}
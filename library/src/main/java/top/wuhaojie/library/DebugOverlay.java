@@ -0,0 +1,160 @@
+package top.wuhaojie.library;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * 调试浮层
+ * 说明: 由MultiScrollNumber在绘制完成后绘制，显示每秒帧数、上一帧的绘制时长、正在播放的单元格个数、
+ * 每秒重绘的单元格个数，并且用半透明色块标记当前帧重绘的区域。统计都在绘制时采样，只在开启调试浮层时创建。
+ */
+final class DebugOverlay {
+    /** 统计周期(ms) */
+    static final long SAMPLE_INTERVAL = 1000L;
+    /** 重绘区域颜色 */
+    private static final int REGION_COLOR = 0x40FF0000;
+    /** 文字背景颜色 */
+    private static final int BACKGROUND_COLOR = 0xA0000000;
+    /** 文字颜色 */
+    private static final int TEXT_COLOR = 0xFFFFFFFF;
+
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mRegionPaint = new Paint();
+    private final Paint mBackgroundPaint = new Paint();
+    /** 文字大小(px) */
+    private final float mTextSize;
+    /** 拼接文字(复用，绘制时不创建字符串) */
+    private final StringBuilder mBuilder = new StringBuilder(32);
+    private char[] mChars = new char[32];
+
+    /** 当前帧重绘的区域(left top right bottom) */
+    private float[] mRegions = new float[16 * 4];
+    private int mRegionCount;
+
+    /** 当前统计周期的开始时间(-1表示还没有开始) */
+    private long mSampleStartTime = -1;
+    /** 当前统计周期的帧数 */
+    private int mSampleFrames;
+    /** 当前统计周期重绘的单元格个数 */
+    private long mSampleRedraws;
+
+    /** 上一个统计周期的每秒帧数 */
+    private int mFps;
+    /** 上一个统计周期每秒重绘的单元格个数 */
+    private int mRedrawsPerSecond;
+    /** 上一帧的绘制时长(ns) */
+    private long mDrawNanos;
+    /** 正在播放的单元格个数 */
+    private int mAnimatingCount;
+    /** 单元格总数 */
+    private int mCellCount;
+
+    DebugOverlay(float textSize) {
+        mTextSize = textSize;
+        mTextPaint.setTextSize(textSize);
+        mTextPaint.setColor(TEXT_COLOR);
+        mRegionPaint.setColor(REGION_COLOR);
+        mBackgroundPaint.setColor(BACKGROUND_COLOR);
+    }
+
+    /** 开始记录当前帧重绘的区域 */
+    void clearRegions() {
+        mRegionCount = 0;
+    }
+
+    /** 追加一个当前帧重绘的区域 */
+    void addRegion(float left, float top, float right, float bottom) {
+        int index = mRegionCount * 4;
+        if (index == mRegions.length) {
+            float[] regions = new float[index * 2];
+            System.arraycopy(mRegions, 0, regions, 0, index);
+            mRegions = regions;
+        }
+        mRegions[index] = left;
+        mRegions[index + 1] = top;
+        mRegions[index + 2] = right;
+        mRegions[index + 3] = bottom;
+        mRegionCount++;
+    }
+
+    /**
+     * 记录一帧
+     *
+     * @param frameTime : 当前帧的时间(ms)
+     * @param drawNanos : 当前帧的绘制时长(ns)
+     * @param animatingCount : 正在播放的单元格个数
+     * @param cellCount : 单元格总数
+     */
+    void onFrame(long frameTime, long drawNanos, int animatingCount, int cellCount) {
+        mDrawNanos = drawNanos;
+        mAnimatingCount = animatingCount;
+        mCellCount = cellCount;
+        if (mSampleStartTime < 0) {
+            mSampleStartTime = frameTime;
+        }
+        mSampleFrames++;
+        //当前帧记录的重绘区域
+        mSampleRedraws += mRegionCount;
+        long elapsed = frameTime - mSampleStartTime;
+        if (elapsed >= SAMPLE_INTERVAL) {
+            mFps = (int) (mSampleFrames * 1000L / elapsed);
+            mRedrawsPerSecond = (int) (mSampleRedraws * 1000L / elapsed);
+            mSampleStartTime = frameTime;
+            mSampleFrames = 0;
+            mSampleRedraws = 0;
+        }
+    }
+
+    /** 是否还有未显示的统计(停止绘制后需要再绘制一次刷新数字) */
+    boolean hasPendingSample() {
+        return mSampleFrames > 0 || mFps > 0;
+    }
+
+    /** 绘制重绘区域和统计文字 */
+    void draw(Canvas canvas) {
+        for (int i = 0; i < mRegionCount * 4; i += 4) {
+            canvas.drawRect(mRegions[i], mRegions[i + 1], mRegions[i + 2], mRegions[i + 3], mRegionPaint);
+        }
+        mBuilder.setLength(0);
+        mBuilder.append(mFps).append(" fps  ");
+        appendMillis(mDrawNanos);
+        mBuilder.append(" ms");
+        float width = drawLine(canvas, 0, 0);
+        mBuilder.setLength(0);
+        mBuilder.append("anim ").append(mAnimatingCount).append('/').append(mCellCount)
+                .append("  redraw ").append(mRedrawsPerSecond).append("/s");
+        drawLine(canvas, 1, width);
+    }
+
+    /** 追加毫秒数(保留两位小数) */
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10000L;
+        mBuilder.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            mBuilder.append('0');
+        }
+        mBuilder.append(fraction);
+    }
+
+    /**
+     * 绘制一行文字
+     *
+     * @param minWidth : 背景的最小宽度(与上一行对齐)
+     * @return 背景宽度
+     */
+    private float drawLine(Canvas canvas, int line, float minWidth) {
+        int length = mBuilder.length();
+        if (length > mChars.length) {
+            mChars = new char[length * 2];
+        }
+        mBuilder.getChars(0, length, mChars, 0);
+        float padding = mTextSize / 4;
+        float lineHeight = mTextSize + padding * 2;
+        float width = Math.max(minWidth, mTextPaint.measureText(mChars, 0, length) + padding * 2);
+        float top = line * lineHeight;
+        canvas.drawRect(0, top, width, top + lineHeight, mBackgroundPaint);
+        canvas.drawText(mChars, 0, length, padding, top + padding + mTextSize * 0.8f, mTextPaint);
+        return width;
+    }
+}
@@ -1,19 +1,35 @@
 package top.wuhaojie.library;
 
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.annotation.ColorRes;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.util.TypedValue;
+import android.view.Choreographer;
 import android.view.Gravity;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
 import android.view.animation.Interpolator;
 import android.widget.LinearLayout;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created by wuhaojie on 2016/7/19 20:39.
@@ -50,44 +66,85 @@ public class MultiScrollNumber extends LinearLayout {
         public void animEnd(ScrollNumber scrollNumber);
     }
 
-    /** 默认数字Text */
-    private static final String DEFAULT_NUMBER_CHAR = "0";
-    /** 默认非数字Text */
-    private static final String DEFAULT_TEXT_CHAR = " ";
-    /** 默认空数字Text */
-    private static final String DEFAULT_EMPTY_CHAR = " ";
     /** 默认数字播放延时处理 */
-    private static final int NUMBER_ANIM_DELAY = 90;
+    static final int NUMBER_ANIM_DELAY = 90;
     /** 默认数字初始化延时处理 */
     private static final int NUMBER_INIT_DELAY = 10;
     /** 默认数字播放延时处理 */
-    private static final long NUMBER_ANIM_DURATION = 1500L;
+    static final long NUMBER_ANIM_DURATION = 1500L;
 
     /** 默认数字字体大小 */
     public static final int SCROLL_NUMBER_TEXT_SIZE = 25;
     /** 默认文字字体大小 */
     public static final int SCROLL_UNIT_TEXT_SIZE = 18;
+    /** 不限制每次更新的滚动步数 */
+    public static final int STEP_BUDGET_UNLIMITED = 0;
+    /** 使用全局帧率上限(setDefaultMaxFrameRate) */
+    public static final int FRAME_RATE_DEFAULT = -1;
+    /** 不限制帧率(同时忽略全局帧率上限) */
+    public static final int FRAME_RATE_UNLIMITED = 0;
+    /** 紧凑模式列之间的间距(dp) */
+    private static final int TABLE_COLUMN_SPACING = 2;
+    /** 紧凑模式上下的留白(dp，与ScrollNumber一致) */
+    private static final int TABLE_VERTICAL_PADDING = 13;
+    /** 数字Text左右的外边距(px) */
+    private static final int CELL_MARGIN = 5;
+    /** 数字Text的内边距(dp，与ScrollNumber一致) */
+    private static final int CELL_PADDING = 2;
+    /** 数字Text测量时宽度的留白(dp，与ScrollNumber一致) */
+    private static final int CELL_EXTRA_WIDTH = 8;
+    /** 自动调整字体大小时的最小字体大小(sp) */
+    private static final int MIN_FIT_TEXT_SIZE = 6;
+    /** 自适应时字符表中的字形统一记为同一个字符(宽度相同) */
+    private static final char FIT_GLYPH = '\0';
+    /** 单步滚动的基准时长(一轮字符1500ms) */
+    private static final long STEP_DURATION = ScrollNumber.ONE_LOOP_DURATION / ScrollNumber.NUMBER_CHARS_TOTAL;
+    /** 对齐结果缓存的默认个数 */
+    private static final int PLAN_CACHE_SIZE_DEFAULT = 16;
+    /** 调试浮层的文字大小(sp) */
+    private static final int DEBUG_OVERLAY_TEXT_SIZE = 10;
+    /** 全局动画帧率上限(0表示不限制) */
+    private static int sMaxFrameRate = 0;
     private Context mContext;
-    /** 目标数字Text(逆序) */
-    private List<String> mTargetNumbers = new ArrayList<String>();
-    /** 初始数字Text(逆序) */
-    private List<String> mPrimaryNumbers = new ArrayList<String>();
+    /** 目标数字Text(逆序 低位在前) */
+    private char[] mTargetChars = new char[16];
+    /** 初始数字Text(逆序 低位在前) */
+    private char[] mPrimaryChars = new char[16];
+    /** 数字Text个数 */
+    private int mColumnCount;
+    /** 单元格(对应一个滚动数字项)的起始位置和字符个数(连续的文字作为一个单元格) */
+    private int[] mCellStart = new int[16];
+    private int[] mCellLength = new int[16];
+    /** 单元格个数 */
+    private int mCellCount;
+    /** 超过步数上限时每个单元格播放的步数(带方向 0表示直接显示) */
+    private int[] mCellSteps = new int[16];
+    /** 文字单元格的起始和目标Text(正序) */
+    private char[] mCellFrom = new char[16];
+    private char[] mCellTo = new char[16];
     /** 滚动的数字项 */
     private List<ScrollNumber> mScrollNumbers = new ArrayList<ScrollNumber>();
-    /** 默认数字字体大小 */
-    private int mTextSize = SCROLL_NUMBER_TEXT_SIZE;
-    /** 默认文字字体大小 */
-    private int mUnitTextSize = SCROLL_UNIT_TEXT_SIZE;
-    /** 数字Text字体颜色 */
-    private int[] mTextColors = new int[]{R.color.purple01};
-    /** 数字Text背景资源 */
-    private int numberResId;
-    /** 文字Text背景资源 */
-    private int numberUnitResId;
+    /** 数字Text样式(所有数字Text共用) */
+    private ScrollNumberStyle mStyle;
+    /** 实际使用的样式(自动调整字体大小时为缩小后的样式) */
+    private ScrollNumberStyle mDrawStyle;
+    /** 是否自动调整字体大小 */
+    private boolean isAutoFit;
+    /** 字体大小自适应(第一次使用时创建) */
+    private TextSizeFitter mFitter;
+    /** 上一次自适应时的可用宽度、单元格内容和样式(都没有变化时不重新计算) */
+    private int mFitWidth = -1;
+    private ScrollNumberStyle mFitSourceStyle;
+    /** 上一次自适应时的数字Text(字符表中的字形记为FIT_GLYPH，只保留单元格划分和文字) */
+    private char[] mFitChars = new char[0];
     /** 需要滚动的最高位 */
     private int mAnimStartPosition;
     /** 基准动画播放轮数(默认一轮) */
     private int mAnimLoop = ScrollNumber.SCROLL_LOOP_DEFAULT;
+    /** 数字Text对齐 */
+    private final NumberAligner mAligner = new NumberAligner();
+    /** 对齐结果缓存 */
+    private final NumberPlanCache mPlanCache = new NumberPlanCache(PLAN_CACHE_SIZE_DEFAULT);
     /** 起始目标数字字符串 A */
     private String numTextPrimary = "";
     /** 起始目标数字字符串对应的中间字符 A' */
@@ -100,12 +157,122 @@ public class MultiScrollNumber extends LinearLayout {
     private String fmtNumTextMiddle = "";
     /** 格式化目标数字字符串 B */
     private String fmtNumTextTarget = "";
-    /** 数字Text字体 */
-    private String mFontFileName;
-    /** 文字Text字体 */
-    private String mUnitFontFileName;
     /** 数字动画播放模式 */
     private Mode mAnimMode = Mode.START_FIRST_ARRIVAL_LAST;
+    /** 数字滚动策略 */
+    private ScrollNumber.Strategy mStrategy = ScrollNumber.Strategy.NATURAL;
+    /** 可滚动的字符表(默认十进制数字) */
+    private ScrollAlphabet mAlphabet = ScrollAlphabet.DECIMAL;
+    /** 每次更新所有数字Text滚动步数的上限 */
+    private int mMaxTotalSteps = STEP_BUDGET_UNLIMITED;
+    /**
+     * 是否水平虚拟化
+     * 说明: 放在横向滚动容器中的超长数字按照紧凑模式推进，只绘制和播放可见区域内的列，
+     * 不可见的列直接显示目标值。
+     */
+    private boolean mVirtualized;
+    /** 当前可见区域 */
+    private Rect mVisibleRect = new Rect();
+    /** 水平虚拟化时可见的列(低位在前，包含两端，第一列大于最后一列表示没有可见的列) */
+    private int mFirstVisibleColumn;
+    private int mLastVisibleColumn = -1;
+    /** 是否监听了滚动容器的滚动 */
+    private boolean isScrollListening;
+    /** 滚动容器滚动时可见的列变化则重绘(硬件加速时滚动容器不会重绘子控件) */
+    private final ViewTreeObserver.OnScrollChangedListener mScrollChangedListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            if (null == mTable) {
+                return;
+            }
+            int first = mFirstVisibleColumn;
+            int last = mLastVisibleColumn;
+            updateVisibleColumns();
+            if (first != mFirstVisibleColumn || last != mLastVisibleColumn) {
+                invalidate();
+            }
+        }
+    };
+    /**
+     * 是否紧凑模式
+     * 说明: 不创建ScrollNumber子控件，所有数字Text的动画状态按列存放在ScrollColumnTable中，
+     * 由当前控件在一个循环中推进和绘制。用于一屏上千个数字Text的场景。
+     */
+    private boolean isCompact;
+    /** 紧凑模式的滚动引擎(第一次使用时创建) */
+    private ScrollColumnTable mTable;
+    /** 紧凑模式的绘制 */
+    private CanvasNumberRenderer mTableRenderer;
+    /** 紧凑模式每一列的宽度 */
+    private int mTableColumnWidth;
+    /** 紧凑模式是否有列在播放动画 */
+    private boolean isTableAnimating;
+    /** 紧凑模式上一次推进的时间 */
+    private long mLastTableFrameTime;
+    /** 动画帧率上限(FRAME_RATE_DEFAULT表示使用全局设置) */
+    private int mMaxFrameRate = FRAME_RATE_DEFAULT;
+    /** 最近一次动画的开始时间 */
+    private long mAnimStartTime;
+    /** 是否有待应用的恢复状态(批量更新期间恢复) */
+    private boolean isRestorePending;
+    /** 恢复状态时动画已经播放的时长(-1表示没有播放中的动画) */
+    private long mRestoreElapsed;
+    /** 恢复状态的时间 */
+    private long mRestoreTime;
+    /** 计数器的当前值(里程表模式) */
+    private long mCounterValue;
+    /** 计数器的当前值是否有效 */
+    private boolean isCounterValueKnown;
+    /** 目标数字字符串是否需要根据计数器的当前值重新生成 */
+    private boolean isCounterTextStale;
+    /** 是否根据更新频率降级低位的动画(默认关闭) */
+    private boolean isRateAdaptive;
+    /** 每个数字Text的更新频率 */
+    private final UpdateRateTracker mRateTracker = new UpdateRateTracker();
+    /** 时钟模式的时间来源(null表示没有运行) */
+    private ClockSource mClockSource;
+    /** 时钟模式的时区(开始时获取) */
+    private TimeZone mClockTimeZone;
+    /** 是否倒计时 */
+    private boolean isCountdown;
+    /** 倒计时的结束时间 */
+    private long mCountdownEndTime;
+    /** 时钟模式下一秒的数字Text(低位在前，复用) */
+    private char[] mClockColumns = new char[16];
+    /** 是否附加到窗口 */
+    private boolean isAttached;
+    /** 控件和窗口是否可见(不可见时时钟不走时) */
+    private boolean isClockVisible;
+    /** 时钟模式走时 */
+    private final Runnable mClockRunnable = new Runnable() {
+        @Override
+        public void run() {
+            tickClock();
+        }
+    };
+    /** 其他线程提交的最新数字字符串(主线程取出后置空) */
+    private final AtomicReference<String> mSubmittedNumber = new AtomicReference<String>();
+    /** 主线程Handler */
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    /** 是否调试模式(检查数字设置是否在主线程调用) */
+    private boolean isDebuggable;
+    /** 调试浮层(关闭时为null) */
+    private DebugOverlay mDebugOverlay;
+    /** 批量更新的嵌套层数 */
+    private int mUpdateDepth;
+    /** 是否延迟到第一次测量时初始化(布局加载) */
+    private boolean isInitDeferred;
+    /** 是否正在测量(测量时添加数字Text不再请求布局) */
+    private boolean isMeasuring;
+    /** 批量更新期间样式是否变化 */
+    private boolean isStyleDirty;
+    /** 批量更新期间是否有待应用的数字 */
+    private boolean isNumberDirty;
+    /** 批量更新期间待应用的数字(格式化后) */
+    private String mPendingFrom;
+    private String mPendingTo;
+    private int mPendingDelay;
+    private boolean isPendingAnimation;
 
     /** 数字播放加速器 */
     private Interpolator mInterpolator = new AccelerateDecelerateInterpolator();
@@ -140,36 +307,118 @@ public class MultiScrollNumber extends LinearLayout {
         String targetNumber = typedArray.getString(R.styleable.MultiScrollNumber_target_number);
         int numberSize = typedArray.getInteger(R.styleable.MultiScrollNumber_number_size, SCROLL_NUMBER_TEXT_SIZE);
         int numberUnitSize = typedArray.getInteger(R.styleable.MultiScrollNumber_number_unit_size, SCROLL_UNIT_TEXT_SIZE);
-        numberResId = typedArray.getInteger(R.styleable.MultiScrollNumber_numberBackground, 0);
-        numberUnitResId = typedArray.getInteger(R.styleable.MultiScrollNumber_numberUnitBackground, 0);
+        int numberResId = typedArray.getInteger(R.styleable.MultiScrollNumber_numberBackground, 0);
+        int numberUnitResId = typedArray.getInteger(R.styleable.MultiScrollNumber_numberUnitBackground, 0);
+        //布局加载时只记录样式和数字，第一次测量时再创建数字Text
+        beginUpdate();
+        isInitDeferred = true;
+        //初始化样式
+        int textColor = getResources().getColor(R.color.purple01);
+        mStyle = ScrollNumberStyle.obtain(sp2px(SCROLL_NUMBER_TEXT_SIZE), sp2px(SCROLL_UNIT_TEXT_SIZE), textColor, textColor,
+                numberResId, numberUnitResId);
+        mDrawStyle = mStyle;
+        isAutoFit = typedArray.getBoolean(R.styleable.MultiScrollNumber_auto_fit, false);
+        mVirtualized = typedArray.getBoolean(R.styleable.MultiScrollNumber_virtualized, false);
+        isCompact = typedArray.getBoolean(R.styleable.MultiScrollNumber_compact, false);
+        if (typedArray.getBoolean(R.styleable.MultiScrollNumber_debug_overlay, false)) {
+            mDebugOverlay = new DebugOverlay(sp2px(DEBUG_OVERLAY_TEXT_SIZE));
+        }
+        updateWillNotDraw();
 
-        //初始化数字
-        setNumber(primaryNumber, targetNumber);
         //设置数字字体大小
         setTextSize(numberSize);
         //设置文字字体大小
         setUnitTextSize(numberUnitSize);
+        //初始化数字
+        setNumber(primaryNumber, targetNumber);
 
         typedArray.recycle();
 
         setOrientation(HORIZONTAL);
         setGravity(Gravity.CENTER);
+        //异步加载布局时构造函数不在主线程调用，初始化完成之后再开启检查
+        ApplicationInfo applicationInfo = context.getApplicationInfo();
+        isDebuggable = null != applicationInfo && (applicationInfo.flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    /**
+     * 通过字符串填充数字Text数组
+     * 说明: 逆序存放，低位在前。位数不足count的高位采用空白字符补位。
+     *
+     * @param text : 数字字符串
+     * @param columns : 数字Text数组
+     * @param count : 需要填充的个数
+     */
+    private static void fillColumns(String text, char[] columns, int count) {
+        int length = null == text ? 0 : text.length();
+        for(int i = 0; i < count; i++) {
+            columns[i] = i < length ? text.charAt(length - 1 - i) : ' ';
+        }
+    }
+
+    /** 数字Text数组(逆序 低位在前)转换为字符串 */
+    private static String toText(char[] columns, int count) {
+        return new StringBuilder(count).append(columns, 0, count).reverse().toString();
+    }
+
+    /** 保证数字Text数组容量 */
+    private void ensureColumnCapacity(int count) {
+        if(mTargetChars.length < count) {
+            int capacity = Math.max(count, mTargetChars.length * 2);
+            mTargetChars = new char[capacity];
+            mPrimaryChars = new char[capacity];
+            mCellStart = new int[capacity];
+            mCellLength = new int[capacity];
+            mCellSteps = new int[capacity];
+            mCellFrom = new char[capacity];
+            mCellTo = new char[capacity];
+        }
+    }
+
+    /**
+     * 划分单元格
+     * 说明: 目标Text中连续的文字(例如"万"、"USD"、"次/秒")合并为一个单元格，只测量和绘制一次，
+     * 数字和空白字符各占一个单元格。
+     */
+    private void fillCells() {
+        int count = 0;
+        int i = 0;
+        while (i < mColumnCount) {
+            int start = i;
+            i++;
+            if (isWordChar(mTargetChars[start])) {
+                while (i < mColumnCount && isWordChar(mTargetChars[i])) {
+                    i++;
+                }
+            }
+            mCellStart[count] = start;
+            mCellLength[count] = i - start;
+            count++;
+        }
+        mCellCount = count;
+    }
+
+    private boolean isWordChar(char c) {
+        return !mAlphabet.contains(c) && !ScrollColumn.isEmptyChar(c);
     }
 
     /**
-     * 通过字符串获取数字text列表
-     * 说明: 高位放高位数字
+     * 复制单元格的Text(逆序转换为正序)
+     *
+     * @param columns : 数字Text数组
+     * @param start : 单元格起始位置
+     * @param length : 单元格字符个数
+     * @param dst : 正序Text
+     * @return 去掉空白字符后的长度
      */
-    private List<String> getNumberStringList(String primaryNumber) {
-        List<String> numbers = null;
-        if(!TextUtils.isEmpty(primaryNumber)) {
-            numbers = new ArrayList<String>();
-            for(int i = 0; i < primaryNumber.length(); i++) {
-                numbers.add(primaryNumber.substring(i, i + 1));
+    private static int copyCellText(char[] columns, int start, int length, char[] dst) {
+        int count = 0;
+        for (int i = start + length - 1; i >= start; i--) {
+            if (!ScrollColumn.isEmptyChar(columns[i])) {
+                dst[count++] = columns[i];
             }
-            Collections.reverse(numbers);
         }
-        return numbers;
+        return count;
     }
 
     /** 设置滚动模式 */
@@ -182,6 +431,8 @@ public class MultiScrollNumber extends LinearLayout {
      * 说明: 只初始化数据不播放动画
      */
     public void setNumber(String str) {
+        checkMainThread("setNumber");
+        materializeCounterText();
         if(TextUtils.isEmpty(str)) {
             return;
         }
@@ -197,6 +448,7 @@ public class MultiScrollNumber extends LinearLayout {
      *
      */
     public void setNumber(String from, String to) {
+        checkMainThread("setNumber");
         if(TextUtils.isEmpty(from) && TextUtils.isEmpty(to)) {
             return;
         }
@@ -204,43 +456,17 @@ public class MultiScrollNumber extends LinearLayout {
         numTextPrimary = from;
         numTextTarget = to;
         //生产中间过度数据数据A'
-        //格式化数字串
-        StringBuilder fromBuffer = new StringBuilder();
-        StringBuilder toBuffer = new StringBuilder();
-        formatNumberGroupByChar(from, to, fromBuffer, toBuffer);
-        Log.d(TAG, "setNumber " + fromBuffer.toString() + "fromBuffer [" + fromBuffer.toString() + "] length: " + fromBuffer.length() + " toBuffer [" + toBuffer.toString() + "] length: " + fromBuffer.length());
-        //格式化打洞(去掉目标数字需要移除的Text项目)
-        formatPrimaryByTarget(fromBuffer, toBuffer);
-        fmtNumTextMiddle = fromBuffer.toString();
-        fmtNumTextTarget = toBuffer.toString();
+        //格式化数字串并打洞(去掉目标数字需要移除的Text项目)
+        NumberPlanCache.Plan plan = mPlanCache.obtain(from, to, mAnimMode, mAlphabet, mAligner);
+        fmtNumTextMiddle = plan.from;
+        fmtNumTextTarget = plan.to;
         fmtNumTextPrimary = fmtNumTextMiddle;
         numTextTarget = fmtNumTextTarget;
-        mAnimStartPosition = initAnimStartPosition(fromBuffer, toBuffer);
+        mAnimStartPosition = plan.animStartPosition;
         //数字Text列表初始化为中间数字A'
-        setNumber(getNumberStringList(fmtNumTextTarget), getNumberStringList(fmtNumTextTarget), NUMBER_INIT_DELAY, false);
-        Log.d(TAG, "setNumber fmtNumTextMiddle [" + fmtNumTextMiddle + "] fmtNumTextPrimary [" + fmtNumTextTarget + "]");
-    }
-
-    /** 格式化打洞 */
-    private void formatPrimaryByTarget(StringBuilder fromBuffer, StringBuilder toBuffer) {
-        String subStr = "";
-        for(int i = toBuffer.length(); i > 0; i--) {
-            subStr = toBuffer.substring(i - 1, i);
-            if(ScrollNumber.isEmptyChar(subStr)) {
-                //如果目标数字为空移除起始数字对应位置
-                fromBuffer.delete(i - 1, i);
-                toBuffer.delete(i - 1, i);
-            } else if(ScrollNumber.isNumeric(subStr)) {
-                //如果目标数字不为空且为数字起始数字对应位置初始化为0
-                if(ScrollNumber.isEmptyChar(fromBuffer.substring(i - 1, i))) {
-                    fromBuffer.replace(i - 1, i, DEFAULT_NUMBER_CHAR);
-                }
-            } else {
-                //如果目标数字不为空且为是文字Text起始数字对应位置不需要处理
-                if(ScrollNumber.isEmptyChar(fromBuffer.substring(i - 1, i))) {
-                    fromBuffer.replace(i - 1, i, subStr);
-                }
-            }
+        setNumber(fmtNumTextTarget, fmtNumTextTarget, NUMBER_INIT_DELAY, false);
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "setNumber fmtNumTextMiddle [" + fmtNumTextMiddle + "] fmtNumTextPrimary [" + fmtNumTextTarget + "]");
         }
     }
 
@@ -252,6 +478,8 @@ public class MultiScrollNumber extends LinearLayout {
      * @param str : 目标数字字符串
      */
     public void setNumberWithAnimationNumberChanged(String str) {
+        checkMainThread("setNumberWithAnimationNumberChanged");
+        materializeCounterText();
         if (TextUtils.isEmpty(str) || str.equals(numTextTarget)) {
             //如果为空或者与目标数字内容相同不进行处理
             return;
@@ -266,11 +494,15 @@ public class MultiScrollNumber extends LinearLayout {
      * @param str : 目标数字字符串
      */
     public void setNumberWithAnimation(String str) {
+        checkMainThread("setNumberWithAnimation");
         if (TextUtils.isEmpty(str)) {
             //如果为空或者与目标数字内容相同不进行处理
             return;
         }
-        Log.d(TAG, "----setNumberWithAnimation from: " + numTextTarget + " to: " + str);
+        materializeCounterText();
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "----setNumberWithAnimation from: " + numTextTarget + " to: " + str);
+        }
         setNumberWithAnimation(numTextTarget, str);
     }
 
@@ -282,6 +514,7 @@ public class MultiScrollNumber extends LinearLayout {
      * @param to : 目标数字字符串
      */
     public void setNumberWithAnimation(String from, String to) {
+        checkMainThread("setNumberWithAnimation");
         if(TextUtils.isEmpty(from) && TextUtils.isEmpty(to)) {
             return;
         }
@@ -290,32 +523,96 @@ public class MultiScrollNumber extends LinearLayout {
         numTextTarget = to;
         //中间数字即目标数字
         numTextMiddle = to;
-        //格式化数字串
-        StringBuilder fromBuffer = new StringBuilder();
-        StringBuilder toBuffer = new StringBuilder();
-        formatNumberGroupByChar(from, to, fromBuffer, toBuffer);
-        //格式化打洞
-        formatPrimaryByTarget(fromBuffer, toBuffer);
-        fmtNumTextPrimary = fromBuffer.toString();
-        fmtNumTextTarget = toBuffer.toString();
+        //格式化数字串并打洞
+        //重复的起始数字和目标数字直接使用缓存的对齐结果
+        NumberPlanCache.Plan plan = mPlanCache.obtain(from, to, mAnimMode, mAlphabet, mAligner);
+        fmtNumTextPrimary = plan.from;
+        fmtNumTextTarget = plan.to;
         fmtNumTextMiddle = fmtNumTextTarget;
-        mAnimStartPosition = initAnimStartPosition(fromBuffer, toBuffer);
-        Log.d(TAG, "setNumberWithAnimation format from: " + fmtNumTextPrimary + " to: " + fmtNumTextTarget);
+        mAnimStartPosition = plan.animStartPosition;
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "setNumberWithAnimation format from: " + fmtNumTextPrimary + " to: " + fmtNumTextTarget);
+        }
         //数字Text列表初始化
-        setNumber(getNumberStringList(fmtNumTextPrimary), getNumberStringList(fmtNumTextTarget), NUMBER_ANIM_DELAY, true);
+        setNumber(fmtNumTextPrimary, fmtNumTextTarget, NUMBER_ANIM_DELAY, true);
+    }
+
+    /**
+     * 提交播放的数字字符串(任意线程调用)
+     * 说明: 只保存最新提交的值，主线程在下一帧取出最新值播放动画 A-->B，每一帧最多应用一个值，
+     * 中间来不及播放的值直接丢弃。不加锁，只有在没有待处理的值时才向主线程投递任务。
+     *
+     * @param str : 目标数字字符串
+     */
+    public void submit(String str) {
+        if (TextUtils.isEmpty(str)) {
+            return;
+        }
+        if (null == mSubmittedNumber.getAndSet(str)) {
+            mMainHandler.post(mScheduleConsumeRunnable);
+        }
+    }
+
+    /** 主线程等待下一帧再取出(Choreographer只能在主线程获取) */
+    private final Runnable mScheduleConsumeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                if (null == mConsumeFrameCallback) {
+                    mConsumeFrameCallback = new Choreographer.FrameCallback() {
+                        @Override
+                        public void doFrame(long frameTimeNanos) {
+                            consumeSubmittedNumber();
+                        }
+                    };
+                }
+                Choreographer.getInstance().postFrameCallback(mConsumeFrameCallback);
+            } else {
+                //没有Choreographer时按照帧间隔延后取出
+                mMainHandler.postDelayed(mConsumeRunnable, (long) ScrollColumn.FRAME_INTERVAL);
+            }
+        }
+    };
+
+    /** 下一帧取出提交的数字字符串(第一次使用时创建) */
+    private Choreographer.FrameCallback mConsumeFrameCallback;
+
+    private final Runnable mConsumeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            consumeSubmittedNumber();
+        }
+    };
+
+    /** 主线程取出最新提交的数字字符串 */
+    private void consumeSubmittedNumber() {
+        String str = mSubmittedNumber.getAndSet(null);
+        if (null != str) {
+            setNumberWithAnimationNumberChanged(str);
+        }
+    }
+
+    /**
+     * 检查是否在主线程调用(只在调试模式下检查)
+     * 说明: 数字相关的状态没有同步，其他线程需要通过submit提交数字。
+     */
+    private void checkMainThread(String method) {
+        if (isDebuggable && Looper.myLooper() != Looper.getMainLooper()) {
+            throw new IllegalStateException(method + " must be called on the main thread, use submit() from other threads!");
+        }
     }
 
     /**
      * 播放动画最高位的位置
      * 说明: 查找动画需要播放的最高位。其下低位都需要播放动画
      */
-    private int initAnimStartPosition(StringBuilder fmtNumTextPrimary, StringBuilder fmtNumTextTarget) {
-        int animStartPos = fmtNumTextPrimary.length();
-        if(Mode.SCOREBOARD == mAnimMode || Mode.CALENDAR == mAnimMode) {
+    static int initAnimStartPosition(Mode mode, char[] fmtNumTextPrimary, char[] fmtNumTextTarget, int length) {
+        int animStartPos = length;
+        if(Mode.SCOREBOARD == mode || Mode.CALENDAR == mode) {
             //记分牌和日历模式不播放高位未变化Text
-            for(int i = 0; i < fmtNumTextPrimary.length(); i++) {
-                if(!fmtNumTextPrimary.substring(i, i+1).equals(fmtNumTextTarget.substring(i, i+1))) {
-                    animStartPos = fmtNumTextPrimary.length() - i - 1;
+            for(int i = 0; i < length; i++) {
+                if(fmtNumTextPrimary[i] != fmtNumTextTarget[i]) {
+                    animStartPos = length - i - 1;
                     break;
                 }
             }
@@ -328,553 +625,1095 @@ public class MultiScrollNumber extends LinearLayout {
      * 说明: 从中间状态播放到目标状态 动画播放 A'-->B
      */
     public void play() {
+        checkMainThread("play");
+        materializeCounterText();
         //数字Text列表初始化为中间数字A'
-        setNumber(getNumberStringList(fmtNumTextMiddle), getNumberStringList(fmtNumTextTarget), NUMBER_ANIM_DELAY, true);
+        setNumber(fmtNumTextMiddle, fmtNumTextTarget, NUMBER_ANIM_DELAY, true);
+    }
+
+    /** 重置控件视图 */
+    private void resetView() {
+        mColumnCount = 0;
+        mCellCount = 0;
+        mScrollNumbers.clear();
+        removeAllViews();
+    }
+
+    private void removeScrollNumber(ScrollNumber scrollNumber) {
+        if(null != scrollNumber) {
+            if(null != mScrollNumbers) {
+                mScrollNumbers.remove(scrollNumber);
+            }
+            removeView(scrollNumber);
+        }
     }
 
     /**
-     * 数字Text格式化
-     * 说明: 这是数字格式化的核心算法。
-     * 1)自然分组格式化补位：按照单位格式化，“兆亿万”格式化初始串和结束串，
-     * 如果对应的单位分组没有数字，此分组的单位也为空。
-     * 例如初始数字10万，结束数字1亿300，
-     * 格式化结果为：初始数字：空空10万空空空 结束数字：1亿空空空300
+     * 设置数字的值
+     * 说明: 初始化顺序从低位开始滚动，越高位延时越多。
+     *
+     * @param from : 起始数字字符串(格式化后)
+     * @param to : 目标数字字符串(格式化后)
+     * @param delay : 依次延时
      */
-    private void formatNumber(String from, String to, StringBuilder fromBuffer, StringBuilder toBuffer) {
-        if(TextUtils.isEmpty(from) && TextUtils.isEmpty(to)) {
+    private void setNumber(String from, String to, int delay, boolean isAnimation) {
+        if (mUpdateDepth > 0) {
+            //批量更新期间只保留最后一次设置的数字
+            mPendingFrom = from;
+            mPendingTo = to;
+            mPendingDelay = delay;
+            isPendingAnimation = isAnimation;
+            isNumberDirty = true;
+            isRestorePending = false;
             return;
         }
-        if(!TextUtils.isEmpty(from) && !TextUtils.isEmpty(to)) {
-            //两个字符串都不为空需要格式化
-            initNumberWithUnit(from, to, fromBuffer, toBuffer);
-        } else {
-            //有一个字符串为空
-            initEmptyNumber(from, to, fromBuffer, toBuffer);
+        int lenFrom = TextUtils.isEmpty(from) ? 0 : from.length();
+        int lenTo = TextUtils.isEmpty(to) ? 0 : to.length();
+        if(0 == lenFrom && 0 == lenTo) {
+            return;
         }
+        if(delay <= 0) {
+            delay = NUMBER_INIT_DELAY;
+        }
+        //数字Text数组初始化(长度不一致的时候通过空白字符补位)
+        int lenMax = Math.max(lenFrom, lenTo);
+        ensureColumnCapacity(lenMax);
+        fillColumns(from, mPrimaryChars, lenMax);
+        fillColumns(to, mTargetChars, lenMax);
+        mColumnCount = lenMax;
+        applyColumns(delay, isAnimation, false, 0);
     }
 
     /**
-     * 根据数字单位初始化NumberText
+     * 根据数字Text数组更新滚动数字项
      *
+     * @param delay : 依次延时
+     * @param isAnimation : 是否播放动画
+     * @param isRestoring : 是否恢复保存的状态(没有变化的单元格直接显示)
+     * @param elapsed : 动画已经播放的时长
      */
-    private void initNumberWithUnit(String from, String to, StringBuilder fromBuffer, StringBuilder toBuffer) {
-        String units[] = new String[]{"兆", "亿", "万"};
-        int indexFrom = 0;
-        int indexTo = 0;
-        int nextFrom = 0;
-        int nextTo = 0;
-        int lenFrom = 0;
-        int lenTo = 0;
-        int groupLen = 0;
-        if(!TextUtils.isEmpty(from) && !TextUtils.isEmpty(to)) {
-            for(int i = 0; i < units.length; i++) {
-                indexFrom = from.indexOf(units[i], nextFrom);
-                indexTo = to.indexOf(units[i], nextTo);
-                if(indexFrom < 0 && indexTo < 0) {
-                    //双方都不存在此单位的数字
-                    continue;
-                }
+    private void applyColumns(int delay, boolean isAnimation, boolean isRestoring, long elapsed) {
+        int lenMax = mColumnCount;
+        fillCells();
+        isCounterValueKnown = false;
+        isCounterTextStale = false;
+        if (isAnimation) {
+            mAnimStartTime = AnimationUtils.currentAnimationTimeMillis() - elapsed;
+        }
+        if (isTableMode()) {
+            applyTable(delay, isAnimation, isRestoring);
+            return;
+        }
 
-                //起始数字格式化
-                lenFrom = indexFrom > 0 ? indexFrom - nextFrom : 0;
-                lenTo = indexTo > 0 ? indexTo - nextTo : 0;
-                groupLen = Math.max(lenFrom, lenTo);
-                initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo, indexFrom, indexTo);
-                if(indexFrom < 0) {
-                    for(int j = 0; j < groupLen; j++) {
-                        //补空字符占位
-                        fromBuffer.append(DEFAULT_NUMBER_CHAR);
-                    }
-                    fromBuffer.append(units[i]);
+        int cellCount = mCellCount;
+        int lastCount = mScrollNumbers.size();
+        ScrollNumber scrollNumber = null;
+        if(cellCount > lastCount) {
+            //需要添加滚动数字项(从高位开始添加)
+            for (int i = lastCount; i < cellCount; i++) {
+                scrollNumber = new ScrollNumber(mContext);
+                LinearLayout.LayoutParams params = new LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT,
+                        LinearLayout.LayoutParams.WRAP_CONTENT);
+                params.leftMargin = CELL_MARGIN;
+                params.rightMargin = CELL_MARGIN;
+                scrollNumber.setLayoutParams(params);
+                scrollNumber.setScollAnimationMode(mAnimMode);
+                scrollNumber.setStrategy(mStrategy);
+                scrollNumber.setAlphabet(mAlphabet);
+                scrollNumber.setStyle(mDrawStyle);
+                mScrollNumbers.add(scrollNumber);
+                if (isMeasuring) {
+                    addViewInLayout(scrollNumber, 0, params, true);
                 } else {
-                    for(int j = 0; j < groupLen - lenFrom; j++) {
-                        //补空字符占位
-                        fromBuffer.append(DEFAULT_NUMBER_CHAR);
-                    }
-                    fromBuffer.append(from.substring(nextFrom, indexFrom));
-                    fromBuffer.append(units[i]);
-                    //移动到下一个位置
-                    nextFrom = indexFrom + units[i].length();
+                    addView(scrollNumber, 0);
                 }
-                //目标数字格式化
-                if(indexTo < 0) {
-                    //如果目标数字对应的Text不存在数字和单位全部移除
-                    for(int j = 0; j < groupLen; j++) {
-                        //补空字符占位
-                        toBuffer.append(" ");
-                    }
-                    //当前这一分组部分不存在数字需要移除
-                    toBuffer.append(" ");
-                } else {
-                    for(int j = 0; j < groupLen - lenTo; j++) {
-                        //补空字符占位
-                        toBuffer.append(" ");
+            }
+        } else if(cellCount < lastCount) {
+            //需要移除滚动数字项(从高位开始移除)
+            if(0 == cellCount) {
+                removeAllViews();
+            } else {
+                for (int i = lastCount; i > cellCount; i--) {
+                    scrollNumber = mScrollNumbers.get(i-1);
+                    removeScrollNumber(scrollNumber);
+                    if (Log.isLoggable(TAG, Log.DEBUG)) {
+                        Log.d(TAG, "cellCount: " + cellCount + " ScrollNumbers: " + mScrollNumbers.size() + " childCount: " + getChildCount());
                     }
-                    toBuffer.append(to.substring(nextTo, indexTo));
-                    toBuffer.append(units[i]);
-                    //移动到下一个位置
-                    nextTo = indexTo + units[i].length();
                 }
-            }//for-unit
-            //追加万以内的数字
-            initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo);
+            }
         }
-    }
 
-    /**
-     * 空Number初始化
-     * 说明: 高位补空
-     */
-    private void initEmptyNumber(String from, String to,
-                                 StringBuilder fromBuffer, StringBuilder toBuffer) {
-        int lenFrom = 0;
-        int lenTo = 0;
-        //有一个字符串为空
-        if (TextUtils.isEmpty(from) && !TextUtils.isEmpty(to)) {
-            //起始字串为空
-            lenTo = to.length();
-            for (int i = 0; i < lenTo; i++) {
-                if(ScrollNumber.isNumeric(to.substring(i, i + 1))) {
-                    fromBuffer.append(DEFAULT_NUMBER_CHAR);
+        int animStep = 0;
+        long animDelay = 0L;
+        //系统关闭动画或者省电模式下直接显示目标值
+        float durationScale = isAnimation ? getAnimatorDurationScale() : 1f;
+        boolean isAnimationDisabled = isAnimation && (durationScale <= 0 || isPowerSaveMode());
+        int maxFrameRate = getMaxFrameRate();
+        //总步数超过上限时按照预先分配的步数播放
+        boolean isOverBudget = isAnimation && !isAnimationDisabled && planStepBudget();
+        boolean isTracking = isAnimation && !isAnimationDisabled && !isRestoring;
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        long animDuration = (long) (NUMBER_ANIM_DURATION * durationScale);
+        for (int c = 0; c < cellCount; c++) {
+            int i = mCellStart[c];
+            int length = mCellLength[c];
+            scrollNumber = mScrollNumbers.get(c);
+            scrollNumber.setScrollNumberCallback(callback);
+            boolean isTooFast = isTracking && 1 == length && mPrimaryChars[i] != mTargetChars[i]
+                    && isColumnTooFast(i, now, animDuration);
+            if (!isAnimation || isAnimationDisabled || (isOverBudget && 0 == mCellSteps[c]) || (isRestoring && !isCellChanged(c))
+                    || isTooFast) {
+                //不播放动画和更新过快的数字Text直接显示目标值(第一次绘制就显示)
+                if (1 == length) {
+                    scrollNumber.setNumberCharImmediately(mTargetChars[i]);
                 } else {
-                    fromBuffer.append(DEFAULT_TEXT_CHAR);
+                    scrollNumber.setNumberTextImmediately(mCellTo, copyCellText(mTargetChars, i, length, mCellTo));
+                }
+            } else {
+                //从低位开始初始化
+                //滚动轮数(默认播放一轮遇到相同数字增加一轮)
+                animStep = isOverBudget ? 0 : calAnimStepMax(isAnimation, i, mTargetChars[i] == mPrimaryChars[i]);
+                //动画启动延时
+                animDelay = (long) (calAnimDelay(isAnimation, i, lenMax, delay) * durationScale) - elapsed;
+                scrollNumber.setMaxFrameRate(maxFrameRate);
+                scrollNumber.setDurationScale(durationScale);
+                if (isOverBudget && 1 == length && mAlphabet.contains(mPrimaryChars[i]) && mAlphabet.contains(mTargetChars[i])) {
+                    //按照分配的最短路径步数播放
+                    scrollNumber.setNumberSteps(mPrimaryChars[i], mTargetChars[i], mCellSteps[c], animDelay, NUMBER_ANIM_DURATION);
+                } else if (1 == length) {
+                    scrollNumber.setNumberChar(mPrimaryChars[i], mTargetChars[i], animDelay, mAnimLoop, animStep, NUMBER_ANIM_DURATION);
+                } else {
+                    //文字单元格整体播放
+                    int fromLength = copyCellText(mPrimaryChars, i, length, mCellFrom);
+                    int toLength = copyCellText(mTargetChars, i, length, mCellTo);
+                    scrollNumber.setNumberText(mCellFrom, fromLength, mCellTo, toLength, animDelay, mAnimLoop, animStep, NUMBER_ANIM_DURATION);
                 }
             }
-            toBuffer.append(to);
-        } else if (!TextUtils.isEmpty(from) && TextUtils.isEmpty(to)) {
-            //结束字串为空
-            lenFrom = from.length();
-            for (int i = 0; i < lenFrom; i++) {
-                toBuffer.append(DEFAULT_EMPTY_CHAR);
-            }
-            fromBuffer.append(from);
+            scrollNumber.updateBackgroundResource(calBackgroundResource(mTargetChars[i]));
         }
     }
 
     /**
-     * 数字Text格式化
-     * 说明: 这是数字格式化的核心算法。
-     * 2)文字分组格式化补位：按照单位格式化，按照文字进行分组，从高位开始分组比较
-     * 例如初始数字10万，结束数字1亿300，
-     * 格式化结果为：初始数字：10万空空空 结束数字：空1亿300
+     * 根据数字Text数组更新紧凑模式的滚动引擎
+     * 说明: 播放规则与ScrollNumber子控件一致，文字单元格中的每个字符各占一列。
+     *
+     * @param delay : 依次延时
+     * @param isAnimation : 是否播放动画
+     * @param isRestoring : 是否恢复保存的状态(没有变化的单元格直接显示)
      */
-    private void formatNumberGroupByChar(String from, String to,
-                                         StringBuilder fromBuffer, StringBuilder toBuffer) {
-        if (TextUtils.isEmpty(from) && TextUtils.isEmpty(to)) {
-            return;
-        }
-        if(!TextUtils.isEmpty(from) && !TextUtils.isEmpty(to)) {
-            //其实数字和目标数字都不为空根据非数字字符分组
-            initNumberWithChar(from, to, fromBuffer, toBuffer);
-        } else {
-            //有一个字符串为空
-            initEmptyNumber(from, to, fromBuffer, toBuffer);
+    private void applyTable(int delay, boolean isAnimation, boolean isRestoring) {
+        int lenMax = mColumnCount;
+        ScrollColumnTable table = getTable();
+        boolean isCountChanged = table.getColumnCount() != lenMax;
+        table.setColumnCount(lenMax);
+        table.setAlphabet(mAlphabet);
+        table.setStrategy(mStrategy);
+        table.setScollAnimationMode(mAnimMode);
+        float durationScale = isAnimation ? getAnimatorDurationScale() : 1f;
+        boolean isAnimationDisabled = isAnimation && (durationScale <= 0 || isPowerSaveMode());
+        boolean isOverBudget = isAnimation && !isAnimationDisabled && planStepBudget();
+        table.setDurationScale(isAnimationDisabled ? 1f : durationScale);
+        boolean isTracking = isAnimation && !isAnimationDisabled && !isRestoring;
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        long animDuration = (long) (NUMBER_ANIM_DURATION * durationScale);
+        //水平虚拟化时确定可见的列(未布局时全部当做可见)
+        boolean isWindowKnown = isAnimation && mVirtualized && getWidth() > 0;
+        if (isWindowKnown) {
+            updateVisibleColumns();
         }
-    }
-
-    /**
-     * 根据非数字字符进行分组
-     */
-    private void initNumberWithChar(String from, String to,
-                                    StringBuilder fromBuffer, StringBuilder toBuffer) {
-        int indexFrom = 0;
-        int indexTo = 0;
-        int nextFrom = 0;
-        int nextTo = 0;
-        int lenWordFrom = 0;
-        int lenWordTo = 0;
-        int groupFromCnt = 0;
-        int groupToCnt = 0;
-        if(!TextUtils.isEmpty(from) && !TextUtils.isEmpty(to)) {
-            //确定分组数目
-            groupFromCnt = calculateGroupCount(from);
-            groupToCnt = calculateGroupCount(to);
-            int groupCnt = Math.min(groupFromCnt, groupToCnt);
-            for(int i = 0; i < groupCnt; i++) {
-                //查找当前分组非数字Text位置
-                indexFrom = findWordCharFromString(from, nextFrom);
-                indexTo = findWordCharFromString(to, nextTo);
-                if(indexFrom < 0 && indexTo < 0) {
-                    //1)双方都不存在非数字的Text
-                    initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo);
-                    break;
+        for (int c = 0; c < mCellCount; c++) {
+            int start = mCellStart[c];
+            int length = mCellLength[c];
+            boolean isImmediate = !isAnimation || isAnimationDisabled || (isOverBudget && 0 == mCellSteps[c])
+                    || (isRestoring && !isCellChanged(c));
+            for (int i = start; i < start + length; i++) {
+                char from = mPrimaryChars[i];
+                char to = mTargetChars[i];
+                boolean isOutside = isWindowKnown && (i < mFirstVisibleColumn || i > mLastVisibleColumn);
+                if (isImmediate || isOutside || (isTracking && from != to && isColumnTooFast(i, now, animDuration))) {
+                    table.setNumberCharImmediately(i, to);
+                    continue;
+                }
+                long startTime = mAnimStartTime + (long) (calAnimDelay(isAnimation, i, lenMax, delay) * durationScale);
+                if (isOverBudget && 1 == length && mAlphabet.contains(from) && mAlphabet.contains(to)) {
+                    //按照分配的最短路径步数播放
+                    table.setNumberSteps(i, from, to, mCellSteps[c], startTime, NUMBER_ANIM_DURATION);
                 } else {
-                    //2)至少一方存在非数字
-                    //初始化当前分组的数字Text
-                    if(indexFrom < 0) {
-                        //不存在对应非数字的Text默认数字Text一直到字符串结尾
-                        indexFrom = from.length();
-                    }
-                    if(indexTo < 0) {
-                        indexTo = to.length();
-                    }
-                    initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo, indexFrom, indexTo);
-                    //初始化当前分组的文字Text
-                    lenWordFrom = calculateWordCharLength(from, indexFrom);
-                    lenWordTo = calculateWordCharLength(to, indexTo);
-                    initGroupWordChar(from, to, fromBuffer, toBuffer, indexFrom, indexTo, lenWordFrom, lenWordTo);
-                    //计算下一个分组的偏移位置
-                    nextFrom = indexFrom + lenWordFrom;
-                    nextTo = indexTo + lenWordTo;
+                    int animStep = isOverBudget ? 0 : calAnimStepMax(isAnimation, i, from == to);
+                    table.setNumberChar(i, from, to, startTime, mAnimLoop, animStep, NUMBER_ANIM_DURATION);
                 }
-            }//for-groupCnt
-            //追加剩余分组的内容部分
-            initGroupWithEmptyNumber(from, to, fromBuffer, toBuffer, nextFrom, nextTo, from.length() - nextFrom, to.length() - nextTo);
+            }
+        }
+        isTableAnimating = table.isAnimating();
+        if (isCountChanged || calTableColumnWidth(mDrawStyle) != mTableColumnWidth) {
+            requestLayout();
         }
+        invalidate();
     }
 
-    /** 计算文字Text长度 */
-    private int calculateWordCharLength(String from, int indexFrom) {
-        int lenWordFrom = 0;
-        int nextWordCharFrom = 0;
-        if(!TextUtils.isEmpty(from) && indexFrom < from.length()) {
-            if(indexFrom > 0) {
-                nextWordCharFrom = findNumericCharFromString(from, indexFrom);
-                lenWordFrom = nextWordCharFrom < indexFrom ? from.length() - indexFrom : nextWordCharFrom - indexFrom;
+    /** 紧凑模式下单元格是否还在播放 */
+    private boolean isTableCellAnimating(int cell) {
+        if (null == mTable) {
+            return false;
+        }
+        int start = mCellStart[cell];
+        for (int i = start; i < start + mCellLength[cell] && i < mTable.getColumnCount(); i++) {
+            if (mTable.getLeftStep(i) > 0) {
+                return true;
             }
         }
-        return lenWordFrom;
+        return false;
     }
 
-    /**
-     * 初始化对应的空白分组
-     *
-     * @param from : 起始数字字符串
-     * @param to : 目标数字字符串
-     * @param fromBuffer : 缓存起始数字分组格式化Buffer
-     * @param toBuffer : 缓存目标数字分组格式化Buffer
-     * @param indexFrom : 起始数字字符串开始计算的index
-     * @param indexTo : 目标数字字符串开始计算的index
-     * @param lenFrom : 起始数字当前分组的需要格式化部分长度
-     * @param lenTo : 目标数字当前分组的需要格式化部分长度
-     */
-    private void initGroupWithEmptyNumber(String from, String to, StringBuilder fromBuffer,
-                                          StringBuilder toBuffer, int indexFrom, int indexTo,
-                                          int lenFrom, int lenTo) {
-        if(lenFrom <= 0 && lenTo <= 0) {
-            return;
-        }
-        String subFrom = "";
-        String subTo = "";
-        if(!TextUtils.isEmpty(from) && indexFrom >= 0 && indexFrom + lenFrom <= from.length()) {
-            subFrom = from.substring(indexFrom, indexFrom + lenFrom);
+    /** 紧凑模式的滚动引擎 */
+    private ScrollColumnTable getTable() {
+        if (null == mTable) {
+            mTable = new ScrollColumnTable();
+            mTable.setEasing(toEasing(mInterpolator));
+            mTable.setTextHeight(mDrawStyle.getTextHeight());
+            mTableRenderer = new CanvasNumberRenderer(mDrawStyle.getPaint(), mDrawStyle.getUnitPaint());
         }
-        if(!TextUtils.isEmpty(to) && indexTo >= 0 && indexTo + lenTo <= to.length()) {
-            subTo = to.substring(indexTo, indexTo + lenTo);
-        }
-        initEmptyNumber(subFrom, subTo, fromBuffer, toBuffer);
+        return mTable;
     }
 
     /**
-     * 初始化对应的分组非数字字符Text
-     * 说明: 高位补空
-     *
-     * @param from : 起始数字字符串
-     * @param to : 目标数字字符串
-     * @param fromBuffer : 缓存起始数字分组格式化Buffer
-     * @param toBuffer : 缓存目标数字分组格式化Buffer
-     * @param indexFrom : 起始数字字符串文字Text开始计算的index
-     * @param indexTo : 目标数字字符串文字Text开始计算的index
-     * @param lenWordFrom : 起始数字当前分组非数字Text的需要格式化部分长度
-     * @param lenWordTo : 目标数字当前分组非数字Text的需要格式化部分长度
-     *
+     * 计算紧凑模式每一列的宽度
+     * 说明: 所有列宽度相同，按照最宽的字形(包括当前的文字字符)。
      */
-    private void initGroupWordChar(String from, String to, StringBuilder fromBuffer,
-                                   StringBuilder toBuffer, int indexFrom, int indexTo,
-                                   int lenWordFrom, int lenWordTo) {
-        if(TextUtils.isEmpty(from) || TextUtils.isEmpty(to)) {
-            return;
-        }
-        if((indexFrom < 0 && indexTo < 0)) {
-            return;
+    private int calTableColumnWidth(ScrollNumberStyle style) {
+        int width = style.getGlyphWidth(mAlphabet);
+        for (int i = 0; i < mColumnCount; i++) {
+            char c = mTargetChars[i];
+            if (!mAlphabet.contains(c) && !ScrollColumn.isEmptyChar(c)) {
+                width = Math.max(width, (int) Math.ceil(style.getUnitPaint().measureText(mTargetChars, i, 1)));
+            }
         }
-        if((indexFrom > 0 && indexFrom + lenWordFrom > from.length())
-                || (indexTo > 0 && indexTo + lenWordTo > to.length())) {
-            return;
+        return width + dp2px(TABLE_COLUMN_SPACING);
+    }
+
+    /** 紧凑模式推进一帧 */
+    private final Runnable mTableFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mLastTableFrameTime = AnimationUtils.currentAnimationTimeMillis();
+            isTableAnimating = mTable.doFrame(mLastTableFrameTime);
+            invalidate();
         }
-        //当前分组文字Text长度
-        int groupWordLen = Math.max(lenWordFrom, lenWordTo);
-        if(groupWordLen <= 0) {
+    };
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (!isTableMode() || null == mTable) {
             return;
         }
-        for(int i = 0; i < groupWordLen - lenWordFrom; i++) {
-            fromBuffer.append(DEFAULT_TEXT_CHAR);
-        }
-        if(indexFrom >= 0 && lenWordFrom > 0) {
-            fromBuffer.append(from.substring(indexFrom, indexFrom + lenWordFrom));
+        if (isTableAnimating) {
+            //限制帧率时延后推进
+            int maxFrameRate = getMaxFrameRate();
+            long minFrameInterval = maxFrameRate > 0 ? 1000L / maxFrameRate : 0;
+            long elapsed = AnimationUtils.currentAnimationTimeMillis() - mLastTableFrameTime;
+            removeCallbacks(mTableFrameRunnable);
+            postDelayed(mTableFrameRunnable, Math.max(0, minFrameInterval - elapsed));
         }
-        for(int i = 0; i < groupWordLen - lenWordTo; i++) {
-            toBuffer.append(DEFAULT_EMPTY_CHAR);
-        }
-        if(indexTo >= 0 && lenWordTo > 0) {
-            toBuffer.append(to.substring(indexTo, indexTo + lenWordTo));
+        mTableRenderer.setCanvas(canvas);
+        if (mVirtualized) {
+            //只绘制可见区域内的列
+            updateVisibleColumns();
+            mTable.draw(mTableRenderer, getPaddingLeft(), mTableColumnWidth, getHeight(), mFirstVisibleColumn, mLastVisibleColumn);
+        } else {
+            mTable.draw(mTableRenderer, getPaddingLeft(), mTableColumnWidth, getHeight());
         }
+        mTableRenderer.setCanvas(null);
     }
 
-    /** 初始化全数字分组 */
-    private void initNumberGroup(String from, String to, StringBuilder fromBuffer,
-                                 StringBuilder toBuffer, int nextFrom, int nextTo) {
-        int lenFrom = TextUtils.isEmpty(from) ? 0 : from.length();
-        int lenTo = TextUtils.isEmpty(to) ? 0 : to.length();
-        initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo, lenFrom, lenTo);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        SystemAnimationSettings.attach(mContext);
+        isAttached = true;
+        updateClockVisibility();
+        updateScrollListener();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        //重新附加到窗口时从绘制开始按照经过的时间继续播放
+        removeCallbacks(mTableFrameRunnable);
+        isAttached = false;
+        updateClockVisibility();
+        updateScrollListener();
+        SystemAnimationSettings.detach();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateClockVisibility();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateClockVisibility();
     }
 
     /**
-     * 初始化全数字分组
-     * 说明: 数字前补位
+     * 根据是否可见暂停或者恢复时钟走时
+     * 说明: 不可见期间没有走时，重新可见时立即更新到当前时间。
      */
-    private void initNumberGroup(String from, String to,
-                                 StringBuilder fromBuffer, StringBuilder toBuffer,
-                                 int nextFrom, int nextTo, int indexFrom, int indexTo) {
-        if(TextUtils.isEmpty(from) && TextUtils.isEmpty(to)) {
-            return;
-        }
-        if(nextFrom < 0 || nextTo < 0) {
+    private void updateClockVisibility() {
+        boolean isVisible = isAttached && isShown() && getWindowVisibility() == VISIBLE;
+        if (isVisible == isClockVisible) {
             return;
         }
-        int lenFrom = 0;
-        int lenTo = 0;
-        //当前分组长度
-        int groupLen = 0;
-        //追加万以内的数字
-        lenFrom = nextFrom >= 0 ? indexFrom - nextFrom : indexTo;
-        lenTo = nextTo >= 0 ? indexTo - nextTo : indexTo;
-        groupLen = Math.max(lenFrom, lenTo);
-        if(nextFrom < 0) {
-            nextFrom = 0;
-        }
-        if(nextTo < 0) {
-            nextTo = 0;
-        }
-        //起始数字
-        for(int j = 0; j < groupLen - lenFrom; j++) {
-            //补空字符占位
-            fromBuffer.append(DEFAULT_NUMBER_CHAR);
-        }
-        if(nextFrom + lenFrom <= from.length()) {
-            //追加当前分组起始数字Text 容错：字符位置有效时追加数字
-            fromBuffer.append(from.substring(nextFrom, nextFrom + lenFrom));
+        isClockVisible = isVisible;
+        removeCallbacks(mClockRunnable);
+        if (isVisible && null != mClockSource) {
+            post(mClockRunnable);
         }
-        //目标数字
-        for(int j = 0; j < groupLen - lenTo; j++) {
-            //补空字符占位(当前为不存在需要移除)
-            toBuffer.append(DEFAULT_EMPTY_CHAR);
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (null == mDebugOverlay) {
+            super.draw(canvas);
+            return;
         }
-        if(nextTo + lenTo <= to.length()) {
-            //追加当前分组目标数字Text 容错：字符位置有效时追加数字
-            toBuffer.append(to.substring(nextTo, nextTo + lenTo));
+        long start = System.nanoTime();
+        super.draw(canvas);
+        long drawNanos = System.nanoTime() - start;
+        int animatingCount = collectDebugRegions();
+        int cellCount = isTableMode() ? mCellCount : mScrollNumbers.size();
+        mDebugOverlay.onFrame(AnimationUtils.currentAnimationTimeMillis(), drawNanos, animatingCount, cellCount);
+        mDebugOverlay.draw(canvas);
+        if (animatingCount > 0) {
+            //子控件单独刷新时不会重绘当前控件，播放期间逐帧重绘浮层
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                postInvalidateOnAnimation();
+            } else {
+                postInvalidateDelayed((long) ScrollColumn.FRAME_INTERVAL);
+            }
+        } else if (mDebugOverlay.hasPendingSample()) {
+            //停止播放后刷新统计数字直到归零
+            postInvalidateDelayed(DebugOverlay.SAMPLE_INTERVAL);
         }
     }
 
     /**
-     * 计算数字分组个数
-     * 说明: 优先计算数字和文字混排的，然后全数字或者全文字字符串当做一个分组
+     * 记录当前帧重绘的区域
+     * 说明: 还在播放的数字Text(每一帧都会重绘)，紧凑模式下还在滚动的列。
      *
-     * @param from : 需要处理的字符串
+     * @return 正在播放的单元格个数
      */
-    private int calculateGroupCount(String from) {
-        int groupCnt = 0;
-        if (!TextUtils.isEmpty(from)) {
-            if (1 == from.length()) {
-                return 1;
+    private int collectDebugRegions() {
+        mDebugOverlay.clearRegions();
+        int animatingCount = 0;
+        if (isTableMode()) {
+            if (null == mTable) {
+                return 0;
             }
-            String curText = "";
-            String nextText = "";
-            curText = from.substring(0, 1);
-            for (int i = 0; i < from.length(); i++) {
-                nextText = from.substring(i + 1, i + 2);
-                if (ScrollNumber.isNumeric(curText) ^ ScrollNumber.isNumeric(nextText)) {
-                    //当前项与下一个项不都是数字或者不都是文字
-                    groupCnt++;
+            int count = mTable.getColumnCount();
+            for (int i = 0; i < count; i++) {
+                if (mTable.getLeftStep(i) > 0) {
+                    float left = getPaddingLeft() + (count - 1 - i) * mTableColumnWidth;
+                    mDebugOverlay.addRegion(left, 0, left + mTableColumnWidth, getHeight());
                 }
-                curText = nextText;
-                if (i + 2 >= from.length()) {
-                    break;
+            }
+            for (int c = 0; c < mCellCount; c++) {
+                if (isTableCellAnimating(c)) {
+                    animatingCount++;
                 }
             }
-            //特殊情况只有文字或者只有数字
-            if (0 == groupCnt) {
-                groupCnt = 1;
+            return animatingCount;
+        }
+        for (int i = 0; i < mScrollNumbers.size(); i++) {
+            ScrollNumber scrollNumber = mScrollNumbers.get(i);
+            if (scrollNumber.isAnimating()) {
+                animatingCount++;
+                mDebugOverlay.addRegion(scrollNumber.getLeft(), scrollNumber.getTop(),
+                        scrollNumber.getRight(), scrollNumber.getBottom());
             }
         }
-        return groupCnt;
+        return animatingCount;
     }
 
-    /** 查找下一个数字字符位置 */
-    private int findNumericCharFromString(String from, int start) {
-        int index = -1;
-        if(!TextUtils.isEmpty(from) && start >= 0 && start < from.length()) {
-            String subStr = "";
-            for(int i = start; i < from.length(); i++) {
-                subStr = from.substring(i, i+1);
-                if(ScrollNumber.isNumeric(subStr)) {
-                    //查找到一个非数字字符
-                    index = i;
-                    break;
-                }
-            }
+    /**
+     * 设置是否显示调试浮层
+     * 说明: 在控件上方显示每秒帧数、上一帧的绘制时长(ms)、正在播放的单元格个数、每秒重绘的单元格个数，
+     * 并用半透明红色标记当前帧重绘的区域，用于在真机上比较不同模式的开销。统计只在绘制时采样，关闭时不做任何统计。
+     */
+    public void setDebugOverlay(boolean debugOverlay) {
+        checkMainThread("setDebugOverlay");
+        if (debugOverlay == (null != mDebugOverlay)) {
+            return;
         }
-        return index;
+        mDebugOverlay = debugOverlay ? new DebugOverlay(sp2px(DEBUG_OVERLAY_TEXT_SIZE)) : null;
+        updateWillNotDraw();
+        invalidate();
     }
 
-    /** 查找字符串中文字（非数字）Text */
-    private int findWordCharFromString(String from, int start) {
-        int index = -1;
-        if(!TextUtils.isEmpty(from) && start >= 0 && start < from.length()) {
-            String subStr = "";
-            for(int i = start; i < from.length(); i++) {
-                subStr = from.substring(i, i+1);
-                if(!ScrollNumber.isEmptyChar(subStr) && !ScrollNumber.isNumeric(subStr)) {
-                    //查找到一个非数字字符
-                    index = i;
-                    break;
-                }
-            }
+    /** 是否显示调试浮层 */
+    public boolean isDebugOverlay() {
+        return null != mDebugOverlay;
+    }
+
+    /** 是否由ScrollColumnTable推进和绘制(紧凑模式和水平虚拟化) */
+    private boolean isTableMode() {
+        return isCompact || mVirtualized;
+    }
+
+    /** 紧凑模式、水平虚拟化和调试浮层需要绘制当前控件 */
+    private void updateWillNotDraw() {
+        setWillNotDraw(!isTableMode() && null == mDebugOverlay);
+    }
+
+    /**
+     * 设置是否紧凑模式
+     * 说明: 紧凑模式不创建ScrollNumber子控件，每一列的动画状态(字形、偏移量、剩余步长、方向、开始时间)
+     * 按列存放在基本类型数组中，每一帧在一个循环中推进和绘制，每一列只占几十字节。
+     * 所有列宽度相同，不支持数字Text背景。切换时直接显示当前的目标数字。
+     */
+    public void setCompact(boolean compact) {
+        checkMainThread("setCompact");
+        flushDeferredInit();
+        if (mUpdateDepth > 0) {
+            throw new IllegalStateException("setCompact() couldn't be called between beginUpdate() and commit()!");
+        }
+        if (compact == isCompact) {
+            return;
+        }
+        boolean wasTableMode = isTableMode();
+        isCompact = compact;
+        if (wasTableMode != isTableMode()) {
+            switchTableMode();
         }
-        return index;
     }
 
-    /** 重置控件视图 */
-    private void resetView() {
-        mTargetNumbers.clear();
+    /** 是否紧凑模式 */
+    public boolean isCompact() {
+        return isCompact;
+    }
+
+    /**
+     * 切换ScrollNumber子控件和ScrollColumnTable
+     * 说明: 直接显示当前的目标数字。
+     */
+    private void switchTableMode() {
+        updateWillNotDraw();
         mScrollNumbers.clear();
         removeAllViews();
+        removeCallbacks(mTableFrameRunnable);
+        isTableAnimating = false;
+        if (null != mTable) {
+            mTable.setColumnCount(0);
+        }
+        if (mColumnCount > 0) {
+            materializeCounterText();
+            applyColumns(NUMBER_INIT_DELAY, false, false, 0);
+        }
+        requestLayout();
+        invalidate();
     }
 
-    private void removeScrollNumber(ScrollNumber scrollNumber) {
-        if(null != scrollNumber) {
-            if(null != mScrollNumbers) {
-                mScrollNumbers.remove(scrollNumber);
+    /**
+     * 分配每个单元格的滚动步数
+     * 说明: 按照当前策略计算所有单元格的总步数，超过上限时改为最短路径，从高位开始分配步数，
+     * 分配不到的低位直接显示目标值。
+     *
+     * @return 是否超过上限(超过时按照mCellSteps播放)
+     */
+    private boolean planStepBudget() {
+        if (mMaxTotalSteps <= STEP_BUDGET_UNLIMITED) {
+            return false;
+        }
+        int totalSteps = 0;
+        for (int c = 0; c < mCellCount; c++) {
+            int animStepMax = calAnimStepMax(true, mCellStart[c], false);
+            totalSteps += Math.abs(calCellSteps(c, mStrategy, animStepMax));
+        }
+        if (totalSteps <= mMaxTotalSteps) {
+            return false;
+        }
+        int budget = mMaxTotalSteps;
+        for (int c = mCellCount - 1; c >= 0; c--) {
+            int steps = calCellSteps(c, ScrollNumber.Strategy.SHORTEST, 0);
+            if (Math.abs(steps) > budget) {
+                steps = 0;
             }
-            removeView(scrollNumber);
+            budget -= Math.abs(steps);
+            mCellSteps[c] = steps;
         }
+        return true;
     }
 
     /**
-     * 初始化数字字符列表
+     * 计算单元格需要播放的步数
+     * 说明: 文字单元格变化时一个步长。
      *
-     * @param val : 目标数字字符列表(逆序)
+     * @return 带符号的步数(正数向上递增播放 负数向下递减播放)
      */
-    private void setNumber(List<String> val) {
-        setNumber(null, val, NUMBER_INIT_DELAY, false);
+    private int calCellSteps(int cell, ScrollNumber.Strategy strategy, int animStepMax) {
+        int start = mCellStart[cell];
+        int length = mCellLength[cell];
+        char to = mTargetChars[start];
+        int stopNum = mAlphabet.indexOf(to);
+        if (1 == length && stopNum >= 0) {
+            int startNum = mAlphabet.indexOf(mPrimaryChars[start]);
+            return ScrollColumn.calSteps(strategy, startNum, stopNum, mAnimLoop, animStepMax, mAlphabet.size());
+        }
+        return isCellChanged(cell) ? 1 : 0;
+    }
+
+    /** 单元格的起始和目标Text是否不同 */
+    private boolean isCellChanged(int cell) {
+        int start = mCellStart[cell];
+        for (int i = start; i < start + mCellLength[cell]; i++) {
+            if (mPrimaryChars[i] != mTargetChars[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 计算数字Text的背景资源 */
+    private int calBackgroundResource(char target) {
+        if (mAlphabet.contains(target)) {
+            return mStyle.getNumberBackgroundResource();
+        } else if (!ScrollColumn.isEmptyChar(target)) {
+            return mStyle.getUnitBackgroundResource();
+        }
+        return 0;
     }
 
     /**
-     * 设置数字的值
-     * 说明: 初始化顺序从低位开始滚动，越高位延时越多。
+     * 计数器增加
+     * 说明: 用于实时计数(访问量、下载量)。只有变化的低位数字Text播放动画，进位像机械里程表一样
+     * 向高位传递，每次更新的开销只与变化的位数相关。位数变化时按照普通动画播放。
      *
-     * @param from : 起始数字字符列表(逆序)
-     * @param to : 目标数字字符列表(逆序)
-     * @param delay : 依次延时
+     * @param delta : 增加的值(可以为负数)
      */
-    private void setNumber(List<String> from, List<String> to, int delay, boolean isAnimation) {
-        if(null == from && null == to) {
+    public void increment(long delta) {
+        checkMainThread("increment");
+        //需要读取最新的数字Text
+        flushDeferredInit();
+        if (mUpdateDepth > 0) {
+            //计数器直接更新数字Text，不能在批量更新期间调用
+            throw new IllegalStateException("increment() couldn't be called between beginUpdate() and commit()!");
+        }
+        if (0 == delta) {
             return;
         }
-        if(delay <= 0) {
-            delay = NUMBER_INIT_DELAY;
+        long value = getCounterValue();
+        long target = value + delta;
+        if ((delta > 0 && target < value) || target < 0) {
+            throw new IllegalArgumentException("counter value out of range!");
         }
-        //数字Text列表初始化
-        int lenFrom = null != from ? from.size() : 0;
-        int lenTo = null != to ? to.size() : 0;
-        int lenMax = Math.max(lenFrom, lenTo);
-        if(lenFrom != lenTo) {
-            //起始数字个数和目标数字个数不一致的情况下
-            mPrimaryNumbers.clear();
-            mTargetNumbers.clear();
-            //列表长度不一致的时候(先初始化低位后初始化高位)
-            //初始化起始数字Text列表
-            if(lenFrom > 0) {
-                mPrimaryNumbers.addAll(from);
-            }
-            for(int i = lenFrom; i < lenMax; i++) {
-                //通过空白字符补位
-                mPrimaryNumbers.add(" ");
-            }
-            //初始化目标数字Text列表
-            if(lenTo > 0) {
-                mTargetNumbers.addAll(to);
+        int digitCount = calDigitCount(value);
+        //高位补0的计数器保持位数不变
+        boolean isFixedWidth = mColumnCount > digitCount;
+        boolean isFit = isFixedWidth ? calDigitCount(target) <= mColumnCount : calDigitCount(target) == digitCount;
+        if (!isFit || (!isTableMode() && mScrollNumbers.size() < mColumnCount)) {
+            //位数变化
+            setNumberWithAnimation(formatCounterValue(value), formatCounterValue(target));
+            mCounterValue = target;
+            isCounterValueKnown = true;
+            return;
+        }
+        float durationScale = getAnimatorDurationScale();
+        boolean isAnimationDisabled = durationScale <= 0 || isPowerSaveMode();
+        int maxFrameRate = getMaxFrameRate();
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        if (isTableMode()) {
+            mTable.setDurationScale(isAnimationDisabled ? 1f : durationScale);
+        }
+        int base = mAlphabet.size();
+        long divisor = 1;
+        for (int i = 0; i < mColumnCount; i++) {
+            long fromQuotient = value / divisor;
+            long toQuotient = target / divisor;
+            if (fromQuotient == toQuotient) {
+                //更高位没有进位
+                break;
             }
-            for(int i = lenTo; i < lenMax; i++) {
-                mTargetNumbers.add(" ");
+            char from = mTargetChars[i];
+            char to = mAlphabet.charAt((int) (toQuotient % base));
+            mPrimaryChars[i] = from;
+            mTargetChars[i] = to;
+            int steps = calOdometerSteps(toQuotient - fromQuotient, base);
+            divisor *= base;
+            scrollColumnSteps(i, from, to, steps, base, isAnimationDisabled, durationScale, maxFrameRate, now);
+        }
+        mCounterValue = target;
+        isCounterValueKnown = true;
+        isCounterTextStale = true;
+        mAnimStartTime = now;
+        if (isTableMode()) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 按照步数滚动单个数字Text(计数器和时钟模式，每个数字Text只有一个字符)
+     *
+     * @param i : 数字Text索引(低位在前)
+     * @param base : 循环的字形个数
+     */
+    private void scrollColumnSteps(int i, char from, char to, int steps, int base, boolean isAnimationDisabled,
+                                   float durationScale, int maxFrameRate, long now) {
+        boolean isTooFast = isColumnTooFast(i, now, (long) (Math.abs(steps) * STEP_DURATION * durationScale));
+        if (isTableMode()) {
+            if (isAnimationDisabled || isTooFast) {
+                mTable.setNumberCharImmediately(i, to);
+            } else {
+                mTable.setNumberSteps(i, from, to, steps, now, NUMBER_ANIM_DURATION, base);
+                isTableAnimating = true;
             }
+            return;
+        }
+        ScrollNumber scrollNumber = mScrollNumbers.get(i);
+        if (isAnimationDisabled || isTooFast) {
+            scrollNumber.setNumberCharImmediately(to);
         } else {
-            //两个列表长度一致
-            if(lenFrom > 0) {
-                mPrimaryNumbers.clear();
-                mTargetNumbers.clear();
-                mPrimaryNumbers.addAll(from);
-                mTargetNumbers.addAll(to);
-            }
+            scrollNumber.setMaxFrameRate(maxFrameRate);
+            scrollNumber.setDurationScale(durationScale);
+            scrollNumber.setNumberSteps(from, to, steps, 0, NUMBER_ANIM_DURATION, base);
         }
+    }
 
-        int lastCount = mScrollNumbers.size();
-        ScrollNumber scrollNumber = null;
-        if(lenMax > lastCount) {
-            //需要添加滚动数字项(从高位开始添加)
-            for (int i = lastCount; i < lenMax; i++) {
-                scrollNumber = new ScrollNumber(mContext);
-                LinearLayout.LayoutParams params = new LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT,
-                        LinearLayout.LayoutParams.WRAP_CONTENT);
-                params.leftMargin = 5;
-                params.rightMargin = 5;
-                scrollNumber.setLayoutParams(params);
-                scrollNumber.setScollAnimationMode(mAnimMode);
-                scrollNumber.setTextSize(mTextSize);
-                scrollNumber.setUnitTextSize(mUnitTextSize);
-                if (!TextUtils.isEmpty(mFontFileName))
-                    scrollNumber.setTextFont(mFontFileName);
-                if (!TextUtils.isEmpty(mUnitFontFileName))
-                    scrollNumber.setUnitTextFont(mUnitFontFileName);
-                if(mTextColors != null && mTextColors.length > 0) {
-                    if(mTextColors.length > 1) {
-                        scrollNumber.setUnitTextColor(getResources().getColor(mTextColors[1]));
-                    } else {
-                        scrollNumber.setUnitTextColor(getResources().getColor(mTextColors[0]));
-                    }
-                    scrollNumber.setTextColor(getResources().getColor(mTextColors[0]));
-                }
-                mScrollNumbers.add(scrollNumber);
-                addView(scrollNumber, 0);
-            }
-        } else if(lenMax < lastCount) {
-            //需要移除滚动数字项(从高位开始移除)
-            if(0 == lenMax) {
-                removeAllViews();
-            } else {
-                for (int i = lastCount; i > lenMax; i--) {
-                    scrollNumber = mScrollNumbers.get(i-1);
-                    removeScrollNumber(scrollNumber);
-                    Log.d(TAG, "lenMax: " + lenMax + " ScrollNumbers: " + mScrollNumbers.size() + " childCount: " + getChildCount());
-                }
+    /**
+     * 计数器增加
+     *
+     * @param delta : 增加的值(可以为负数)
+     */
+    public void add(long delta) {
+        increment(delta);
+    }
+
+    /**
+     * 开始时钟模式(HH:MM:SS，24小时制)
+     * 说明: 按照时间来源在每一秒的边界更新，只有变化的数字Text滚动一步，
+     * 每一列按照自己的进制循环(秒和分钟的十位5到0，23点到0点)，不重新格式化和划分单元格。
+     * 时区在开始时获取。控件或者窗口不可见时暂停走时，重新可见时立即更新到当前时间。
+     * 调用stopClock结束，运行期间设置的其他数字在下一秒被时钟覆盖。
+     */
+    public void startClock(ClockSource source) {
+        startClock(source, false, 0);
+    }
+
+    /**
+     * 开始倒计时模式(HH:MM:SS，超过99小时时增加小时的位数)
+     * 说明: 显示距离结束时间的剩余时间(不足一秒按一秒)，每一秒向下滚动一步，到00:00:00时停止。
+     *
+     * @param endTimeMillis : 结束时间(与时间来源相同的时间基准)
+     */
+    public void startCountdown(ClockSource source, long endTimeMillis) {
+        startClock(source, true, endTimeMillis);
+    }
+
+    private void startClock(ClockSource source, boolean countdown, long endTimeMillis) {
+        checkMainThread(countdown ? "startCountdown" : "startClock");
+        if (null == source) {
+            throw new IllegalArgumentException("clock source is null!");
+        }
+        if (mAlphabet.size() < 10) {
+            throw new IllegalStateException("clock needs an alphabet with at least ten glyphs!");
+        }
+        if (mUpdateDepth > 0) {
+            throw new IllegalStateException("startClock() couldn't be called between beginUpdate() and commit()!");
+        }
+        flushDeferredInit();
+        removeCallbacks(mClockRunnable);
+        mClockSource = source;
+        mClockTimeZone = TimeZone.getDefault();
+        isCountdown = countdown;
+        mCountdownEndTime = endTimeMillis;
+        tickClock();
+    }
+
+    /** 结束时钟或者倒计时模式(保持当前显示) */
+    public void stopClock() {
+        removeCallbacks(mClockRunnable);
+        mClockSource = null;
+    }
+
+    /** 是否正在运行时钟或者倒计时模式 */
+    public boolean isClockRunning() {
+        return null != mClockSource;
+    }
+
+    /** 更新时钟并等待下一秒的边界 */
+    private void tickClock() {
+        long now = mClockSource.currentTimeMillis();
+        long seconds;
+        long delay;
+        if (isCountdown) {
+            long remaining = Math.max(0, mCountdownEndTime - now);
+            seconds = (remaining + 999) / 1000;
+            delay = remaining - Math.max(0, seconds - 1) * 1000;
+        } else {
+            long local = now + mClockTimeZone.getOffset(now);
+            seconds = (local / 1000 % ClockFormat.SECONDS_PER_DAY + ClockFormat.SECONDS_PER_DAY) % ClockFormat.SECONDS_PER_DAY;
+            delay = 1000 - (local % 1000 + 1000) % 1000;
+        }
+        updateClock(seconds);
+        if (isCountdown && 0 == seconds) {
+            mClockSource = null;
+            return;
+        }
+        if (isClockVisible) {
+            postDelayed(mClockRunnable, delay);
+        }
+    }
+
+    /**
+     * 显示时钟的秒数
+     * 说明: 列数不变时只更新变化的数字Text，否则(第一次显示、小时位数变化、数字被其他方法修改)按照普通动画播放。
+     */
+    private void updateClock(long seconds) {
+        int length = ClockFormat.calLength(seconds);
+        if (mClockColumns.length < length) {
+            mClockColumns = new char[length * 2];
+        }
+        ClockFormat.fillColumns(seconds, mAlphabet, mClockColumns);
+        boolean isFit = length == mColumnCount && (isTableMode() || mScrollNumbers.size() >= mColumnCount);
+        for (int i = 0; isFit && i < length; i++) {
+            char from = mTargetChars[i];
+            char to = mClockColumns[i];
+            isFit = from == to || (mAlphabet.contains(from) && mAlphabet.contains(to));
+        }
+        if (!isFit) {
+            materializeCounterText();
+            setNumberWithAnimation(numTextTarget, ClockFormat.format(seconds, mAlphabet));
+            return;
+        }
+        float durationScale = getAnimatorDurationScale();
+        boolean isAnimationDisabled = durationScale <= 0 || isPowerSaveMode();
+        int maxFrameRate = getMaxFrameRate();
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        if (isTableMode()) {
+            mTable.setDurationScale(isAnimationDisabled ? 1f : durationScale);
+        }
+        int direction = isCountdown ? -1 : 1;
+        boolean isChanged = false;
+        for (int i = 0; i < length; i++) {
+            char from = mTargetChars[i];
+            char to = mClockColumns[i];
+            if (from == to) {
+                continue;
             }
+            //小时个位的进制读取变化前的十位，需要在更新之前计算
+            int base = ClockFormat.calColumnBase(i, isCountdown, mTargetChars, mClockColumns, mAlphabet);
+            int steps = ClockFormat.calSteps(mAlphabet.indexOf(from), mAlphabet.indexOf(to), base, direction);
+            mPrimaryChars[i] = from;
+            mTargetChars[i] = to;
+            scrollColumnSteps(i, from, to, steps, base, isAnimationDisabled, durationScale, maxFrameRate, now);
+            isChanged = true;
+        }
+        if (!isChanged) {
+            return;
         }
+        isCounterValueKnown = false;
+        isCounterTextStale = true;
+        mAnimStartTime = now;
+        if (isTableMode()) {
+            invalidate();
+        }
+    }
 
-        int animStep = 0;
-        long animDelay = 0L;
-        for (int i = 0; i < lenMax; i++) {
-            //从低位开始初始化
-            //滚动轮数(默认播放一轮遇到相同数字增加一轮)
-            animStep = calAnimStepMax(isAnimation, i, mTargetNumbers.get(i).equals(mPrimaryNumbers.get(i)));
-            //动画启动延时
-            animDelay = calAnimDelay(isAnimation, i, lenMax, delay);
-            scrollNumber = mScrollNumbers.get(i);
-            scrollNumber.setNumberChar(mPrimaryNumbers.get(i), mTargetNumbers.get(i), animDelay, mAnimLoop, animStep, NUMBER_ANIM_DURATION);
-            scrollNumber.setScrollNumberCallback(callback);
-            if (ScrollNumber.isNumeric(mTargetNumbers.get(i))) {
-                scrollNumber.setBackgroundResource(numberResId);
-            } else if (!ScrollNumber.isEmptyChar(mTargetNumbers.get(i))) {
-                scrollNumber.setBackgroundResource(numberUnitResId);
-            } else {
-                scrollNumber.setBackgroundResource(0);
+    /** 计数器的当前值(从目标数字Text解析) */
+    private long getCounterValue() {
+        if (isCounterValueKnown) {
+            return mCounterValue;
+        }
+        if (0 == mColumnCount) {
+            throw new IllegalStateException("current number is not a counter value!");
+        }
+        int base = mAlphabet.size();
+        long value = 0;
+        for (int i = mColumnCount - 1; i >= 0; i--) {
+            int digit = mAlphabet.indexOf(mTargetChars[i]);
+            if (digit < 0 || value > (Long.MAX_VALUE - digit) / base) {
+                throw new IllegalStateException("current number is not a counter value!");
             }
+            value = value * base + digit;
         }
-        if(null != from) {
-            from.clear();
+        mCounterValue = value;
+        isCounterValueKnown = true;
+        return value;
+    }
+
+    /** 计算数字的位数(按照字符表大小进制) */
+    private int calDigitCount(long value) {
+        int base = mAlphabet.size();
+        int count = 1;
+        while (value >= base) {
+            value /= base;
+            count++;
         }
-        if(null != to) {
-            to.clear();
+        return count;
+    }
+
+    /** 按照字符表生成计数器的数字字符串(十进制与Long.toString一致) */
+    private String formatCounterValue(long value) {
+        int base = mAlphabet.size();
+        char[] text = new char[calDigitCount(value)];
+        for (int i = text.length - 1; i >= 0; i--) {
+            text[i] = mAlphabet.charAt((int) (value % base));
+            value /= base;
         }
+        return new String(text);
+    }
+
+    /**
+     * 计算单个数字Text滚动的步数
+     * 说明: 超过一轮的部分只保留一轮，避免低位长时间滚动。
+     */
+    private static int calOdometerSteps(long steps, int base) {
+        long absSteps = Math.abs(steps);
+        if (absSteps > base) {
+            absSteps = base + absSteps % base;
+        }
+        return (int) (steps < 0 ? -absSteps : absSteps);
+    }
+
+    /**
+     * 生成计数器的目标数字字符串
+     * 说明: 计数器模式下只更新数字Text，需要读取目标数字字符串时才生成。
+     */
+    private void materializeCounterText() {
+        if (!isCounterTextStale) {
+            return;
+        }
+        isCounterTextStale = false;
+        String text = toText(mTargetChars, mColumnCount);
+        numTextTarget = text;
+        numTextMiddle = text;
+        fmtNumTextTarget = text;
+        fmtNumTextMiddle = text;
+    }
+
+    /**
+     * 计算可见区域内的列
+     * 说明: 还没有布局时全部当做可见。
+     */
+    private void updateVisibleColumns() {
+        int count = null == mTable ? 0 : mTable.getColumnCount();
+        if (getWidth() <= 0 || mTableColumnWidth <= 0) {
+            mFirstVisibleColumn = 0;
+            mLastVisibleColumn = count - 1;
+            return;
+        }
+        if (!getLocalVisibleRect(mVisibleRect)) {
+            mFirstVisibleColumn = 0;
+            mLastVisibleColumn = -1;
+            return;
+        }
+        //从高位数起的位置
+        int left = mVisibleRect.left - getPaddingLeft();
+        int right = mVisibleRect.right - 1 - getPaddingLeft();
+        int highFirst = Math.max(0, left) / mTableColumnWidth;
+        int highLast = right < 0 ? -1 : right / mTableColumnWidth;
+        mFirstVisibleColumn = Math.max(0, count - 1 - highLast);
+        mLastVisibleColumn = Math.min(count - 1, count - 1 - highFirst);
+    }
+
+    /** 水平虚拟化时监听滚动容器的滚动 */
+    private void updateScrollListener() {
+        boolean isListening = isAttached && mVirtualized;
+        if (isListening == isScrollListening) {
+            return;
+        }
+        isScrollListening = isListening;
+        if (isListening) {
+            getViewTreeObserver().addOnScrollChangedListener(mScrollChangedListener);
+        } else {
+            getViewTreeObserver().removeOnScrollChangedListener(mScrollChangedListener);
+        }
+    }
+
+    /**
+     * 记录一列的更新并判断是否更新过快
+     * 说明: 平均更新间隔短于这次动画的时长时，动画来不及播放完就被打断，直接显示目标字符。
+     *
+     * @param i : 数字Text索引(低位在前)
+     * @param animDuration : 这次更新需要播放的动画时长
+     */
+    private boolean isColumnTooFast(int i, long now, long animDuration) {
+        return isRateAdaptive && mRateTracker.onUpdate(i, now, animDuration);
+    }
+
+    /**
+     * 设置是否根据更新频率降级低位的动画(默认关闭)
+     * 说明: 下载字节数、秒表毫秒等低位的更新间隔短于动画时长时，低位动画永远播放不完，
+     * 这些数字Text改为直接显示目标字符，更新变慢后恢复动画，高位不受影响。
+     * 连续几次更新都过快才降级，偶尔一次连续更新(例如连续点击)仍然播放动画。
+     */
+    public void setRateAdaptive(boolean rateAdaptive) {
+        isRateAdaptive = rateAdaptive;
+        if (!rateAdaptive) {
+            mRateTracker.reset();
+        }
+    }
+
+    /** 是否根据更新频率降级低位的动画 */
+    public boolean isRateAdaptive() {
+        return isRateAdaptive;
+    }
+
+    /**
+     * 设置是否水平虚拟化
+     * 说明: 用于横向滚动容器中的超长数字(40~200位)。开启后按照紧凑模式推进和绘制，不创建ScrollNumber子控件，
+     * 宽度按照列宽计算。每一帧只绘制可见区域内的列，可见区域内的列播放动画，可见区域外的直接显示目标值，
+     * 滚动进入可见区域时已经是最终状态，绘制和动画开销只与可见宽度相关。不支持数字Text背景。
+     */
+    public void setVirtualized(boolean virtualized) {
+        checkMainThread("setVirtualized");
+        flushDeferredInit();
+        if (mUpdateDepth > 0) {
+            throw new IllegalStateException("setVirtualized() couldn't be called between beginUpdate() and commit()!");
+        }
+        if (virtualized == mVirtualized) {
+            return;
+        }
+        boolean wasTableMode = isTableMode();
+        mVirtualized = virtualized;
+        updateScrollListener();
+        if (wasTableMode != isTableMode()) {
+            switchTableMode();
+        } else {
+            invalidate();
+        }
+    }
+
+    /** 是否水平虚拟化 */
+    public boolean isVirtualized() {
+        return mVirtualized;
+    }
+
+    /**
+     * 获取系统动画时长缩放(开发者选项)
+     * 说明: 0表示系统关闭了动画。附加到窗口后使用缓存的值，系统设置变化时更新。
+     */
+    private float getAnimatorDurationScale() {
+        return SystemAnimationSettings.getDurationScale(mContext);
+    }
+
+    /** 是否处于省电模式 */
+    private boolean isPowerSaveMode() {
+        return SystemAnimationSettings.isPowerSaveMode(mContext);
+    }
+
+    /** 当前生效的帧率上限 */
+    private int getMaxFrameRate() {
+        return mMaxFrameRate == FRAME_RATE_DEFAULT ? sMaxFrameRate : mMaxFrameRate;
+    }
+
+    /**
+     * 设置当前控件的动画帧率上限
+     * 说明: 次要的计数器不需要60/120fps，例如设置为30或20fps。动画按时间播放，不会拉长动画时长。
+     *
+     * @param fps : 帧率上限(FRAME_RATE_UNLIMITED表示不限制并忽略全局帧率上限，
+     *            FRAME_RATE_DEFAULT或者负数表示恢复使用全局帧率上限)
+     */
+    public void setMaxFrameRate(int fps) {
+        mMaxFrameRate = fps < 0 ? FRAME_RATE_DEFAULT : fps;
+        int maxFrameRate = getMaxFrameRate();
+        for (ScrollNumber s : mScrollNumbers) {
+            s.setMaxFrameRate(maxFrameRate);
+        }
+    }
+
+    /** 恢复使用全局帧率上限(setDefaultMaxFrameRate) */
+    public void resetMaxFrameRate() {
+        setMaxFrameRate(FRAME_RATE_DEFAULT);
+    }
+
+    /**
+     * 设置全局的动画帧率上限
+     * 说明: 对没有单独设置帧率上限的控件生效，从下一次动画开始。
+     *
+     * @param fps : 帧率上限(FRAME_RATE_UNLIMITED表示不限制)
+     */
+    public static void setDefaultMaxFrameRate(int fps) {
+        sMaxFrameRate = Math.max(0, fps);
+    }
+
+    /**
+     * 设置数字滚动策略
+     * 说明: Strategy.SHORTEST按照0~9循环的最短距离播放(例如9到0向上一步)，
+     * 不再为了错开到达时间增加步数。从下一次动画开始生效。
+     */
+    public void setStrategy(ScrollNumber.Strategy strategy) {
+        if (null == strategy) {
+            throw new IllegalArgumentException("strategy is null!");
+        }
+        mStrategy = strategy;
+        for (ScrollNumber s : mScrollNumbers) {
+            s.setStrategy(strategy);
+        }
+    }
+
+    /** 获取数字滚动策略 */
+    public ScrollNumber.Strategy getStrategy() {
+        return mStrategy;
+    }
+
+    /**
+     * 设置可滚动的字符表
+     * 说明: 字符表中的字符按照顺序循环滚动(例如ScrollAlphabet.HEX的F到0向上一步)，
+     * 其他字符按照文字Text一步切换。计数器按照字符表大小进位。从下一次设置数字开始生效。
+     */
+    public void setAlphabet(ScrollAlphabet alphabet) {
+        if (null == alphabet) {
+            throw new IllegalArgumentException("alphabet is null!");
+        }
+        if (alphabet == mAlphabet) {
+            return;
+        }
+        mAlphabet = alphabet;
+        mAligner.setAlphabet(alphabet);
+        mFitSourceStyle = null;
+        //计数器的值按照新的进制重新解析
+        isCounterValueKnown = false;
+        for (ScrollNumber s : mScrollNumbers) {
+            s.setAlphabet(alphabet);
+        }
+    }
+
+    /**
+     * 设置对齐结果缓存的个数(默认16，0表示不缓存)
+     * 说明: 按照(起始数字, 目标数字, 播放模式, 字符表)缓存对齐后的数字，
+     * 在几组数字之间反复切换时(时钟、倒计时、记分牌)不再重新对齐。
+     */
+    public void setPlanCacheSize(int size) {
+        mPlanCache.setMaxSize(size);
+    }
+
+    /** 对齐结果缓存的命中次数 */
+    public int getPlanCacheHitCount() {
+        return mPlanCache.getHitCount();
+    }
+
+    /** 对齐结果缓存的未命中次数 */
+    public int getPlanCacheMissCount() {
+        return mPlanCache.getMissCount();
+    }
+
+    /** 获取可滚动的字符表 */
+    public ScrollAlphabet getAlphabet() {
+        return mAlphabet;
+    }
+
+    /**
+     * 设置每次更新所有数字Text滚动步数的上限
+     * 说明: 超过上限时改为最短路径播放，从高位开始分配步数，分配不到的低位直接显示目标值。
+     * 大跨度的变化(例如12位数字)只播放有限次数的数字切换。
+     *
+     * @param maxSteps : 步数上限(STEP_BUDGET_UNLIMITED表示不限制)
+     */
+    public void setMaxTotalSteps(int maxSteps) {
+        mMaxTotalSteps = Math.max(STEP_BUDGET_UNLIMITED, maxSteps);
     }
 
     /** 计算当前模式的数字播放策略 */
@@ -896,18 +1735,28 @@ public class MultiScrollNumber extends LinearLayout {
      * @param delayDuration : 每一个延时的长短
      */
     private long calAnimDelay(boolean isAnimation, int index, int lenMax, long delayDuration) {
+        return calAnimDelay(mAnimMode, mAnimStartPosition, isAnimation, index, delayDuration);
+    }
+
+    /**
+     * 计算动画播放延时
+     *
+     * @param mode : 数字动画播放模式
+     * @param animStartPosition : 动画需要播放的最高位
+     */
+    static long calAnimDelay(Mode mode, int animStartPosition, boolean isAnimation, int index, long delayDuration) {
         long delay = 0L;
-        if (!isAnimation || Mode.START_ARRIVAL_SAME_TIME == mAnimMode || index > mAnimStartPosition) {
+        if (!isAnimation || Mode.START_ARRIVAL_SAME_TIME == mode || index > animStartPosition) {
             //高位没有变化不需要播放动画
             return 0;
         }
-        if (Mode.START_FIRST_ARRIVAL_LAST == mAnimMode) {
+        if (Mode.START_FIRST_ARRIVAL_LAST == mode) {
             //低位先启动低位后到达(逐个启动播放个数不同，低位个数多)
             delay = index * delayDuration;
-        } else if (Mode.START_FIRST_ARRIVAL_FIRST == mAnimMode) {
+        } else if (Mode.START_FIRST_ARRIVAL_FIRST == mode) {
             //低位先启动低位先到达(逐个启动播放个数相同)
             delay = index * delayDuration;
-        } else if (Mode.CALENDAR == mAnimMode || Mode.SCOREBOARD == mAnimMode) {
+        } else if (Mode.CALENDAR == mode || Mode.SCOREBOARD == mode) {
             //台历模式和记分牌模式都从地位开始(逐个启动播放)
             delay = index * delayDuration;
         } else {
@@ -918,24 +1767,37 @@ public class MultiScrollNumber extends LinearLayout {
 
     /** 计算动画播放最大步长数 */
     private int calAnimStepMax(boolean isAnimation, int index, boolean isEqualsNumber) {
+        return calAnimStepMax(mAnimMode, mStrategy, mAlphabet.size(), mAnimStartPosition, isAnimation, index);
+    }
+
+    /**
+     * 计算动画播放最大步长数
+     *
+     * @param animStepBase : 一轮字符的步数(十进制为10)
+     */
+    static int calAnimStepMax(Mode mode, ScrollNumber.Strategy strategy, int animStepBase, int animStartPosition,
+                              boolean isAnimation, int index) {
         int animStep = 0;
-        if(!isAnimation || index > mAnimStartPosition) {
+        if(!isAnimation || index > animStartPosition) {
             //高位没有变化不需要播放动画
             return 0;
         }
 
-        //以10个数字为基准
-        int animStepBase = ScrollNumber.NUMBER_CHARS_TOTAL;
-        if(Mode.START_FIRST_ARRIVAL_LAST == mAnimMode) {
+        if (ScrollNumber.Strategy.SHORTEST == strategy) {
+            //最短路径模式不增加步数
+            return 0;
+        }
+        //以一轮字符(十进制为10个数字)为基准
+        if(Mode.START_FIRST_ARRIVAL_LAST == mode) {
             //低位先启动低位后到达(逐个启动播放个数不同，低位个数多)
-            animStep = animStepBase + mAnimStartPosition - index;
-        } else if(Mode.START_FIRST_ARRIVAL_FIRST == mAnimMode) {
+            animStep = animStepBase + animStartPosition - index;
+        } else if(Mode.START_FIRST_ARRIVAL_FIRST == mode) {
             //低位先启动低位先到达(逐个启动播放个数相同)
             animStep = animStepBase;
-        } else if(Mode.START_ARRIVAL_SAME_TIME == mAnimMode) {
+        } else if(Mode.START_ARRIVAL_SAME_TIME == mode) {
             //同时启动同时到达
             animStep = animStepBase;
-        } else if (Mode.CALENDAR == mAnimMode || Mode.SCOREBOARD == mAnimMode) {
+        } else if (Mode.CALENDAR == mode || Mode.SCOREBOARD == mode) {
             //台历模式和记分牌模式都从地位开始(逐个启动播放不增加偏移量)
             animStep = 0;
         } else {
@@ -944,6 +1806,415 @@ public class MultiScrollNumber extends LinearLayout {
         return animStep;
     }
 
+    /**
+     * 开始批量更新
+     * 说明: 在commit之前样式和数字的设置只记录不应用，commit时一次性应用，只触发一次布局和绘制。
+     * 可以嵌套调用，最外层的commit才会应用。
+     */
+    public void beginUpdate() {
+        mUpdateDepth++;
+    }
+
+    /** 结束批量更新并应用 */
+    public void commit() {
+        if (mUpdateDepth <= 0) {
+            throw new IllegalStateException("commit() without beginUpdate()!");
+        }
+        if (--mUpdateDepth > 0) {
+            return;
+        }
+        if (applyUpdates()) {
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * 应用批量更新期间的设置
+     *
+     * @return 是否有变化
+     */
+    private boolean applyUpdates() {
+        boolean isChanged = isStyleDirty || isNumberDirty;
+        if (isStyleDirty) {
+            //先应用样式，新添加的数字Text直接使用最新的样式
+            isStyleDirty = false;
+            applyStyle();
+        }
+        applyPendingNumber();
+        return isChanged;
+    }
+
+    /** 应用布局加载时延迟的初始化 */
+    private void flushDeferredInit() {
+        if (!isInitDeferred) {
+            return;
+        }
+        isInitDeferred = false;
+        if (--mUpdateDepth == 0) {
+            applyUpdates();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (isInitDeferred) {
+            //第一次测量时创建数字Text(已经在布局过程中，不需要再请求布局)
+            isMeasuring = true;
+            flushDeferredInit();
+            isMeasuring = false;
+        }
+        if (isAutoFit) {
+            isMeasuring = true;
+            fitTextSize(widthMeasureSpec);
+            isMeasuring = false;
+        }
+        if (isTableMode()) {
+            //紧凑模式没有子控件，按照列数和列宽测量
+            mTableColumnWidth = calTableColumnWidth(mDrawStyle);
+            int columnCount = null == mTable ? 0 : mTable.getColumnCount();
+            int width = columnCount * mTableColumnWidth + getPaddingLeft() + getPaddingRight();
+            int height = mDrawStyle.getTextHeight() + dp2px(TABLE_VERTICAL_PADDING) + getPaddingTop() + getPaddingBottom();
+            setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+            return;
+        }
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    /**
+     * 批量更新
+     * 说明: 等同于beginUpdate，执行block，然后commit。
+     */
+    public void edit(Runnable block) {
+        beginUpdate();
+        try {
+            block.run();
+        } finally {
+            commit();
+        }
+    }
+
+    /** 应用批量更新期间设置的数字 */
+    private void applyPendingNumber() {
+        if (!isNumberDirty) {
+            return;
+        }
+        isNumberDirty = false;
+        if (isRestorePending) {
+            applyRestoredColumns();
+            return;
+        }
+        String from = mPendingFrom;
+        String to = mPendingTo;
+        mPendingFrom = null;
+        mPendingTo = null;
+        setNumber(from, to, mPendingDelay, isPendingAnimation);
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        Parcelable superState = super.onSaveInstanceState();
+        materializeCounterText();
+        SavedState ss = new SavedState(superState);
+        ss.numTextPrimary = numTextPrimary;
+        ss.numTextMiddle = numTextMiddle;
+        ss.numTextTarget = numTextTarget;
+        ss.fmtNumTextMiddle = fmtNumTextMiddle;
+        ss.animStartPosition = mAnimStartPosition;
+        ss.elapsed = -1;
+        if (isRestorePending) {
+            //恢复的状态还没有应用
+            ss.targetChars = Arrays.copyOf(mTargetChars, mColumnCount);
+            ss.primaryChars = Arrays.copyOf(mPrimaryChars, mColumnCount);
+            if (mRestoreElapsed >= 0) {
+                ss.elapsed = mRestoreElapsed + AnimationUtils.currentAnimationTimeMillis() - mRestoreTime;
+            }
+            return ss;
+        }
+        if (isNumberDirty) {
+            //批量更新中还没有应用的数字按照目标状态保存
+            int count = TextUtils.isEmpty(mPendingTo) ? 0 : mPendingTo.length();
+            ss.targetChars = new char[count];
+            fillColumns(mPendingTo, ss.targetChars, count);
+            ss.primaryChars = ss.targetChars;
+            return ss;
+        }
+        ss.targetChars = Arrays.copyOf(mTargetChars, mColumnCount);
+        ss.primaryChars = Arrays.copyOf(mTargetChars, mColumnCount);
+        //只保存还在播放的单元格的起始Text，已经结束的单元格恢复时直接显示目标值
+        boolean isAnimating = false;
+        int cellCount = isTableMode() ? mCellCount : Math.min(mCellCount, mScrollNumbers.size());
+        for (int c = 0; c < cellCount; c++) {
+            if (isTableMode() ? isTableCellAnimating(c) : mScrollNumbers.get(c).isAnimating()) {
+                System.arraycopy(mPrimaryChars, mCellStart[c], ss.primaryChars, mCellStart[c], mCellLength[c]);
+                isAnimating = true;
+            }
+        }
+        if (isAnimating) {
+            ss.elapsed = AnimationUtils.currentAnimationTimeMillis() - mAnimStartTime;
+        }
+        return ss;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        numTextPrimary = ss.numTextPrimary;
+        numTextMiddle = ss.numTextMiddle;
+        numTextTarget = ss.numTextTarget;
+        fmtNumTextMiddle = ss.fmtNumTextMiddle;
+        mAnimStartPosition = ss.animStartPosition;
+        int count = ss.targetChars.length;
+        //格式化后的起始和目标字符串由数字Text数组生成(不重复保存)
+        fmtNumTextPrimary = toText(ss.primaryChars, count);
+        fmtNumTextTarget = toText(ss.targetChars, count);
+        if (0 == count) {
+            return;
+        }
+        //直接恢复数字Text数组(不需要重新格式化)
+        ensureColumnCapacity(count);
+        System.arraycopy(ss.targetChars, 0, mTargetChars, 0, count);
+        System.arraycopy(ss.primaryChars, 0, mPrimaryChars, 0, count);
+        mColumnCount = count;
+        isCounterValueKnown = false;
+        isCounterTextStale = false;
+        mRestoreElapsed = ss.elapsed;
+        mRestoreTime = AnimationUtils.currentAnimationTimeMillis();
+        if (mUpdateDepth > 0) {
+            //批量更新(包括布局加载时延迟的初始化)期间恢复，覆盖已经设置的数字
+            mPendingFrom = null;
+            mPendingTo = null;
+            isNumberDirty = true;
+            isRestorePending = true;
+            return;
+        }
+        applyRestoredColumns();
+    }
+
+    /**
+     * 应用恢复的数字Text数组
+     * 说明: 一次创建所有数字Text，播放中的动画从保存时的进度继续播放。
+     */
+    private void applyRestoredColumns() {
+        isRestorePending = false;
+        boolean isAnimation = mRestoreElapsed >= 0;
+        long elapsed = isAnimation ? mRestoreElapsed + AnimationUtils.currentAnimationTimeMillis() - mRestoreTime : 0;
+        applyColumns(NUMBER_ANIM_DELAY, isAnimation, true, elapsed);
+    }
+
+    /**
+     * 保存的状态
+     * 说明: 保存数字字符串、数字Text数组和播放中动画的进度。
+     * 格式化后的起始和目标字符串与数字Text数组相同，恢复时由数组生成。
+     */
+    static class SavedState extends BaseSavedState {
+        String numTextPrimary;
+        String numTextMiddle;
+        String numTextTarget;
+        String fmtNumTextMiddle;
+        int animStartPosition;
+        /** 目标数字Text数组(逆序 低位在前) */
+        char[] targetChars;
+        /** 起始数字Text数组(没有播放的单元格与目标相同) */
+        char[] primaryChars;
+        /** 动画已经播放的时长(-1表示没有播放中的动画) */
+        long elapsed;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            numTextPrimary = in.readString();
+            numTextMiddle = in.readString();
+            numTextTarget = in.readString();
+            fmtNumTextMiddle = in.readString();
+            animStartPosition = in.readInt();
+            targetChars = in.createCharArray();
+            primaryChars = in.createCharArray();
+            elapsed = in.readLong();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeString(numTextPrimary);
+            out.writeString(numTextMiddle);
+            out.writeString(numTextTarget);
+            out.writeString(fmtNumTextMiddle);
+            out.writeInt(animStartPosition);
+            out.writeCharArray(targetChars);
+            out.writeCharArray(primaryChars);
+            out.writeLong(elapsed);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    /**
+     * 设置样式
+     * 说明: 所有数字Text共用同一个样式对象，多个控件可以共用同一个样式。
+     */
+    public void setStyle(ScrollNumberStyle style) {
+        if (style == null) throw new IllegalArgumentException("style couldn't be null");
+        if (style == mStyle) {
+            return;
+        }
+        mStyle = style;
+        //自动调整字体大小时在下一次测量时重新计算
+        mDrawStyle = style;
+        if (mUpdateDepth > 0) {
+            isStyleDirty = true;
+            return;
+        }
+        applyStyle();
+    }
+
+    /** 所有数字Text应用当前样式 */
+    private void applyStyle() {
+        if (null != mTable) {
+            mTableRenderer.setPaints(mDrawStyle.getPaint(), mDrawStyle.getUnitPaint());
+            mTable.setTextHeight(mDrawStyle.getTextHeight());
+            if (isTableMode()) {
+                if (!isMeasuring) {
+                    requestLayout();
+                }
+                invalidate();
+            }
+        }
+        for (int i = mScrollNumbers.size() - 1; i >= 0; i--) {
+            ScrollNumber scrollNumber = mScrollNumbers.get(i);
+            scrollNumber.setStyle(mDrawStyle);
+            if (i < mCellCount) {
+                scrollNumber.updateBackgroundResource(calBackgroundResource(mTargetChars[mCellStart[i]]));
+            }
+        }
+    }
+
+    /** 获取样式 */
+    public ScrollNumberStyle getStyle() {
+        return mStyle;
+    }
+
+    /**
+     * 设置是否自动调整字体大小
+     * 说明: 开启后按照可用宽度和当前列数查找能放下的最大字体大小(不超过setTextSize设置的大小)，
+     * 文字Text按照相同比例缩放。只在列数、可用宽度或者样式变化时重新计算，数字更新时不会重新测量。
+     */
+    public void setAutoFit(boolean autoFit) {
+        if (autoFit == isAutoFit) {
+            return;
+        }
+        isAutoFit = autoFit;
+        mFitSourceStyle = null;
+        if (!autoFit && mDrawStyle != mStyle) {
+            mDrawStyle = mStyle;
+            applyStyle();
+        }
+        requestLayout();
+    }
+
+    /** 是否自动调整字体大小 */
+    public boolean isAutoFit() {
+        return isAutoFit;
+    }
+
+    /**
+     * 自动调整字体大小
+     * 说明: 可用宽度、单元格(划分和文字)和样式都没有变化时直接使用上一次的结果，只有数字变化时不重新计算。
+     */
+    private void fitTextSize(int widthMeasureSpec) {
+        int available = MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED ? Integer.MAX_VALUE
+                : MeasureSpec.getSize(widthMeasureSpec) - getPaddingLeft() - getPaddingRight();
+        boolean isCellsChanged = updateFitChars();
+        if (available == mFitWidth && !isCellsChanged && mStyle == mFitSourceStyle) {
+            return;
+        }
+        mFitWidth = available;
+        mFitSourceStyle = mStyle;
+        ScrollNumberStyle style = mStyle;
+        if (mColumnCount > 0 && available < Integer.MAX_VALUE) {
+            int textSize = calFitTextSize(available);
+            if (textSize < (int) mStyle.getTextSize()) {
+                float scale = textSize / mStyle.getTextSize();
+                style = mStyle.withTextSize(textSize).withUnitTextSize(mStyle.getUnitTextSize() * scale);
+            }
+        }
+        if (style != mDrawStyle) {
+            mDrawStyle = style;
+            applyStyle();
+        }
+    }
+
+    /**
+     * 记录自适应时的单元格内容
+     * 说明: 字符表中的字形宽度相同，只比较单元格划分和文字字符。
+     *
+     * @return 与上一次相比是否变化
+     */
+    private boolean updateFitChars() {
+        boolean isChanged = mFitChars.length != mColumnCount;
+        if (isChanged) {
+            mFitChars = new char[mColumnCount];
+        }
+        for (int i = 0; i < mColumnCount; i++) {
+            char c = mAlphabet.contains(mTargetChars[i]) ? FIT_GLYPH : mTargetChars[i];
+            if (c != mFitChars[i]) {
+                mFitChars[i] = c;
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    /**
+     * 计算能放下的最大字体大小
+     * 说明: 按照设置的样式测量一次每个单元格的内容宽度，二分查找时按照比例缩放，不再测量字形。
+     */
+    private int calFitTextSize(int available) {
+        if (null == mFitter) {
+            mFitter = new TextSizeFitter();
+        }
+        if (isTableMode()) {
+            //紧凑模式所有列宽度相同
+            int spacing = dp2px(TABLE_COLUMN_SPACING);
+            int columnWidth = calTableColumnWidth(mStyle) - spacing;
+            mFitter.reset(mStyle.getTextSize(), spacing);
+            for (int i = 0; i < mColumnCount; i++) {
+                mFitter.add(columnWidth);
+            }
+        } else {
+            int glyphWidth = mStyle.getGlyphWidth(mAlphabet);
+            mFitter.reset(mStyle.getTextSize(), 2 * dp2px(CELL_PADDING) + dp2px(CELL_EXTRA_WIDTH) + 2 * CELL_MARGIN);
+            for (int c = 0; c < mCellCount; c++) {
+                int width = glyphWidth;
+                if (mCellLength[c] > 1 || isWordChar(mTargetChars[mCellStart[c]])) {
+                    //文字Text(包括单个文字)按照实际宽度
+                    int length = copyCellText(mTargetChars, mCellStart[c], mCellLength[c], mCellTo);
+                    width = Math.max(width, (int) Math.ceil(mStyle.getUnitPaint().measureText(mCellTo, 0, length)));
+                }
+                mFitter.add(width);
+            }
+        }
+        return mFitter.fit(available, sp2px(MIN_FIT_TEXT_SIZE));
+    }
+
     /**
      * 设置字体颜色
      * @param textColors
@@ -952,34 +2223,21 @@ public class MultiScrollNumber extends LinearLayout {
     public void setTextColors(@ColorRes int... textColors) {
         if (textColors == null || textColors.length == 0)
             throw new IllegalArgumentException("color array couldn't be empty!");
-        mTextColors = textColors;
-        for (int i = mScrollNumbers.size() - 1; i >= 0; i--) {
-            ScrollNumber scrollNumber = mScrollNumbers.get(i);
-            if(mTextColors.length > 1) {
-                scrollNumber.setUnitTextColor(getResources().getColor(mTextColors[1]));
-            } else {
-                scrollNumber.setUnitTextColor(getResources().getColor(mTextColors[0]));
-            }
-            scrollNumber.setTextColor(getResources().getColor(mTextColors[0]));
-        }
+        int textColor = getResources().getColor(textColors[0]);
+        int unitTextColor = textColors.length > 1 ? getResources().getColor(textColors[1]) : textColor;
+        setStyle(mStyle.withTextColor(textColor).withUnitTextColor(unitTextColor));
     }
 
     /** 设置数字Text字体大小 */
     public void setTextSize(int textSize) {
         if (textSize <= 0) throw new IllegalArgumentException("text size must > 0!");
-        mTextSize = textSize;
-        for (ScrollNumber s : mScrollNumbers) {
-            s.setTextSize(textSize);
-        }
+        setStyle(mStyle.withTextSize(sp2px(textSize)));
     }
 
     /** 设置文字Text字体大小(数字和文字混排) */
     public void setUnitTextSize(int numberUnitSize) {
         if (numberUnitSize <= 0) throw new IllegalArgumentException("number unit text size must > 0!");
-        mUnitTextSize = numberUnitSize;
-        for (ScrollNumber s : mScrollNumbers) {
-            s.setUnitTextSize(mUnitTextSize);
-        }
+        setStyle(mStyle.withUnitTextSize(sp2px(numberUnitSize)));
     }
 
     /** 设置数字Text背景 */
@@ -987,18 +2245,7 @@ public class MultiScrollNumber extends LinearLayout {
         if(resId < 0) {
             return;
         }
-        this.numberResId = resId;
-        if(null != mTargetNumbers && mScrollNumbers.size() > 0) {
-            for (int i = 0; i < mTargetNumbers.size(); i++) {
-                if(ScrollNumber.isNumeric(mTargetNumbers.get(i))) {
-                    if(mScrollNumbers.size() > i) {
-                        mScrollNumbers.get(i).setBackgroundResource(resId);
-                    } else {
-                        break;
-                    }
-                }
-            }
-        }
+        setStyle(mStyle.withNumberBackgroundResource(resId));
     }
 
     /** 设置文字Text背景资源 */
@@ -1006,19 +2253,7 @@ public class MultiScrollNumber extends LinearLayout {
         if(resId < 0) {
             return;
         }
-        this.numberUnitResId = resId;
-        if(null != mTargetNumbers && mScrollNumbers.size() > 0) {
-            for (int i = 0; i < mTargetNumbers.size(); i++) {
-                if(ScrollNumber.isEmptyChar(mTargetNumbers.get(i))
-                        && !ScrollNumber.isNumeric(mTargetNumbers.get(i))) {
-                    if(mScrollNumbers.size() > i) {
-                        mScrollNumbers.get(i).setBackgroundResource(resId);
-                    } else {
-                        break;
-                    }
-                }
-            }
-        }
+        setStyle(mStyle.withUnitBackgroundResource(resId));
     }
 
     public void setInterpolator(Interpolator interpolator) {
@@ -1028,23 +2263,45 @@ public class MultiScrollNumber extends LinearLayout {
         for (ScrollNumber s : mScrollNumbers) {
             s.setInterpolator(interpolator);
         }
+        if (null != mTable) {
+            mTable.setEasing(toEasing(interpolator));
+        }
+    }
+
+    private static ScrollColumn.Easing toEasing(final Interpolator interpolator) {
+        return new ScrollColumn.Easing() {
+            @Override
+            public float getInterpolation(float input) {
+                return interpolator.getInterpolation(input);
+            }
+        };
     }
 
     /** 设置数字Text字体 */
     public void setTextFont(String fileName) {
-        if (TextUtils.isEmpty(fileName)) throw new IllegalArgumentException("file name is null");
-        mFontFileName = fileName;
-        for (ScrollNumber s : mScrollNumbers) {
-            s.setTextFont(fileName);
-        }
+        setStyle(mStyle.withTypeface(loadTypeface(fileName)));
     }
 
     /** 设置文字Text字体 */
     public void setUnitTextFont(String fileName) {
+        setStyle(mStyle.withUnitTypeface(loadTypeface(fileName)));
+    }
+
+    /** 加载字体(同一个字体文件只加载一次) */
+    private Typeface loadTypeface(String fileName) {
         if (TextUtils.isEmpty(fileName)) throw new IllegalArgumentException("file name is null");
-        mUnitFontFileName = fileName;
-        for (ScrollNumber s : mScrollNumbers) {
-            s.setUnitTextFont(fileName);
-        }
+        Typeface typeface = ScrollNumberStyle.getTypeface(mContext, fileName);
+        if (typeface == null) throw new RuntimeException("please check your font!");
+        return typeface;
+    }
+
+    private int dp2px(float dpVal) {
+        return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                dpVal, getResources().getDisplayMetrics());
+    }
+
+    private int sp2px(float spVal) {
+        return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP,
+                spVal, getResources().getDisplayMetrics());
     }
 }
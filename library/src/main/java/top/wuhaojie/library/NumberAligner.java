@@ -0,0 +1,278 @@
+package top.wuhaojie.library;
+
+/**
+ * 数字Text对齐(按照文字分组格式化补位)
+ * 说明: 这是数字格式化的核心算法。按照文字(非数字)进行分组，从高位开始分组比较，
+ * 对齐后再打洞(去掉目标数字需要移除的Text项目)。
+ * 例如初始数字10万，结束数字1亿300，
+ * 格式化结果为：初始数字：10万空空空 结束数字：空1亿300
+ * 所有处理都在字符数组上顺序完成，每个字符只扫描常数次，不生成中间字符串。
+ * 对齐结果(包括特殊情况的补位规则)与原来基于StringBuilder的实现保持一致。
+ * 可滚动的字符按照字符表判断(默认十进制数字)，补位使用字符表的第一个字符。
+ */
+final class NumberAligner {
+    /** 空白字符 */
+    private static final char EMPTY_CHAR = ' ';
+
+    /** 起始数字字符串 */
+    private char[] mSrcFrom = new char[16];
+    /** 目标数字字符串 */
+    private char[] mSrcTo = new char[16];
+    /** 对齐后的起始数字 */
+    private char[] mFrom = new char[16];
+    /** 对齐后的目标数字 */
+    private char[] mTo = new char[16];
+    /** 对齐后的长度 */
+    private int mLength;
+    /** 可滚动的字符表 */
+    private ScrollAlphabet mAlphabet = ScrollAlphabet.DECIMAL;
+    /** 数字补位字符(字符表的第一个字符) */
+    private char mNumberChar = ScrollAlphabet.DECIMAL.charAt(0);
+
+    /** 设置可滚动的字符表 */
+    void setAlphabet(ScrollAlphabet alphabet) {
+        mAlphabet = alphabet;
+        mNumberChar = alphabet.charAt(0);
+    }
+
+    /**
+     * 对齐起始数字和目标数字
+     *
+     * @param from : 起始数字字符串
+     * @param to : 目标数字字符串
+     */
+    void align(String from, String to) {
+        mLength = 0;
+        int lenFrom = null == from ? 0 : from.length();
+        int lenTo = null == to ? 0 : to.length();
+        if (0 == lenFrom && 0 == lenTo) {
+            return;
+        }
+        if (mSrcFrom.length < lenFrom) {
+            mSrcFrom = new char[lenFrom];
+        }
+        if (mSrcTo.length < lenTo) {
+            mSrcTo = new char[lenTo];
+        }
+        if (lenFrom > 0) {
+            from.getChars(0, lenFrom, mSrcFrom, 0);
+        }
+        if (lenTo > 0) {
+            to.getChars(0, lenTo, mSrcTo, 0);
+        }
+        if (lenFrom > 0 && lenTo > 0) {
+            //起始数字和目标数字都不为空根据非数字字符分组
+            alignGroups(lenFrom, lenTo);
+        } else {
+            //有一个字符串为空
+            appendEmptyGroup(0, lenFrom, 0, lenTo);
+        }
+        punch();
+    }
+
+    /** 对齐后的起始数字 */
+    char[] getFrom() {
+        return mFrom;
+    }
+
+    /** 对齐后的目标数字 */
+    char[] getTo() {
+        return mTo;
+    }
+
+    /** 对齐后的长度 */
+    int getLength() {
+        return mLength;
+    }
+
+    /** 根据非数字字符进行分组 */
+    private void alignGroups(int lenFrom, int lenTo) {
+        //确定分组数目
+        int groupCnt = Math.min(calGroupCount(mSrcFrom, lenFrom), calGroupCount(mSrcTo, lenTo));
+        int nextFrom = 0;
+        int nextTo = 0;
+        for (int i = 0; i < groupCnt; i++) {
+            //查找当前分组非数字Text位置
+            int indexFrom = findWordChar(mSrcFrom, lenFrom, nextFrom);
+            int indexTo = findWordChar(mSrcTo, lenTo, nextTo);
+            if (indexFrom < 0 && indexTo < 0) {
+                //1)双方都不存在非数字的Text
+                appendNumberGroup(nextFrom, lenFrom, nextTo, lenTo);
+                break;
+            }
+            //2)至少一方存在非数字
+            //不存在对应非数字的Text默认数字Text一直到字符串结尾
+            if (indexFrom < 0) {
+                indexFrom = lenFrom;
+            }
+            if (indexTo < 0) {
+                indexTo = lenTo;
+            }
+            appendNumberGroup(nextFrom, indexFrom, nextTo, indexTo);
+            //初始化当前分组的文字Text
+            int lenWordFrom = calWordCharLength(mSrcFrom, lenFrom, indexFrom);
+            int lenWordTo = calWordCharLength(mSrcTo, lenTo, indexTo);
+            appendWordGroup(indexFrom, lenWordFrom, indexTo, lenWordTo);
+            //计算下一个分组的偏移位置
+            nextFrom = indexFrom + lenWordFrom;
+            nextTo = indexTo + lenWordTo;
+        }
+        //追加剩余分组的内容部分
+        appendEmptyGroup(nextFrom, lenFrom - nextFrom, nextTo, lenTo - nextTo);
+    }
+
+    /**
+     * 追加数字分组
+     * 说明: 数字前补位，起始数字补0，目标数字补空(需要移除)。
+     *
+     * @param startFrom : 起始数字分组开始位置
+     * @param endFrom : 起始数字分组结束位置
+     * @param startTo : 目标数字分组开始位置
+     * @param endTo : 目标数字分组结束位置
+     */
+    private void appendNumberGroup(int startFrom, int endFrom, int startTo, int endTo) {
+        int lenFrom = endFrom - startFrom;
+        int lenTo = endTo - startTo;
+        int groupLen = Math.max(lenFrom, lenTo);
+        ensureCapacity(mLength + groupLen);
+        fill(mFrom, mLength, groupLen - lenFrom, mNumberChar);
+        System.arraycopy(mSrcFrom, startFrom, mFrom, mLength + groupLen - lenFrom, lenFrom);
+        fill(mTo, mLength, groupLen - lenTo, EMPTY_CHAR);
+        System.arraycopy(mSrcTo, startTo, mTo, mLength + groupLen - lenTo, lenTo);
+        mLength += groupLen;
+    }
+
+    /**
+     * 追加文字分组
+     * 说明: 文字前补空。
+     *
+     * @param indexFrom : 起始数字文字Text开始位置
+     * @param lenWordFrom : 起始数字文字Text长度
+     * @param indexTo : 目标数字文字Text开始位置
+     * @param lenWordTo : 目标数字文字Text长度
+     */
+    private void appendWordGroup(int indexFrom, int lenWordFrom, int indexTo, int lenWordTo) {
+        int groupWordLen = Math.max(lenWordFrom, lenWordTo);
+        if (groupWordLen <= 0) {
+            return;
+        }
+        ensureCapacity(mLength + groupWordLen);
+        fill(mFrom, mLength, groupWordLen - lenWordFrom, EMPTY_CHAR);
+        System.arraycopy(mSrcFrom, indexFrom, mFrom, mLength + groupWordLen - lenWordFrom, lenWordFrom);
+        fill(mTo, mLength, groupWordLen - lenWordTo, EMPTY_CHAR);
+        System.arraycopy(mSrcTo, indexTo, mTo, mLength + groupWordLen - lenWordTo, lenWordTo);
+        mLength += groupWordLen;
+    }
+
+    /**
+     * 追加只有一方存在的分组
+     * 说明: 只有起始数字时目标数字全部补空，只有目标数字时起始数字的数字补0、文字补空。
+     * 双方都存在时不追加。
+     */
+    private void appendEmptyGroup(int startFrom, int lenFrom, int startTo, int lenTo) {
+        if (lenFrom <= 0 && lenTo > 0) {
+            ensureCapacity(mLength + lenTo);
+            for (int i = 0; i < lenTo; i++) {
+                char c = mSrcTo[startTo + i];
+                mFrom[mLength + i] = mAlphabet.contains(c) ? mNumberChar : EMPTY_CHAR;
+            }
+            System.arraycopy(mSrcTo, startTo, mTo, mLength, lenTo);
+            mLength += lenTo;
+        } else if (lenFrom > 0 && lenTo <= 0) {
+            ensureCapacity(mLength + lenFrom);
+            System.arraycopy(mSrcFrom, startFrom, mFrom, mLength, lenFrom);
+            fill(mTo, mLength, lenFrom, EMPTY_CHAR);
+            mLength += lenFrom;
+        }
+    }
+
+    /**
+     * 格式化打洞
+     * 说明: 目标数字为空的位置移除，目标数字不为空时起始数字的空白位置补0(数字)或者补目标文字。
+     */
+    private void punch() {
+        int count = 0;
+        for (int i = 0; i < mLength; i++) {
+            char to = mTo[i];
+            if (ScrollColumn.isEmptyChar(to)) {
+                continue;
+            }
+            char from = mFrom[i];
+            if (ScrollColumn.isEmptyChar(from)) {
+                from = mAlphabet.contains(to) ? mNumberChar : to;
+            }
+            mFrom[count] = from;
+            mTo[count] = to;
+            count++;
+        }
+        mLength = count;
+    }
+
+    /**
+     * 计算数字分组个数
+     * 说明: 数字和文字每切换一次算一个分组，全数字或者全文字字符串当做一个分组
+     */
+    private int calGroupCount(char[] text, int length) {
+        if (length <= 1) {
+            return length;
+        }
+        int groupCnt = 0;
+        for (int i = 0; i + 1 < length; i++) {
+            if (mAlphabet.contains(text[i]) ^ mAlphabet.contains(text[i + 1])) {
+                groupCnt++;
+            }
+        }
+        return 0 == groupCnt ? 1 : groupCnt;
+    }
+
+    /**
+     * 计算文字Text长度
+     * 说明: 文字Text一直到下一个数字字符。位于开头的文字Text长度按照0计算(与原有规则一致)。
+     */
+    private int calWordCharLength(char[] text, int length, int index) {
+        if (index <= 0 || index >= length) {
+            return 0;
+        }
+        int next = findNumericChar(text, length, index);
+        return next < 0 ? length - index : next - index;
+    }
+
+    /** 查找下一个数字字符位置 */
+    private int findNumericChar(char[] text, int length, int start) {
+        for (int i = start; i < length; i++) {
+            if (mAlphabet.contains(text[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** 查找下一个文字(非数字非空白)字符位置 */
+    private int findWordChar(char[] text, int length, int start) {
+        for (int i = start; i < length; i++) {
+            if (!ScrollColumn.isEmptyChar(text[i]) && !mAlphabet.contains(text[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void fill(char[] dst, int start, int count, char c) {
+        for (int i = 0; i < count; i++) {
+            dst[start + i] = c;
+        }
+    }
+
+    /** 保证对齐结果容量 */
+    private void ensureCapacity(int capacity) {
+        if (mFrom.length < capacity) {
+            int newCapacity = Math.max(capacity, mFrom.length * 2);
+            char[] from = new char[newCapacity];
+            char[] to = new char[newCapacity];
+            System.arraycopy(mFrom, 0, from, 0, mLength);
+            System.arraycopy(mTo, 0, to, 0, mLength);
+            mFrom = from;
+            mTo = to;
+        }
+    }
+}
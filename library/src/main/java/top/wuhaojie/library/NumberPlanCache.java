@@ -0,0 +1,140 @@
+package top.wuhaojie.library;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 对齐结果缓存(LRU)
+ * 说明: 时钟、倒计时、记分牌等场景在几组起始数字和目标数字之间反复切换，
+ * 按照(起始数字, 目标数字, 播放模式, 字符表)缓存对齐后的字符串和动画开始位置，
+ * 命中时不再对齐和创建字符串。查找时复用同一个键对象，只有未命中时才创建新的键。
+ */
+final class NumberPlanCache {
+    /** 对齐结果(不可变) */
+    static final class Plan {
+        /** 对齐后的起始数字 */
+        final String from;
+        /** 对齐后的目标数字 */
+        final String to;
+        /** 动画需要播放的最高位 */
+        final int animStartPosition;
+
+        Plan(String from, String to, int animStartPosition) {
+            this.from = from;
+            this.to = to;
+            this.animStartPosition = animStartPosition;
+        }
+    }
+
+    private static final class Key {
+        String from;
+        String to;
+        MultiScrollNumber.Mode mode;
+        ScrollAlphabet alphabet;
+
+        Key set(String from, String to, MultiScrollNumber.Mode mode, ScrollAlphabet alphabet) {
+            this.from = from;
+            this.to = to;
+            this.mode = mode;
+            this.alphabet = alphabet;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return mode == key.mode && alphabet == key.alphabet
+                    && (null == from ? null == key.from : from.equals(key.from))
+                    && (null == to ? null == key.to : to.equals(key.to));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = null == from ? 0 : from.hashCode();
+            result = 31 * result + (null == to ? 0 : to.hashCode());
+            result = 31 * result + (null == mode ? 0 : mode.hashCode());
+            result = 31 * result + System.identityHashCode(alphabet);
+            return result;
+        }
+    }
+
+    /** 按照访问顺序排列的缓存(最久未使用的在前) */
+    private final LinkedHashMap<Key, Plan> mPlans = new LinkedHashMap<Key, Plan>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Plan> eldest) {
+            return size() > mMaxSize;
+        }
+    };
+    /** 查找用的键(复用) */
+    private final Key mLookupKey = new Key();
+    /** 缓存个数上限(0表示不缓存) */
+    private int mMaxSize;
+    private int mHitCount;
+    private int mMissCount;
+
+    NumberPlanCache(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * 获取对齐结果
+     * 说明: 未命中时通过aligner对齐并缓存。
+     */
+    Plan obtain(String from, String to, MultiScrollNumber.Mode mode, ScrollAlphabet alphabet, NumberAligner aligner) {
+        Plan plan = mPlans.get(mLookupKey.set(from, to, mode, alphabet));
+        mLookupKey.set(null, null, null, null);
+        if (null != plan) {
+            mHitCount++;
+            return plan;
+        }
+        mMissCount++;
+        aligner.align(from, to);
+        int length = aligner.getLength();
+        plan = new Plan(new String(aligner.getFrom(), 0, length), new String(aligner.getTo(), 0, length),
+                MultiScrollNumber.initAnimStartPosition(mode, aligner.getFrom(), aligner.getTo(), length));
+        if (mMaxSize > 0) {
+            mPlans.put(new Key().set(from, to, mode, alphabet), plan);
+        }
+        return plan;
+    }
+
+    /** 设置缓存个数上限(0表示不缓存) */
+    void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("plan cache size must >= 0!");
+        }
+        mMaxSize = maxSize;
+        while (mPlans.size() > maxSize) {
+            mPlans.remove(mPlans.keySet().iterator().next());
+        }
+    }
+
+    int getMaxSize() {
+        return mMaxSize;
+    }
+
+    int size() {
+        return mPlans.size();
+    }
+
+    /** 命中次数 */
+    int getHitCount() {
+        return mHitCount;
+    }
+
+    /** 未命中次数 */
+    int getMissCount() {
+        return mMissCount;
+    }
+
+    /** 清空缓存(计数不变) */
+    void clear() {
+        mPlans.clear();
+    }
+}
@@ -0,0 +1,39 @@
+package top.wuhaojie.library;
+
+/**
+ * 数字Text绘制接口
+ * 说明: 滚动引擎只通过此接口绘制和测量，不直接依赖android.graphics.Canvas。
+ * Android视图使用CanvasNumberRenderer，JVM上的测试和性能分析使用RecordingNumberRenderer。
+ */
+public interface NumberRenderer {
+
+    /**
+     * 绘制一段字符(水平居中)
+     *
+     * @param text : 字符数组
+     * @param index : 起始位置
+     * @param count : 字符个数
+     * @param x : 中心X坐标
+     * @param y : 基线Y坐标
+     * @param isUnit : 是否采用文字Text画笔(否则采用数字Text画笔)
+     */
+    void drawText(char[] text, int index, int count, float x, float y, boolean isUnit);
+
+    /** 测量一段字符的宽度 */
+    float measureText(char[] text, int index, int count, boolean isUnit);
+
+    /** 测量一段字符的高度 */
+    int measureTextHeight(char[] text, int index, int count, boolean isUnit);
+
+    /** 平移绘制坐标 */
+    void translate(float dx, float dy);
+
+    /** 裁剪绘制区域 */
+    void clipRect(float left, float top, float right, float bottom);
+
+    /** 保存绘制状态 */
+    int save();
+
+    /** 恢复绘制状态 */
+    void restoreToCount(int saveCount);
+}
@@ -0,0 +1,125 @@
+package top.wuhaojie.library;
+
+/**
+ * 纯Java的数字Text绘制(只记录不绘制)
+ * 说明: 不依赖Android，用于在JVM上对逐帧绘制流程做测试、性能分析和微基准测试。
+ * 字符宽度和高度采用固定值，绘制过程不分配内存。
+ */
+public class RecordingNumberRenderer implements NumberRenderer {
+    /** 单个字符的宽度 */
+    private float mCharWidth;
+    /** 字符高度 */
+    private int mTextHeight;
+    /** drawText调用次数 */
+    private int mDrawTextCount;
+    /** 绘制的字符总数 */
+    private int mDrawCharCount;
+    /** 当前的平移量 */
+    private float mTranslateX;
+    private float mTranslateY;
+    /** 保存的平移量 */
+    private float[] mSaveStack = new float[16];
+    private int mSaveCount;
+    /** 最后一次绘制的字符 */
+    private char[] mLastText = new char[8];
+    private int mLastTextLength;
+    /** 最后一次绘制的位置(包含平移量) */
+    private float mLastX;
+    private float mLastY;
+
+    public RecordingNumberRenderer() {
+        this(10f, 10);
+    }
+
+    public RecordingNumberRenderer(float charWidth, int textHeight) {
+        mCharWidth = charWidth;
+        mTextHeight = textHeight;
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, boolean isUnit) {
+        mDrawTextCount++;
+        mDrawCharCount += count;
+        if (count > mLastText.length) {
+            mLastText = new char[count];
+        }
+        System.arraycopy(text, index, mLastText, 0, count);
+        mLastTextLength = count;
+        mLastX = x + mTranslateX;
+        mLastY = y + mTranslateY;
+    }
+
+    @Override
+    public float measureText(char[] text, int index, int count, boolean isUnit) {
+        return mCharWidth * count;
+    }
+
+    @Override
+    public int measureTextHeight(char[] text, int index, int count, boolean isUnit) {
+        return count > 0 ? mTextHeight : 0;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        mTranslateX += dx;
+        mTranslateY += dy;
+    }
+
+    @Override
+    public void clipRect(float left, float top, float right, float bottom) {
+        //只记录不裁剪
+    }
+
+    @Override
+    public int save() {
+        if (mSaveCount * 2 + 2 > mSaveStack.length) {
+            float[] stack = new float[mSaveStack.length * 2];
+            System.arraycopy(mSaveStack, 0, stack, 0, mSaveStack.length);
+            mSaveStack = stack;
+        }
+        mSaveStack[mSaveCount * 2] = mTranslateX;
+        mSaveStack[mSaveCount * 2 + 1] = mTranslateY;
+        return mSaveCount++;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        if (saveCount < 0 || saveCount >= mSaveCount) {
+            return;
+        }
+        mTranslateX = mSaveStack[saveCount * 2];
+        mTranslateY = mSaveStack[saveCount * 2 + 1];
+        mSaveCount = saveCount;
+    }
+
+    /** 清除记录 */
+    public void reset() {
+        mDrawTextCount = 0;
+        mDrawCharCount = 0;
+        mTranslateX = 0;
+        mTranslateY = 0;
+        mSaveCount = 0;
+        mLastTextLength = 0;
+    }
+
+    public int getDrawTextCount() {
+        return mDrawTextCount;
+    }
+
+    public int getDrawCharCount() {
+        return mDrawCharCount;
+    }
+
+    /** 最后一次绘制的字符(会分配字符串，只用于测试) */
+    public String getLastText() {
+        return new String(mLastText, 0, mLastTextLength);
+    }
+
+    public float getLastX() {
+        return mLastX;
+    }
+
+    public float getLastY() {
+        return mLastY;
+    }
+}
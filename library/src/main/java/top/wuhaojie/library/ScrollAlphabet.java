@@ -0,0 +1,117 @@
+package top.wuhaojie.library;
+
+import java.util.Arrays;
+
+/**
+ * 可滚动的字符表(不可变)
+ * 说明: 按照滚动顺序排列的字符，字符表中的字符按照索引循环滚动，其他字符一步切换。
+ * 创建时预先生成字符-->索引的查找表，滚动和分类时直接查表，不需要遍历和创建对象。
+ * 字符分布太分散(例如ASCII和汉字混合)时查找表太大，改为在排序的字符中二分查找。
+ */
+public final class ScrollAlphabet {
+    /** 十进制数字(默认) */
+    public static final ScrollAlphabet DECIMAL = new ScrollAlphabet("0123456789");
+    /** 十六进制数字(大写) */
+    public static final ScrollAlphabet HEX = new ScrollAlphabet("0123456789ABCDEF");
+    /** 大写字母(航班信息牌) */
+    public static final ScrollAlphabet LETTERS = new ScrollAlphabet("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    /** 全角数字 */
+    public static final ScrollAlphabet FULLWIDTH_DIGITS = new ScrollAlphabet("０１２３４５６７８９");
+    /** 阿拉伯-印度数字 */
+    public static final ScrollAlphabet ARABIC_INDIC_DIGITS = new ScrollAlphabet("٠١٢٣٤٥٦٧٨٩");
+
+    /** 查找表的最大范围(最大字符与最小字符之差)，超过时二分查找 */
+    static final int MAX_INDEX_TABLE_RANGE = 256;
+
+    /** 按照滚动顺序排列的字形 */
+    private final char[] mGlyphs;
+    /** 查找表的最小字符 */
+    private final char mMinChar;
+    /** 字符-->索引+1(0表示不在字符表中)，按照最小字符偏移(字符分散时为null) */
+    private final char[] mIndexTable;
+    /** 排序后的字符和对应的索引(字符集中时为null) */
+    private final char[] mSortedGlyphs;
+    private final int[] mSortedIndexes;
+
+    /**
+     * 创建字符表
+     * 说明: 最大字符与最小字符之差不超过MAX_INDEX_TABLE_RANGE时按照查找表查找索引，
+     * 否则在排序的字符中二分查找(不会为分散的字符分配大的查找表)。
+     *
+     * @param glyphs : 按照滚动顺序排列的字符(至少两个，不能重复，不能包含空白字符)
+     */
+    public ScrollAlphabet(String glyphs) {
+        if (null == glyphs || glyphs.length() < 2) {
+            throw new IllegalArgumentException("alphabet needs at least two glyphs!");
+        }
+        mGlyphs = glyphs.toCharArray();
+        char minChar = Character.MAX_VALUE;
+        char maxChar = Character.MIN_VALUE;
+        for (char c : mGlyphs) {
+            if (ScrollColumn.isEmptyChar(c)) {
+                throw new IllegalArgumentException("alphabet couldn't contain blank!");
+            }
+            minChar = c < minChar ? c : minChar;
+            maxChar = c > maxChar ? c : maxChar;
+        }
+        mMinChar = minChar;
+        if (maxChar - minChar <= MAX_INDEX_TABLE_RANGE) {
+            mIndexTable = new char[maxChar - minChar + 1];
+            mSortedGlyphs = null;
+            mSortedIndexes = null;
+            for (int i = 0; i < mGlyphs.length; i++) {
+                int slot = mGlyphs[i] - minChar;
+                if (0 != mIndexTable[slot]) {
+                    throw new IllegalArgumentException("alphabet couldn't contain duplicate glyphs!");
+                }
+                mIndexTable[slot] = (char) (i + 1);
+            }
+            return;
+        }
+        mIndexTable = null;
+        mSortedGlyphs = Arrays.copyOf(mGlyphs, mGlyphs.length);
+        Arrays.sort(mSortedGlyphs);
+        mSortedIndexes = new int[mGlyphs.length];
+        for (int i = 0; i < mSortedGlyphs.length; i++) {
+            if (i > 0 && mSortedGlyphs[i] == mSortedGlyphs[i - 1]) {
+                throw new IllegalArgumentException("alphabet couldn't contain duplicate glyphs!");
+            }
+        }
+        for (int i = 0; i < mGlyphs.length; i++) {
+            mSortedIndexes[Arrays.binarySearch(mSortedGlyphs, mGlyphs[i])] = i;
+        }
+    }
+
+    /** 字符个数(一轮滚动的步数) */
+    public int size() {
+        return mGlyphs.length;
+    }
+
+    /** 指定索引的字符 */
+    public char charAt(int index) {
+        return mGlyphs[index];
+    }
+
+    /** 字符的索引(不在字符表中返回-1) */
+    public int indexOf(char c) {
+        if (null == mIndexTable) {
+            int position = Arrays.binarySearch(mSortedGlyphs, c);
+            return position < 0 ? -1 : mSortedIndexes[position];
+        }
+        int slot = c - mMinChar;
+        if (slot < 0 || slot >= mIndexTable.length) {
+            return -1;
+        }
+        return mIndexTable[slot] - 1;
+    }
+
+    /** 字符是否在字符表中(可以滚动) */
+    public boolean contains(char c) {
+        return indexOf(c) >= 0;
+    }
+
+    /** 按照索引排列的字形(只读，绘制时使用) */
+    char[] getGlyphs() {
+        return mGlyphs;
+    }
+}
@@ -0,0 +1,842 @@
+package top.wuhaojie.library;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 单个数字Text的滚动引擎
+ * 说明: 保存一位数字的动画状态并逐帧推进，通过NumberRenderer绘制。
+ * 不依赖Android类，ScrollNumber负责调度帧和绘制，也可以直接在JVM上驱动。
+ */
+public class ScrollColumn {
+
+    /** 动画播放加速器 */
+    public interface Easing {
+        float getInterpolation(float input);
+    }
+
+    /** 加速器采用 0.05~0.80 */
+    static final float ACCELERATE_MAX_VALUE = 0.8f;
+    /** 加速器偏移点 0.24(10个1500ms) */
+    private static final float ACCELERATE_OFFSET_DEFAULT = 0.24f;
+    private static final float ACCELERATE_OFFSET_MAX = 0.45f;
+    private static final float ACCELERATE_OFFSET_MIN = 0.1f;
+    /**
+     * 移动变化百分比
+     * 说明: 最大不能超过1.0f。
+     */
+    private static final float SCROLL_RATE_DEFAULT = 0.15f;
+    /**
+     * 最大移动变化百分比
+     * 说明: 一个数字最少显示两次，因此百分比过超过0.5f
+     */
+    private static final float SCROLL_RATE_MAX = 0.5f;
+    /**
+     * 最小移动变化百分比
+     * 说明: 一个数字最多显示百次，因此百分比过超过0.1f
+     */
+    private static final float SCROLL_RATE_MIN = 0.1f;
+    /** 标准帧间隔(60fps) */
+    static final float FRAME_INTERVAL = 1000f / 60;
+    /** 最多追赶的标准帧个数(10秒)，超过时直接结束动画 */
+    static final int MAX_CATCH_UP_FRAMES = 600;
+    /** 文字Text基线微调 */
+    static final int UNIT_BASELINE_ADJUST = 2;
+
+    /** 默认加速器(与AccelerateDecelerateInterpolator一致) */
+    public static final Easing ACCELERATE_DECELERATE = new Easing() {
+        @Override
+        public float getInterpolation(float input) {
+            return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+        }
+    };
+
+    /** 数字动画播放加速器 */
+    private Easing mEasing = ACCELERATE_DECELERATE;
+    /**
+     * 全部滚动的步长
+     */
+    private int mDeltaNum;
+    /** 当前播放步长 */
+    private int mLeftStep;
+    /**
+     * 基准动画动画播放轮数(一轮是 0~9)
+     * 说明: 例如 1-->2 如果增加一轮 1-->2-->3...->2
+     */
+    private int mAnimLoop = ScrollNumber.SCROLL_LOOP_DEFAULT;
+    /**
+     * 当前数字值(即数字字形索引，文字为-1)
+     */
+    private int mCurNum;
+    /**
+     * 下一个数字值(即数字字形索引)
+     * 1)数字切换到数字 0-->1-->2-->3-->4-->5-->6-->7-->8-->9
+     * 2)数字(文字或空白字符)切换到文字 文字-->文字(下一个Text即目标Text)
+     * 3)文字(空白字符)切换到数字 文字-->0...->数字
+     * 4)数字切换到无(空白字符) 数字-->消失(父类移除当前节点)
+     * 5)文字切换到无(空白字符) 文字-->消失(父类移除移除当前节点)
+     */
+    private int mNextNum;
+    /**
+     * 目标数字的值(文字为-1)
+     */
+    private int mTargetNum;
+    /** 开始显示的文字值(当前数字值为-1时绘制) */
+    private char[] mCurText = new char[1];
+    private int mCurLength;
+    /** 目标显示的文字值 */
+    private char[] mTargetText = new char[1];
+    private int mTargetLength;
+    /** 数字Text向上滚动的偏移量 */
+    private float mOffset;
+    /** 数字Text向上移动的偏移量百分比 */
+    private float mOffsetRate = SCROLL_RATE_DEFAULT;
+    /**
+     * 加速度偏移值
+     * 说明: 10以内的步长变化进行加速度偏移值的微调
+     */
+    private float mAccelateOffset = ACCELERATE_OFFSET_DEFAULT;
+    /** 播放策略(默认为自然模式) */
+    private ScrollNumber.Strategy mStrategy = ScrollNumber.Strategy.NATURAL;
+    /** 数字动画播放模式 */
+    private MultiScrollNumber.Mode mAnimMode = MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST;
+    /** 变化方向参数(向上递增播放) */
+    private int mAnimDirection = 1;
+    /** 数字Text字体高度 */
+    private int mTextHeight;
+    /** 起始Text是否是数字 */
+    private boolean isFromNumeric;
+    /** 结束Text是否是数字 */
+    private boolean isToNumeric;
+    /** 是否需要移除当前项 */
+    private boolean isNeedRemove;
+    /** 上一帧的时间(-1表示还没有开始) */
+    private long mLastFrameTime = -1;
+    /** 动画时长缩放(系统动画时长缩放设置) */
+    private float mDurationScale = 1f;
+    /** 数字正则(正整数) */
+    private static final Pattern NUMERIC_PATTERN = Pattern.compile("[0-9]*");
+    /** 空白字符 */
+    private static final char[] EMPTY_TEXT = new char[]{' '};
+    /** 可滚动的字符表(数字字形按照索引绘制，不需要创建字符串) */
+    private ScrollAlphabet mAlphabet = ScrollAlphabet.DECIMAL;
+    /** 当前动画循环的字形个数(里程表模式可以小于字符表，例如时钟分钟的十位只在0~5之间循环) */
+    private int mWrapSize = ScrollAlphabet.DECIMAL.size();
+    /** 单个字符设置时使用的缓存 */
+    private char[] mFromChar = new char[1];
+    private char[] mToChar = new char[1];
+
+    /**
+     * 计算开始和结束的数值
+     *
+     * @param from : 开始数字Text
+     * @param to : 结束数字Text
+     * @param animLoop : 基准动画播放轮数
+     * @param animStepMax : 预设最大动画播放总步长
+     * @param duration ：动画播放时长
+     */
+    public void setNumberChar(String from, String to, int animLoop, int animStepMax, long duration) {
+        char[] fromText = null == from ? EMPTY_TEXT : from.toCharArray();
+        char[] toText = null == to ? EMPTY_TEXT : to.toCharArray();
+        setNumberChar(fromText, 0, null == from ? 0 : fromText.length,
+                toText, 0, null == to ? 0 : toText.length, animLoop, animStepMax, duration);
+    }
+
+    /**
+     * 计算开始和结束的数值(单个字符)
+     *
+     * @param from : 开始数字字符
+     * @param to : 结束数字字符
+     * @param animLoop : 基准动画播放轮数
+     * @param animStepMax : 预设最大动画播放总步长
+     * @param duration ：动画播放时长
+     */
+    public void setNumberChar(char from, char to, int animLoop, int animStepMax, long duration) {
+        mFromChar[0] = from;
+        mToChar[0] = to;
+        setNumberChar(mFromChar, 0, 1, mToChar, 0, 1, animLoop, animStepMax, duration);
+    }
+
+    /**
+     * 计算开始和结束的数值
+     * 说明: 字符内容会被复制，调用方可以重用传入的数组。
+     *
+     * @param from : 开始数字Text
+     * @param fromStart : 开始数字Text起始位置
+     * @param fromLength : 开始数字Text长度
+     * @param to : 结束数字Text
+     * @param toStart : 结束数字Text起始位置
+     * @param toLength : 结束数字Text长度
+     * @param animLoop : 基准动画播放轮数
+     * @param animStepMax : 预设最大动画播放总步长
+     * @param duration ：动画播放时长
+     */
+    public void setNumberChar(char[] from, int fromStart, int fromLength, char[] to, int toStart, int toLength,
+                              int animLoop, int animStepMax, long duration) {
+        isNeedRemove = isEmptyChar(to, toStart, toLength);
+        //空值采用空白字符占位
+        if (fromLength <= 0) {
+            from = EMPTY_TEXT;
+            fromStart = 0;
+            fromLength = 1;
+        }
+        if (toLength <= 0) {
+            to = EMPTY_TEXT;
+            toStart = 0;
+            toLength = 1;
+        }
+        mCurText = copyText(from, fromStart, fromLength, mCurText);
+        mCurLength = fromLength;
+        mTargetText = copyText(to, toStart, toLength, mTargetText);
+        mTargetLength = toLength;
+        mCurNum = getDigitIndex(mCurText, 0, mCurLength);
+        mTargetNum = getDigitIndex(mTargetText, 0, mTargetLength);
+        mWrapSize = mAlphabet.size();
+        mAnimLoop = Math.min(ScrollNumber.SCROLL_LOOP_MAX, Math.max(animLoop, ScrollNumber.SCROLL_LOOP_DEFAULT));
+        //计算总共步长(默认播放一轮)
+        mDeltaNum = calDeltaNum(animStepMax);
+        mLeftStep = mDeltaNum;
+        mOffset = 0;
+        mLastFrameTime = -1;
+        //计算数字播放移动百分比(不能超过100%)
+        calculateAccelateOffsetRate(mDeltaNum, duration);
+        //计算下一个数字Text
+        initNextNumberText();
+    }
+
+    /**
+     * 按指定的步数滚动到目标数字(里程表模式)
+     * 说明: 步数由调用方根据进位计算，例如个位从8加15滚动15步到3。
+     *
+     * @param from : 开始数字字符
+     * @param to : 结束数字字符
+     * @param steps : 带符号的步数(正数向上递增播放 负数向下递减播放)
+     * @param duration ：动画播放时长
+     */
+    public void setNumberSteps(char from, char to, int steps, long duration) {
+        setNumberSteps(from, to, steps, duration, mAlphabet.size());
+    }
+
+    /**
+     * 按指定的步数在字符表的前base个字形中循环滚动(里程表模式)
+     * 说明: 例如时钟秒的十位base为6，从5向上一步滚动到0。
+     *
+     * @param base : 循环的字形个数(2~字符表大小)
+     */
+    public void setNumberSteps(char from, char to, int steps, long duration, int base) {
+        if (base < 2 || base > mAlphabet.size()) {
+            throw new IllegalArgumentException("base must be in [2, alphabet size]!");
+        }
+        int fromNum = mAlphabet.indexOf(from);
+        int toNum = mAlphabet.indexOf(to);
+        if (fromNum < 0 || toNum < 0 || fromNum >= base || toNum >= base) {
+            throw new IllegalArgumentException("from and to must be in the alphabet!");
+        }
+        int deltaNum = Math.abs(steps);
+        int direction = steps >= 0 ? 1 : -1;
+        if (((toNum - fromNum) * direction - deltaNum) % base != 0) {
+            throw new IllegalArgumentException("steps don't match from and to!");
+        }
+        mWrapSize = base;
+        isNeedRemove = false;
+        mFromChar[0] = from;
+        mToChar[0] = to;
+        mCurText = copyText(mFromChar, 0, 1, mCurText);
+        mCurLength = 1;
+        mTargetText = copyText(mToChar, 0, 1, mTargetText);
+        mTargetLength = 1;
+        mCurNum = fromNum;
+        mTargetNum = toNum;
+        isFromNumeric = true;
+        isToNumeric = true;
+        mAnimLoop = ScrollNumber.SCROLL_LOOP_DEFAULT;
+        mAnimDirection = direction;
+        mDeltaNum = deltaNum;
+        mLeftStep = mDeltaNum;
+        mOffset = 0;
+        mLastFrameTime = -1;
+        calculateAccelateOffsetRate(mDeltaNum, duration);
+        initNextNumberText();
+    }
+
+    /**
+     * 计算两个数字之间的最短步数(0~9循环)
+     * 说明: 距离相同(相差5)时向上播放。
+     *
+     * @param from : 开始数字
+     * @param to : 结束数字
+     * @return 带符号的步数(正数向上递增播放 负数向下递减播放)
+     */
+    public static int calShortestSteps(int from, int to) {
+        return calShortestSteps(from, to, ScrollNumber.NUMBER_CHARS_TOTAL);
+    }
+
+    /**
+     * 计算两个字形索引之间的最短步数(按照字符表大小循环)
+     * 说明: 距离相同时向上播放。
+     *
+     * @param from : 开始索引
+     * @param to : 结束索引
+     * @param size : 字符表大小
+     * @return 带符号的步数(正数向上递增播放 负数向下递减播放)
+     */
+    public static int calShortestSteps(int from, int to, int size) {
+        int forward = (to - from + size) % size;
+        return forward <= size / 2 ? forward : forward - size;
+    }
+
+    /** 复制字符(容量不足时扩容) */
+    private static char[] copyText(char[] src, int start, int length, char[] dst) {
+        if (dst.length < length) {
+            dst = new char[length];
+        }
+        System.arraycopy(src, start, dst, 0, length);
+        return dst;
+    }
+
+    /** 获取单个字符的字形索引(不是字符表中的单个字符返回-1) */
+    private int getDigitIndex(char[] text, int start, int length) {
+        return length == 1 ? mAlphabet.indexOf(text[start]) : -1;
+    }
+
+    /** 计算初始化的下一个字符 */
+    private void initNextNumberText() {
+        if (isToNumeric) {
+            //数字动画播放
+            int tmpNum = 0;
+            if(mAnimDirection > 0) {
+                //向上移动(进行数据补位)
+                int size = mWrapSize;
+                tmpNum = (mTargetNum - mDeltaNum % size + size) % size;
+                mNextNum = calNextNumber(tmpNum);
+            } else {
+                //向下移动(当前起始值递减)
+                tmpNum = mCurNum;
+                mNextNum = calNextNumber(tmpNum);
+            }
+        }
+        //文字型动画播放直接切换到目标数字Text
+    }
+
+    /**
+     * 计算数字移动的百分比
+     * 说明：不能超过最大数字播放的移动百分比(10个数字1500ms播放完成)
+     */
+    private void calculateAccelateOffsetRate(int totalStep, long duration) {
+        int speedScale = calSpeedScale(mAnimMode, mAnimLoop, mAlphabet.size(), totalStep, duration);
+        mOffsetRate = calOffsetRate(speedScale);
+        mAccelateOffset = calAccelateOffset(speedScale);
+    }
+
+    /**
+     * 计算速度倍数(四舍五入)
+     * 说明: 采样的基点(10个数字播放时长1500ms，移动百分比0.15f)。
+     *
+     * @param mode : 动画模式
+     * @param animLoop : 基准动画播放轮数
+     * @param size : 字符表大小
+     * @param totalStep : 总共的步长
+     * @param duration : 动画播放时长
+     * @return 正数表示比普通播放速度快的倍数，负数表示慢的倍数
+     */
+    static int calSpeedScale(MultiScrollNumber.Mode mode, int animLoop, int size, int totalStep, long duration) {
+        int curTotal = totalStep <= 0 ? 1 : totalStep;
+        double d1 = 0;
+        double d2 = 0;
+        if(MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST == mode
+                || MultiScrollNumber.Mode.START_FIRST_ARRIVAL_FIRST == mode
+                || MultiScrollNumber.Mode.START_ARRIVAL_SAME_TIME == mode) {
+            //需要保证数字到达顺序的动画模式(采用固定的加速度 等长时间播放 因此根据基准动画比较)
+            d1 = (double) ScrollNumber.ONE_LOOP_DURATION / ScrollNumber.NUMBER_CHARS_TOTAL;
+            d2 = duration / (animLoop * size);
+        } else {
+            //只滚一轮情况下
+            d1 = (double) ScrollNumber.ONE_LOOP_DURATION / ScrollNumber.NUMBER_CHARS_TOTAL;
+            d2 = duration / curTotal;
+        }
+        if(d1 >= d2) {
+            //比普通播放速度快(时长过短时按照最大速度)
+            return (int) Math.min(Integer.MAX_VALUE, Math.round(d1 / d2));
+        }
+        return -(int) Math.round(d2 / d1);
+    }
+
+    /** 根据速度倍数计算移动百分比 */
+    static float calOffsetRate(int speedScale) {
+        double rate;
+        if (speedScale > 0) {
+            rate = (float) (SCROLL_RATE_DEFAULT + (SCROLL_RATE_MAX - SCROLL_RATE_DEFAULT) / 10 * speedScale);
+        } else {
+            rate = (float) (SCROLL_RATE_DEFAULT - (SCROLL_RATE_DEFAULT - SCROLL_RATE_MIN) / 10 * -speedScale);
+        }
+        return (float) Math.min(SCROLL_RATE_MAX, Math.max(SCROLL_RATE_MIN, rate));
+    }
+
+    /** 根据速度倍数计算加速度偏移值 */
+    static float calAccelateOffset(int speedScale) {
+        double accelerateOffset;
+        if (speedScale > 0) {
+            accelerateOffset = ACCELERATE_OFFSET_DEFAULT + ((ACCELERATE_OFFSET_MAX - ACCELERATE_OFFSET_DEFAULT) / 10 * speedScale);
+        } else {
+            accelerateOffset = ACCELERATE_OFFSET_DEFAULT + ((ACCELERATE_OFFSET_DEFAULT - ACCELERATE_OFFSET_MIN) / 10 * -speedScale);
+        }
+        return (float) Math.min(ACCELERATE_OFFSET_MAX, Math.max(ACCELERATE_OFFSET_MIN, accelerateOffset));
+    }
+
+    /**
+     * 计算总共变化的步长
+     * 说明: 简单化。数字之间多步长动画，带文字的一个步长的动画。
+     *
+     * @param animStepMax : 预设最大动画播放总步长
+     */
+    private int calDeltaNum(int animStepMax) {
+        isFromNumeric = mCurNum >= 0;
+        isToNumeric = mTargetNum >= 0;
+        if (isToNumeric) {
+            //数字之间的动画需要播放的步长个数
+            int steps = calSteps(mStrategy, mCurNum, mTargetNum, mAnimLoop, animStepMax, mAlphabet.size());
+            //移动方向(1表示向上递增播放 -1表示向下递减播放)
+            mAnimDirection = steps >= 0 ? 1 : -1;
+            return Math.abs(steps);
+        }
+        //文字的动画一个步长完成
+        mAnimDirection = 1;
+        return equalsText(mCurText, mCurLength, mTargetText, mTargetLength) ? 0 : 1;
+    }
+
+    /**
+     * 计算数字之间需要播放的步数
+     *
+     * @param strategy : 滚动策略
+     * @param startNum : 开始数字(文字为-1)
+     * @param stopNum : 结束数字
+     * @param animLoop : 基准动画播放轮数
+     * @param animStepMax : 预设最大动画播放总步长(最短路径模式不使用)
+     * @return 带符号的步数(正数向上递增播放 负数向下递减播放)
+     */
+    public static int calSteps(ScrollNumber.Strategy strategy, int startNum, int stopNum, int animLoop, int animStepMax) {
+        return calSteps(strategy, startNum, stopNum, animLoop, animStepMax, ScrollNumber.NUMBER_CHARS_TOTAL);
+    }
+
+    /**
+     * 计算字形索引之间需要播放的步数(按照字符表大小循环，一轮是字符表大小)
+     *
+     * @param size : 字符表大小
+     */
+    public static int calSteps(ScrollNumber.Strategy strategy, int startNum, int stopNum, int animLoop, int animStepMax, int size) {
+        int loopSteps = (animLoop - 1) * size;
+        if (ScrollNumber.Strategy.NATURAL == strategy) {
+            //自然模式
+            int totalStep = (stopNum - startNum + size) % size + loopSteps;
+            return Math.max(totalStep, animStepMax);
+        } else if (ScrollNumber.Strategy.SHORTEST == strategy) {
+            //循环最短路径模式(起始为文字时向上播放)
+            int steps = startNum >= 0 ? calShortestSteps(startNum, stopNum, size)
+                    : (stopNum - startNum + size) % size;
+            return steps >= 0 ? steps + loopSteps : steps - loopSteps;
+        }
+        //最短路径模式
+        int totalStep = Math.max(Math.abs(stopNum - startNum) + loopSteps, animStepMax);
+        return stopNum >= startNum ? totalStep : -totalStep;
+    }
+
+    /**
+     * 切换到下一个数字Text
+     * 说明: 数字只切换字形索引，文字直接切换到目标Text。
+     */
+    private void switchToNextText() {
+        if (isToNumeric) {
+            //数字动画播放
+            mCurNum = mNextNum;
+            mNextNum = calNextNumber(mCurNum);
+        } else {
+            //文字型动画播放(直接切换到目标数字Text)
+            mCurText = copyText(mTargetText, 0, mTargetLength, mCurText);
+            mCurLength = mTargetLength;
+            mCurNum = mTargetNum;
+        }
+    }
+
+    /** 计算当前数字的下一个数值 */
+    private int calNextNumber(int number) {
+        int nextNum = 0;
+        int size = mWrapSize;
+        number = number == -1 ? size - 1 : number;
+        nextNum = (number + mAnimDirection + size) % size;
+        return nextNum;
+    }
+
+    /**
+     * 推进一帧的滚动偏移量
+     */
+    public void scroll() {
+        scroll(1f);
+    }
+
+    /**
+     * 推进指定标准帧数的滚动偏移量
+     *
+     * @param frames : 标准帧(60fps)个数，可以是小数
+     */
+    private void scroll(float frames) {
+        if(isFromNumeric && isToNumeric) {
+            //根据数字的位置计算偏移量
+            int step = (mDeltaNum - mLeftStep);
+            float x = (float) (ACCELERATE_MAX_VALUE * step / mDeltaNum);
+            mOffset -= frames * mAnimDirection * mOffsetRate * (1 - mEasing.getInterpolation(x) + mAccelateOffset);
+        } else {
+            mOffset -= frames * mAnimDirection * 0.15f * (1 - mEasing.getInterpolation(0) + 0.1);
+        }
+    }
+
+    /**
+     * 根据帧时间推进滚动偏移量
+     * 说明: 动画按照标准帧(60fps)的时间线播放。帧延迟(卡顿)时一次追赶多个标准帧，
+     * 中间经过的数字不再绘制，直接跳到当前时间应该显示的位置，因此卡顿不会拉长动画时长。
+     * 延迟过久(例如在后台暂停)时直接结束动画。
+     *
+     * @param frameTimeMillis : 当前帧时间
+     */
+    public void scrollTo(long frameTimeMillis) {
+        if (mLeftStep <= 0) {
+            return;
+        }
+        if (mLastFrameTime < 0) {
+            //第一帧按一个标准帧推进
+            mLastFrameTime = frameTimeMillis;
+            scroll(1f);
+            return;
+        }
+        if (frameTimeMillis <= mLastFrameTime) {
+            //时间没有变化(重复的回调或者同一帧重新投递)不推进
+            return;
+        }
+        if (mDurationScale <= 0) {
+            //系统关闭了动画
+            finish();
+            return;
+        }
+        float frames = (frameTimeMillis - mLastFrameTime) / (FRAME_INTERVAL * mDurationScale);
+        mLastFrameTime = frameTimeMillis;
+        if (frames > MAX_CATCH_UP_FRAMES) {
+            //落后太多直接结束
+            finish();
+            return;
+        }
+        //逐个追赶完整的标准帧(跨过的数字直接切换)
+        while (frames >= 1f && mLeftStep > 0) {
+            scroll(1f);
+            switchIfArrived();
+            frames -= 1f;
+        }
+        if (frames > 0 && mLeftStep > 0) {
+            scroll(frames);
+        }
+    }
+
+    /**
+     * 偏移量达到一个完整数字时切换到下一个数字Text
+     */
+    private void switchIfArrived() {
+        if (mLeftStep > 0 && Math.abs(mOffset) >= 1) {
+            //剩余步长减少1
+            mLeftStep--;
+            //表示当前的数字Text已经移出NextText数字完全进入
+            mOffset += mAnimDirection;
+            //当前数字Text切换为下一个数字Text 并计算下一轮的NextText
+            switchToNextText();
+        }
+    }
+
+    /**
+     * 直接结束动画(显示目标Text)
+     */
+    public void finish() {
+        mLeftStep = 0;
+        mOffset = 0;
+        mCurNum = mTargetNum;
+        mCurText = copyText(mTargetText, 0, mTargetLength, mCurText);
+        mCurLength = mTargetLength;
+    }
+
+    /**
+     * 处理当前帧的步长切换
+     * 说明: 偏移量达到一个完整数字时切换到下一个数字Text。
+     *
+     * @return 是否还需要继续播放动画
+     */
+    public boolean nextFrame() {
+        if (mLeftStep > 0) {
+            //需要播放文字或者数字未播放完成
+            switchIfArrived();
+            return true;
+        }
+        //动画已经播放完成
+        mOffset = 0;
+        return false;
+    }
+
+    /**
+     * 绘制当前帧
+     *
+     * @param renderer : 绘制接口
+     * @param centerX : Text中心X位置
+     * @param height : 绘制区域高度
+     */
+    public void draw(NumberRenderer renderer, int centerX, int height) {
+        int saveCount = renderer.save();
+        renderer.translate(0, mOffset * height);
+        drawSelf(renderer, centerX, height);
+        if (mLeftStep > 0 || mOffset != 0) {
+            drawNext(renderer, centerX, height);
+        }
+        renderer.restoreToCount(saveCount);
+    }
+
+    /** 绘制下一个数字Text */
+    private void drawNext(NumberRenderer renderer, int centerX, int height) {
+        int y = (int) (height * (0.5f + mAnimDirection));
+        if (isToNumeric) {
+            drawDigit(renderer, mNextNum, centerX, y);
+        } else {
+            drawText(renderer, mTargetText, mTargetLength, centerX, y);
+        }
+    }
+
+    /** 绘制当前的数字Text */
+    private void drawSelf(NumberRenderer renderer, int centerX, int height) {
+        int y = height / 2;
+        if (mCurNum >= 0) {
+            drawDigit(renderer, mCurNum, centerX, y);
+        } else {
+            drawText(renderer, mCurText, mCurLength, centerX, y);
+        }
+    }
+
+    /** 绘制数字字形 */
+    private void drawDigit(NumberRenderer renderer, int number, int centerX, int centerY) {
+        renderer.drawText(mAlphabet.getGlyphs(), number, 1, centerX, centerY + mTextHeight / 2, false);
+    }
+
+    private void drawText(NumberRenderer renderer, char[] text, int length, int centerX, int centerY) {
+        if(length <= 0) {
+            //文字Text采用空白字符填充
+            text = EMPTY_TEXT;
+            length = 1;
+        }
+        if(isNumeric(text, 0, length) || isAlphabetText(text, length)) {
+            renderer.drawText(text, 0, length, centerX, centerY + mTextHeight / 2, false);
+        } else {
+            int unitTextHeight = renderer.measureTextHeight(text, 0, 1, true);
+            renderer.drawText(text, 0, length, centerX, centerY + unitTextHeight / 2 - UNIT_BASELINE_ADJUST, true);
+        }
+    }
+
+    /** 设置动画模式 */
+    public void setScollAnimationMode(MultiScrollNumber.Mode mode) {
+        this.mAnimMode = mode;
+    }
+
+    /**
+     * 设置可滚动的字符表
+     * 说明: 下一次设置数字Text时生效。
+     */
+    public void setAlphabet(ScrollAlphabet alphabet) {
+        if (null == alphabet) {
+            throw new IllegalArgumentException("alphabet couldn't be null!");
+        }
+        mAlphabet = alphabet;
+    }
+
+    /** 可滚动的字符表 */
+    public ScrollAlphabet getAlphabet() {
+        return mAlphabet;
+    }
+
+    /** 设置数字滚动策略 */
+    public void setStrategy(ScrollNumber.Strategy strategy) {
+        this.mStrategy = strategy;
+    }
+
+    /** 设置动画播放加速器 */
+    public void setEasing(Easing easing) {
+        mEasing = easing;
+    }
+
+    /**
+     * 设置动画开始的时间
+     * 说明: 暂停后恢复时，下一帧会按照从开始到当前的时间追赶或者直接结束。
+     */
+    public void setStartTime(long startTimeMillis) {
+        mLastFrameTime = startTimeMillis;
+    }
+
+    /**
+     * 设置动画时长缩放
+     * 说明: 与系统的动画时长缩放设置一致，0表示不播放动画。
+     */
+    public void setDurationScale(float durationScale) {
+        mDurationScale = durationScale;
+    }
+
+    /** 设置数字Text字体高度 */
+    public void setTextHeight(int textHeight) {
+        mTextHeight = textHeight;
+    }
+
+    /** 是否已经设置了数字Text */
+    public boolean hasText() {
+        return mCurLength > 0 && mTargetLength > 0;
+    }
+
+    /** 动画是否正在播放 */
+    public boolean isAnimating() {
+        return mLeftStep > 0;
+    }
+
+    /** 当前显示的数字值(文字为-1) */
+    public int getCurNumber() {
+        return mCurNum;
+    }
+
+    /** 目标Text(只读) */
+    public char[] getTargetText() {
+        return mTargetText;
+    }
+
+    /** 目标Text长度 */
+    public int getTargetLength() {
+        return mTargetLength;
+    }
+
+    /** 全部滚动的步长 */
+    public int getDeltaNum() {
+        return mDeltaNum;
+    }
+
+    /** 剩余的滚动步长 */
+    public int getLeftStep() {
+        return mLeftStep;
+    }
+
+    /** 当前的偏移量 */
+    public float getOffset() {
+        return mOffset;
+    }
+
+    public float getOffsetRate() {
+        return mOffsetRate;
+    }
+
+    public float getAccelateOffset() {
+        return mAccelateOffset;
+    }
+
+    /** 是否需要移除当前项(目标对应项为空数字) */
+    public boolean isNeedRemove() {
+        return isNeedRemove;
+    }
+
+    /**
+     * 判断是否是数字
+     *
+     * @param str
+     * @return
+     */
+    public static boolean isNumeric(String str) {
+        Matcher isNum = NUMERIC_PATTERN.matcher(str);
+        if (!isNum.matches()) {
+            return false;
+        }
+        return true;
+    }
+
+    /** 获取数字的值 */
+    public static int getNumberValue(String str) {
+        int number = 0;
+        if(isNumeric(str)) {
+            try {
+                number = Integer.parseInt(str);
+            }catch(Exception e) {
+                e.printStackTrace();
+            }
+        } else {
+            //文字默认为-1
+            number = -1;
+        }
+        return number;
+    }
+
+    /** 判断字符是否是数字 */
+    public static boolean isNumeric(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** 判断字符是否是数字(与isNumeric(String)规则一致) */
+    public static boolean isNumeric(char[] text, int start, int length) {
+        for (int i = start; i < start + length; i++) {
+            if (!isNumeric(text[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 获取数字的值(文字为-1) */
+    public static int getNumberValue(char[] text, int start, int length) {
+        if (!isNumeric(text, start, length)) {
+            //文字默认为-1
+            return -1;
+        }
+        int number = 0;
+        for (int i = start; i < start + length; i++) {
+            number = number * 10 + (text[i] - '0');
+        }
+        return number;
+    }
+
+    /** 是否全部是字符表中的字符(按照数字Text绘制) */
+    private boolean isAlphabetText(char[] text, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!mAlphabet.contains(text[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 是否是空字符 */
+    public static boolean isEmptyChar(char c) {
+        return c == ' ';
+    }
+
+    /** 是否是空字符串 */
+    public static boolean isEmptyChar(char[] text, int start, int length) {
+        return length <= 0 || (length == 1 && isEmptyChar(text[start]));
+    }
+
+    /** 比较两段字符是否相同 */
+    private static boolean equalsText(char[] a, int lengthA, char[] b, int lengthB) {
+        if (lengthA != lengthB) {
+            return false;
+        }
+        for (int i = 0; i < lengthA; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 是否是空字符串 */
+    public static boolean isEmptyChar(String value) {
+        return null == value || value.length() == 0 || value.equals(" ");
+    }
+
+    /**
+     * 获取字符串值（空值转化为" "）
+     */
+    public static String getStringNoEmpty(String value) {
+        return null == value || value.length() == 0 ? " " : value;
+    }
+}
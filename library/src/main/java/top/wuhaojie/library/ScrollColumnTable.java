@@ -0,0 +1,450 @@
+package top.wuhaojie.library;
+
+/**
+ * 多个数字Text的滚动引擎(按列存放)
+ * 说明: 与ScrollColumn的滚动规则一致，但是所有列的动画状态按照字段存放在并列的基本类型数组中
+ * (当前字形、下一个字形、偏移量、剩余步长、方向、开始时间)，每一帧在一个循环中推进所有列。
+ * 每一列大约45字节，没有对象引用，适合一屏上千个数字Text的场景。
+ * 列的索引与MultiScrollNumber的数字Text数组一致(低位在前)，绘制时从右向左排列。
+ */
+public class ScrollColumnTable {
+    /** 起始Text是否是字符表中的字符 */
+    private static final byte FLAG_FROM_NUMERIC = 1;
+    /** 结束Text是否是字符表中的字符 */
+    private static final byte FLAG_TO_NUMERIC = 2;
+    /** 向下递减播放 */
+    private static final byte FLAG_DOWN = 4;
+    private static final byte FLAG_NUMERIC = FLAG_FROM_NUMERIC | FLAG_TO_NUMERIC;
+    /** 空白字符 */
+    private static final char EMPTY_CHAR = ' ';
+
+    /** 列数 */
+    private int mCount;
+    /** 当前显示的字符(当前字形索引为-1时绘制) */
+    private char[] mCurChars = new char[0];
+    /** 目标字符 */
+    private char[] mTargetChars = new char[0];
+    /** 当前字形索引(文字为-1) */
+    private int[] mCurNum = new int[0];
+    /** 下一个字形索引 */
+    private int[] mNextNum = new int[0];
+    /** 剩余步长 */
+    private int[] mLeftStep = new int[0];
+    /** 全部滚动的步长 */
+    private int[] mDeltaNum = new int[0];
+    /** 向上滚动的偏移量 */
+    private float[] mOffset = new float[0];
+    /** 移动变化百分比 */
+    private float[] mOffsetRate = new float[0];
+    /** 加速度偏移值 */
+    private float[] mAccelateOffset = new float[0];
+    /** FLAG_FROM_NUMERIC | FLAG_TO_NUMERIC | FLAG_DOWN */
+    private byte[] mFlags = new byte[0];
+    /** 动画开始时间 */
+    private long[] mStartTime = new long[0];
+    /** 循环的字形个数(里程表模式可以小于字符表) */
+    private int[] mWrapSize = new int[0];
+
+    /** 上一帧的时间(-1表示还没有开始) */
+    private long mLastFrameTime = -1;
+    /** 可滚动的字符表 */
+    private ScrollAlphabet mAlphabet = ScrollAlphabet.DECIMAL;
+    /** 播放策略 */
+    private ScrollNumber.Strategy mStrategy = ScrollNumber.Strategy.NATURAL;
+    /** 数字动画播放模式 */
+    private MultiScrollNumber.Mode mAnimMode = MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST;
+    /** 数字动画播放加速器 */
+    private ScrollColumn.Easing mEasing = ScrollColumn.ACCELERATE_DECELERATE;
+    /** 动画时长缩放 */
+    private float mDurationScale = 1f;
+    /** 数字Text字体高度 */
+    private int mTextHeight;
+
+    /**
+     * 设置列数
+     * 说明: 容量不足时扩容，新增的列为空白字符。
+     */
+    public void setColumnCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("column count must >= 0!");
+        }
+        if (mCurNum.length < count) {
+            int capacity = Math.max(count, mCurNum.length * 2);
+            mCurChars = grow(mCurChars, capacity);
+            mTargetChars = grow(mTargetChars, capacity);
+            mCurNum = grow(mCurNum, capacity);
+            mNextNum = grow(mNextNum, capacity);
+            mLeftStep = grow(mLeftStep, capacity);
+            mDeltaNum = grow(mDeltaNum, capacity);
+            mOffset = grow(mOffset, capacity);
+            mOffsetRate = grow(mOffsetRate, capacity);
+            mAccelateOffset = grow(mAccelateOffset, capacity);
+            mFlags = grow(mFlags, capacity);
+            mStartTime = grow(mStartTime, capacity);
+            mWrapSize = grow(mWrapSize, capacity);
+        }
+        for (int i = mCount; i < count; i++) {
+            setNumberCharImmediately(i, EMPTY_CHAR);
+        }
+        mCount = count;
+    }
+
+    /** 列数 */
+    public int getColumnCount() {
+        return mCount;
+    }
+
+    /**
+     * 设置一列的起始和目标字符
+     *
+     * @param column : 列索引(低位在前)
+     * @param from : 开始字符
+     * @param to : 结束字符
+     * @param startTime : 动画开始时间
+     * @param animLoop : 基准动画播放轮数
+     * @param animStepMax : 预设最大动画播放总步长
+     * @param duration ：动画播放时长
+     */
+    public void setNumberChar(int column, char from, char to, long startTime, int animLoop, int animStepMax, long duration) {
+        int size = mAlphabet.size();
+        int fromNum = mAlphabet.indexOf(from);
+        int toNum = mAlphabet.indexOf(to);
+        animLoop = Math.min(ScrollNumber.SCROLL_LOOP_MAX, Math.max(animLoop, ScrollNumber.SCROLL_LOOP_DEFAULT));
+        int steps;
+        if (toNum >= 0) {
+            steps = ScrollColumn.calSteps(mStrategy, fromNum, toNum, animLoop, animStepMax, size);
+        } else {
+            //文字的动画一个步长完成
+            steps = from == to ? 0 : 1;
+        }
+        byte flags = (byte) ((fromNum >= 0 ? FLAG_FROM_NUMERIC : 0) | (toNum >= 0 ? FLAG_TO_NUMERIC : 0));
+        start(column, from, to, fromNum, toNum, flags, steps, startTime, animLoop, duration, size);
+    }
+
+    /**
+     * 按指定的步数滚动到目标字符(里程表模式)
+     *
+     * @param steps : 带符号的步数(正数向上递增播放 负数向下递减播放)
+     */
+    public void setNumberSteps(int column, char from, char to, int steps, long startTime, long duration) {
+        setNumberSteps(column, from, to, steps, startTime, duration, mAlphabet.size());
+    }
+
+    /**
+     * 按指定的步数在字符表的前base个字形中循环滚动(时钟模式)
+     *
+     * @param base : 循环的字形个数(2~字符表大小)
+     */
+    public void setNumberSteps(int column, char from, char to, int steps, long startTime, long duration, int base) {
+        if (base < 2 || base > mAlphabet.size()) {
+            throw new IllegalArgumentException("base must be in [2, alphabet size]!");
+        }
+        int fromNum = mAlphabet.indexOf(from);
+        int toNum = mAlphabet.indexOf(to);
+        if (fromNum < 0 || toNum < 0 || fromNum >= base || toNum >= base) {
+            throw new IllegalArgumentException("from and to must be in the alphabet!");
+        }
+        if (((toNum - fromNum) * (steps >= 0 ? 1 : -1) - Math.abs(steps)) % base != 0) {
+            throw new IllegalArgumentException("steps don't match from and to!");
+        }
+        start(column, from, to, fromNum, toNum, FLAG_NUMERIC, steps, startTime, ScrollNumber.SCROLL_LOOP_DEFAULT, duration, base);
+    }
+
+    /** 直接显示目标字符 */
+    public void setNumberCharImmediately(int column, char to) {
+        mCurChars[column] = to;
+        mTargetChars[column] = to;
+        mCurNum[column] = mAlphabet.indexOf(to);
+        mNextNum[column] = mCurNum[column];
+        mLeftStep[column] = 0;
+        mDeltaNum[column] = 0;
+        mOffset[column] = 0;
+        mFlags[column] = 0;
+    }
+
+    private void start(int column, char from, char to, int fromNum, int toNum, byte flags, int steps,
+                       long startTime, int animLoop, long duration, int wrapSize) {
+        int size = mAlphabet.size();
+        int deltaNum = Math.abs(steps);
+        int direction = steps >= 0 ? 1 : -1;
+        if (direction < 0) {
+            flags |= FLAG_DOWN;
+        }
+        mCurChars[column] = from;
+        mTargetChars[column] = to;
+        mCurNum[column] = fromNum;
+        mLeftStep[column] = deltaNum;
+        mDeltaNum[column] = deltaNum;
+        mOffset[column] = 0;
+        mFlags[column] = flags;
+        mStartTime[column] = startTime;
+        mWrapSize[column] = wrapSize;
+        int speedScale = ScrollColumn.calSpeedScale(mAnimMode, animLoop, size, deltaNum, duration);
+        mOffsetRate[column] = ScrollColumn.calOffsetRate(speedScale);
+        mAccelateOffset[column] = ScrollColumn.calAccelateOffset(speedScale);
+        //计算下一个字形(向上播放时从目标倒推补位)
+        if (toNum >= 0) {
+            int first = direction > 0 ? (toNum - deltaNum % wrapSize + wrapSize) % wrapSize : fromNum;
+            mNextNum[column] = calNextNumber(column, first, direction);
+        }
+    }
+
+    /** 计算下一个字形索引 */
+    private int calNextNumber(int column, int number, int direction) {
+        int size = mWrapSize[column];
+        number = number == -1 ? size - 1 : number;
+        return (number + direction + size) % size;
+    }
+
+    /**
+     * 推进一帧
+     * 说明: 在一个循环中推进所有列，到达开始时间的列按照标准帧(60fps)的时间线追赶，
+     * 延迟过久的列直接结束。
+     *
+     * @param frameTimeMillis : 当前帧时间
+     * @return 是否还有列在播放动画(包括等待开始的列)
+     */
+    public boolean doFrame(long frameTimeMillis) {
+        if (mDurationScale <= 0) {
+            //系统关闭了动画
+            finish();
+            return false;
+        }
+        float frameInterval = ScrollColumn.FRAME_INTERVAL * mDurationScale;
+        boolean isAnimating = false;
+        for (int i = 0; i < mCount; i++) {
+            if (mLeftStep[i] <= 0) {
+                mOffset[i] = 0;
+                continue;
+            }
+            long startTime = mStartTime[i];
+            if (frameTimeMillis < startTime) {
+                isAnimating = true;
+                continue;
+            }
+            switchIfArrived(i);
+            if (mLeftStep[i] > 0) {
+                long lastFrameTime = Math.max(mLastFrameTime, startTime);
+                if (frameTimeMillis > lastFrameTime) {
+                    //开始时间或者上一帧之后没有经过时间时不推进
+                    float frames = (frameTimeMillis - lastFrameTime) / frameInterval;
+                    if (frames > ScrollColumn.MAX_CATCH_UP_FRAMES) {
+                        finish(i);
+                    } else {
+                        while (frames >= 1f && mLeftStep[i] > 0) {
+                            scroll(i, 1f);
+                            switchIfArrived(i);
+                            frames -= 1f;
+                        }
+                        if (frames > 0 && mLeftStep[i] > 0) {
+                            scroll(i, frames);
+                        }
+                    }
+                }
+            }
+            isAnimating |= mLeftStep[i] > 0;
+        }
+        mLastFrameTime = frameTimeMillis;
+        return isAnimating;
+    }
+
+    /** 推进指定标准帧数的滚动偏移量 */
+    private void scroll(int i, float frames) {
+        int direction = (mFlags[i] & FLAG_DOWN) != 0 ? -1 : 1;
+        if ((mFlags[i] & FLAG_NUMERIC) == FLAG_NUMERIC) {
+            int step = mDeltaNum[i] - mLeftStep[i];
+            float x = (float) (ScrollColumn.ACCELERATE_MAX_VALUE * step / mDeltaNum[i]);
+            mOffset[i] -= frames * direction * mOffsetRate[i] * (1 - mEasing.getInterpolation(x) + mAccelateOffset[i]);
+        } else {
+            mOffset[i] -= frames * direction * 0.15f * (1 - mEasing.getInterpolation(0) + 0.1);
+        }
+    }
+
+    /** 偏移量达到一个完整字形时切换到下一个字形 */
+    private void switchIfArrived(int i) {
+        if (mLeftStep[i] > 0 && Math.abs(mOffset[i]) >= 1) {
+            int direction = (mFlags[i] & FLAG_DOWN) != 0 ? -1 : 1;
+            mLeftStep[i]--;
+            mOffset[i] += direction;
+            if ((mFlags[i] & FLAG_TO_NUMERIC) != 0) {
+                mCurNum[i] = mNextNum[i];
+                mNextNum[i] = calNextNumber(i, mCurNum[i], direction);
+            } else {
+                mCurChars[i] = mTargetChars[i];
+                mCurNum[i] = -1;
+            }
+        }
+    }
+
+    /** 直接结束所有列的动画(显示目标字符) */
+    public void finish() {
+        for (int i = 0; i < mCount; i++) {
+            finish(i);
+        }
+    }
+
+    private void finish(int i) {
+        mLeftStep[i] = 0;
+        mOffset[i] = 0;
+        mCurChars[i] = mTargetChars[i];
+        mCurNum[i] = mAlphabet.indexOf(mTargetChars[i]);
+    }
+
+    /**
+     * 绘制当前帧
+     * 说明: 低位在右，每一列宽度相同。
+     *
+     * @param renderer : 绘制接口
+     * @param left : 最高位的左边位置
+     * @param columnWidth : 每一列的宽度
+     * @param height : 绘制区域高度
+     */
+    public void draw(NumberRenderer renderer, float left, float columnWidth, int height) {
+        draw(renderer, left, columnWidth, height, 0, mCount - 1);
+    }
+
+    /**
+     * 绘制当前帧的一段列
+     * 说明: 用于水平虚拟化，只绘制可见区域内的列，位置与绘制全部列时相同。
+     *
+     * @param firstColumn : 第一列(低位在前)
+     * @param lastColumn : 最后一列(包含)
+     */
+    public void draw(NumberRenderer renderer, float left, float columnWidth, int height, int firstColumn, int lastColumn) {
+        int last = Math.min(lastColumn, mCount - 1);
+        for (int i = Math.max(0, firstColumn); i <= last; i++) {
+            float centerX = left + (mCount - 1 - i) * columnWidth + columnWidth / 2;
+            float dy = mOffset[i] * height;
+            //当前字形
+            int y = height / 2;
+            if (mCurNum[i] >= 0) {
+                drawGlyph(renderer, mCurNum[i], centerX, y + dy);
+            } else {
+                drawChar(renderer, mCurChars, i, centerX, y + dy);
+            }
+            if (mLeftStep[i] > 0 || mOffset[i] != 0) {
+                //下一个字形
+                int direction = (mFlags[i] & FLAG_DOWN) != 0 ? -1 : 1;
+                y = (int) (height * (0.5f + direction));
+                if ((mFlags[i] & FLAG_TO_NUMERIC) != 0) {
+                    drawGlyph(renderer, mNextNum[i], centerX, y + dy);
+                } else {
+                    drawChar(renderer, mTargetChars, i, centerX, y + dy);
+                }
+            }
+        }
+    }
+
+    private void drawGlyph(NumberRenderer renderer, int number, float centerX, float centerY) {
+        renderer.drawText(mAlphabet.getGlyphs(), number, 1, centerX, centerY + mTextHeight / 2, false);
+    }
+
+    private void drawChar(NumberRenderer renderer, char[] chars, int i, float centerX, float centerY) {
+        char c = chars[i];
+        if (ScrollColumn.isEmptyChar(c)) {
+            return;
+        }
+        if (ScrollColumn.isNumeric(c) || mAlphabet.contains(c)) {
+            renderer.drawText(chars, i, 1, centerX, centerY + mTextHeight / 2, false);
+        } else {
+            int unitTextHeight = renderer.measureTextHeight(chars, i, 1, true);
+            renderer.drawText(chars, i, 1, centerX, centerY + unitTextHeight / 2 - ScrollColumn.UNIT_BASELINE_ADJUST, true);
+        }
+    }
+
+    /** 是否有列在播放动画 */
+    public boolean isAnimating() {
+        for (int i = 0; i < mCount; i++) {
+            if (mLeftStep[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 设置可滚动的字符表
+     * 说明: 下一次设置字符时生效。
+     */
+    public void setAlphabet(ScrollAlphabet alphabet) {
+        if (null == alphabet) {
+            throw new IllegalArgumentException("alphabet couldn't be null!");
+        }
+        mAlphabet = alphabet;
+    }
+
+    /** 设置数字滚动策略 */
+    public void setStrategy(ScrollNumber.Strategy strategy) {
+        mStrategy = strategy;
+    }
+
+    /** 设置动画模式 */
+    public void setScollAnimationMode(MultiScrollNumber.Mode mode) {
+        mAnimMode = mode;
+    }
+
+    /** 设置动画播放加速器 */
+    public void setEasing(ScrollColumn.Easing easing) {
+        mEasing = easing;
+    }
+
+    /** 设置动画时长缩放(0表示不播放动画) */
+    public void setDurationScale(float durationScale) {
+        mDurationScale = durationScale;
+    }
+
+    /** 设置数字Text字体高度 */
+    public void setTextHeight(int textHeight) {
+        mTextHeight = textHeight;
+    }
+
+    /** 当前字形索引(文字为-1) */
+    public int getCurNumber(int column) {
+        return mCurNum[column];
+    }
+
+    /** 当前的偏移量 */
+    public float getOffset(int column) {
+        return mOffset[column];
+    }
+
+    /** 剩余的滚动步长 */
+    public int getLeftStep(int column) {
+        return mLeftStep[column];
+    }
+
+    /** 全部滚动的步长 */
+    public int getDeltaNum(int column) {
+        return mDeltaNum[column];
+    }
+
+    private static char[] grow(char[] src, int capacity) {
+        char[] dst = new char[capacity];
+        System.arraycopy(src, 0, dst, 0, src.length);
+        return dst;
+    }
+
+    private static int[] grow(int[] src, int capacity) {
+        int[] dst = new int[capacity];
+        System.arraycopy(src, 0, dst, 0, src.length);
+        return dst;
+    }
+
+    private static float[] grow(float[] src, int capacity) {
+        float[] dst = new float[capacity];
+        System.arraycopy(src, 0, dst, 0, src.length);
+        return dst;
+    }
+
+    private static byte[] grow(byte[] src, int capacity) {
+        byte[] dst = new byte[capacity];
+        System.arraycopy(src, 0, dst, 0, src.length);
+        return dst;
+    }
+
+    private static long[] grow(long[] src, int capacity) {
+        long[] dst = new long[capacity];
+        System.arraycopy(src, 0, dst, 0, src.length);
+        return dst;
+    }
+}
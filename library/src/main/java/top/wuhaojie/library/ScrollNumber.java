@@ -2,20 +2,16 @@ package top.wuhaojie.library;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Rect;
 import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.util.TypedValue;
 import android.view.View;
-import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
 import android.view.animation.Interpolator;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Created by wuhaojie on 2016/7/15 11:36.
  * 1.1 周荣华 增加数字和文字的滚动。
@@ -28,32 +24,13 @@ public class ScrollNumber extends View {
         /** 自然模式(从小到大循环播放) */
         NATURAL,
         /** 数字大小模式(根据数字大小向上递增或者向下递减播放) */
-        BIGGER_OR_SMALLER
+        BIGGER_OR_SMALLER,
+        /** 最短路径模式(0~9循环，选择距离近的方向播放，例如9到0向上一步) */
+        SHORTEST
     }
 
     /** 总共的数字个数 0~9 */
     public static final int NUMBER_CHARS_TOTAL = 10;
-    /** 加速器采用 0.05~0.80 */
-    private static final float ACCELERATE_MAX_VALUE = 0.8f;
-    /** 加速器偏移点 0.24(10个1500ms) */
-    private static final float ACCELERATE_OFFSET_DEFAULT = 0.24f;
-    private static final float ACCELERATE_OFFSET_MAX = 0.45f;
-    private static final float ACCELERATE_OFFSET_MIN = 0.1f;
-    /**
-     * 移动变化百分比
-     * 说明: 最大不能超过1.0f。
-     */
-    private static final float SCROLL_RATE_DEFAULT = 0.15f;
-    /**
-     * 最大移动变化百分比
-     * 说明: 一个数字最少显示两次，因此百分比过超过0.5f
-     */
-    private static final float SCROLL_RATE_MAX = 0.5f;
-    /**
-     * 最小移动变化百分比
-     * 说明: 一个数字最多显示百次，因此百分比过超过0.1f
-     */
-    private static final float SCROLL_RATE_MIN = 0.1f;
     /** 播放时长(10个1500ms) */
     public static final long ONE_LOOP_DURATION = 1500L;
     /**
@@ -70,95 +47,56 @@ public class ScrollNumber extends View {
      * 上下文
      */
     private Context mContext;
-    /** 数字Text画笔 */
-    private Paint mPaint;
-    /** 文字Text画笔 */
-    private Paint mTextPaint;
-    /** 数字动画播放加速器 */
-    private Interpolator mInterpolator = new AccelerateDecelerateInterpolator();
+    /** 数字Text样式(可能与其他数字Text共用) */
+    private ScrollNumberStyle mStyle;
+    /** 当前的背景资源 */
+    private int mBackgroundResId;
+    /** 当前背景的共享状态(来自样式) */
+    private Drawable.ConstantState mBackgroundState;
+    /** 数字滚动引擎 */
+    private ScrollColumn mColumn = new ScrollColumn();
+    /** 基于Canvas的绘制 */
+    private CanvasNumberRenderer mRenderer;
     /** ScrollNumberCallback回调处理 */
     private MultiScrollNumber.IScrollNumberCallback callback;
-
-    /**
-     * 全部滚动的步长
-     */
-    private int mDeltaNum;
-    /** 当前播放步长 */
-    private int mLeftStep;
-    /**
-     * 基准动画动画播放轮数(一轮是 0~9)
-     * 说明: 例如 1-->2 如果增加一轮 1-->2-->3...->2
-     */
-    private int mAnimLoop = SCROLL_LOOP_DEFAULT;
-    /**
-     * 步长级别调整(即A-->B的基础上多播几轮)
-     * 说明: 例如 1-->2 如果增加一轮 1-->2-->3...->2
-     */
-    private int mAnimLoopAdjust = 0;
-    /**
-     * 当前数字值(空数字采用空白字符占位)
-     */
-    private int mCurNum;
-    /**
-     * 目标数字的值
-     */
-    private int mTargetNum;
-    /** 开始显示的文字值 */
-    private String mCurText;
-    /**
-     * 下一个数字Text的值
-     * 1)数字切换到数字 0-->1-->2-->3-->4-->5-->6-->7-->8-->9
-     * 2)数字(文字或空白字符)切换到文字 文字-->文字
-     * 3)文字(空白字符)切换到数字 文字-->0...->数字
-     * 4)数字切换到无(空白字符) 数字-->消失(父类移除当前节点)
-     * 5)文字切换到无(空白字符) 文字-->消失(父类移除移除当前节点)
-     */
-    private String mNextText;
-    /** 目标显示的文字值 */
-    private String mTargetText;
-    /** 数字Text向上滚动的偏移量 */
-    private float mOffset;
-    /** 数字Text向上移动的偏移量百分比 */
-    private float mOffsetRate = SCROLL_RATE_DEFAULT;
-    /**
-     * 加速度偏移值
-     * 说明: 10以内的步长变化进行加速度偏移值的微调
-     */
-    private float mAccelateOffset = ACCELERATE_OFFSET_DEFAULT;
-    /** 播放策略(默认为自然模式) */
-    private Strategy mStrategy = Strategy.NATURAL;
-    /** 数字动画播放模式 */
-    private MultiScrollNumber.Mode mAnimMode = MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST;
-    /** 变化方向参数(向上递增播放) */
-    private int mAnimDirection = 1;
+    /** 待播放的起始Text */
+    private char[] mPendingFrom = new char[1];
+    private int mPendingFromLength;
+    /** 待播放的目标Text */
+    private char[] mPendingTo = new char[1];
+    private int mPendingToLength;
+    /** 待播放的动画参数 */
+    private int mPendingAnimLoop;
+    private int mPendingAnimStepMax;
+    private long mPendingDuration;
+    /** 待播放的带符号步数(里程表模式) */
+    private int mPendingSteps;
+    /** 待播放的循环字形个数(0表示整个字符表) */
+    private int mPendingBase;
+    private boolean isPendingSteps;
+    /** 帧间隔下限(ms，0表示不限制帧率) */
+    private long mMinFrameInterval;
+    /** 上一次推进滚动偏移量的时间 */
+    private long mLastScrollTime;
+    /** 是否附加到窗口 */
+    private boolean isAttached;
+    /** 是否暂停(不可见或者未附加到窗口) */
+    private boolean isPaused;
+    /** 是否有未开始的动画 */
+    private boolean isStartPending;
+    /** 未开始的动画的开始时间 */
+    private long mPendingStartTime;
+
+    /** 测量时的内容宽度 */
+    private int mContentWidth;
+    /** 字符表中最宽字形的宽度(-1表示需要重新测量) */
+    private int mGlyphWidth = -1;
     /** Text字体X中心位置 */
     private int mTextCenterX;
     /** Text字体高度 */
     private int mTextHeight;
     /** 文字Text字体高度 */
     private int mUnitTextHeight;
-    /** 数字Text内容边框 */
-    private Rect mTextBounds = new Rect();
-    /** 文字Text内容边框 */
-    private Rect mUnitTextBounds = new Rect();
-    /** Text字体大小 */
-    private int mTextSize = sp2px(MultiScrollNumber.SCROLL_NUMBER_TEXT_SIZE);
-    /** 文字Text字体大小 */
-    private int mUnitTextSize = sp2px(MultiScrollNumber.SCROLL_NUMBER_TEXT_SIZE);
-    /** Text字体颜色 */
-    private int mTextColor = 0xFF000000;
-    /** 文字Text字体颜色 */
-    private int mUnitTextColor = 0xFF000000;
-    /** 数字Text字体Typeface */
-    private Typeface mTypeface;
-    /** 文字Text字体Typeface */
-    private Typeface mUnitTypeface;
-    /** 起始Text是否是数字 */
-    private boolean isFromNumeric;
-    /** 结束Text是否是数字 */
-    private boolean isToNumeric;
-    /** 是否需要移除当前项 */
-    private boolean isNeedRemove;
 
     public ScrollNumber(Context context) {
         this(context, null);
@@ -173,23 +111,13 @@ public class ScrollNumber extends View {
 
         mContext = context;
 
-        //初始化数字Text画笔
-        mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mPaint.setTextAlign(Paint.Align.CENTER);
-        mPaint.setTextSize(mTextSize);
-        mPaint.setColor(mTextColor);
-        //初始化文字Text画笔
-        mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mTextPaint.setTextAlign(Paint.Align.CENTER);
-        mTextPaint.setTextSize(mUnitTextSize);
-        mTextPaint.setColor(mUnitTextColor);
+        //初始化默认样式
+        mStyle = ScrollNumberStyle.obtain(sp2px(MultiScrollNumber.SCROLL_NUMBER_TEXT_SIZE),
+                sp2px(MultiScrollNumber.SCROLL_NUMBER_TEXT_SIZE), 0xFF000000, 0xFF000000);
+        mRenderer = new CanvasNumberRenderer(mStyle.getPaint(), mStyle.getUnitPaint());
 
-        if (mTypeface != null) mPaint.setTypeface(mTypeface);
-
-        //测量数字Text高度
+        //测量数字Text和文字Text高度
         measureTextHeight();
-        //测量文字Text高度
-        measureUnitTextHeight();
         //设置内边距
         this.setPadding(dp2px(2),dp2px(2),dp2px(2),dp2px(2));
     }
@@ -230,161 +158,241 @@ public class ScrollNumber extends View {
      * @param duration ：动画播放时长
      */
     public void setNumberChar(final String from, final String to, long delay, final int animLoop, final int animStepMax, final long duration) {
-        postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                calculateFromAndTargetNumber(from, to, animLoop, animStepMax, duration);
-            }
-        }, delay);
+        mPendingFrom = copyPendingText(from, mPendingFrom);
+        mPendingFromLength = null == from ? 0 : from.length();
+        mPendingTo = copyPendingText(to, mPendingTo);
+        mPendingToLength = null == to ? 0 : to.length();
+        postNumberChar(delay, animLoop, animStepMax, duration);
     }
 
     /**
-     * 计算开始和结束的数值
+     * 设置数字起始和目标字符
+     * 说明: 不分配内存，同一时间只保留最后一次设置的数字。
      *
-     * @param from : 开始数字Text
-     * @param to : 结束数字Text
+     * @param from : 开始数字字符
+     * @param to : 结束数字字符
+     * @param delay : 开始播放动画的延时
      * @param animLoop : 基准动画播放轮数
      * @param animStepMax : 预设最大动画播放总步长
      * @param duration ：动画播放时长
      */
-    private void calculateFromAndTargetNumber(String from, String to, int animLoop, int animStepMax, long duration) {
-        isNeedRemove = isEmptyChar(to);
-        mCurText = GetStringNoEmpty(from);
-        mTargetText = GetStringNoEmpty(to);
-        mCurNum = getNumberValue(mCurText);
-        mTargetNum = getNumberValue(mTargetText);
-        mAnimLoop = Math.min(SCROLL_LOOP_MAX, Math.max(animLoop, SCROLL_LOOP_DEFAULT));
-        //计算总共步长(默认播放一轮)
-        mDeltaNum = calDeltaNum(mCurText, mTargetText, animStepMax);
-        mLeftStep = mDeltaNum;
-        //计算数字播放移动百分比(不能超过100%)
-        calculateAccelateOffsetRate(mDeltaNum, duration);
-        //计算下一个数字Text
-        initNextNumberText(mCurText);
-        Log.d(TAG, "calculateFromAndTargetNumber CurText: " + mCurText + " NextText: " + mNextText + " TargetText: " + mTargetText + " mDeltaNum:" + mDeltaNum + " OffsetRate:" + mOffsetRate + " AccelateOffset:" + mAccelateOffset);
-        //刷新
-        invalidate();
+    public void setNumberChar(char from, char to, long delay, int animLoop, int animStepMax, long duration) {
+        mPendingFrom[0] = from;
+        mPendingFromLength = 1;
+        mPendingTo[0] = to;
+        mPendingToLength = 1;
+        postNumberChar(delay, animLoop, animStepMax, duration);
     }
 
-    /** 计算初始化的下一个字符 */
-    private void initNextNumberText(String mCurText) {
-        if (isToNumeric) {
-            //数字动画播放
-            int tmpNum = 0;
-            if(mAnimDirection > 0) {
-                //向上移动(进行数据补位)
-                tmpNum = (mTargetNum - mDeltaNum % NUMBER_CHARS_TOTAL + NUMBER_CHARS_TOTAL) % NUMBER_CHARS_TOTAL;
-                mNextText = String.valueOf(calNextNumber(tmpNum));
-            } else {
-                //向下移动(当前起始值递减)
-                tmpNum = mCurNum;
-                mNextText = String.valueOf(calNextNumber(tmpNum));;
-            }
-        } else {
-            //文字型动画播放(直接切换到目标数字Text)
-            mNextText = mTargetText;
-        }
+    /**
+     * 设置数字起始和目标字符以及滚动步数(里程表模式)
+     * 说明: 不分配内存，同一时间只保留最后一次设置的数字。
+     *
+     * @param from : 开始数字字符
+     * @param to : 结束数字字符
+     * @param steps : 带符号的步数(正数向上递增播放 负数向下递减播放)
+     * @param delay : 开始播放动画的延时
+     * @param duration ：动画播放时长
+     */
+    public void setNumberSteps(char from, char to, int steps, long delay, long duration) {
+        setNumberSteps(from, to, steps, delay, duration, 0);
     }
 
     /**
-     * 计算数字移动的百分比
-     * 说明：不能超过最大数字播放的移动百分比(10个数字1500ms播放完成)
+     * 设置数字起始和目标字符以及滚动步数，在字符表的前base个字形中循环(时钟模式)
+     *
+     * @param base : 循环的字形个数(0表示整个字符表)
      */
-    private void calculateAccelateOffsetRate(int totalStep, long duration) {
-        //采样的基点(10个数字播放时长1500ms，移动百分比0.15f)
-        int curTotal = totalStep <= 0 ? 1 : totalStep;
-        double accelerateOffset = ACCELERATE_OFFSET_DEFAULT;
-        double rate = SCROLL_RATE_DEFAULT;
-        double d1 = 0;
-        double d2 = 0;
-        //计算速度倍数(四舍五入)
-        int scale = 1;
-        if(MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST == mAnimMode
-                || MultiScrollNumber.Mode.START_FIRST_ARRIVAL_FIRST == mAnimMode
-                || MultiScrollNumber.Mode.START_ARRIVAL_SAME_TIME == mAnimMode) {
-            //需要保证数字到达顺序的动画模式(采用固定的加速度 等长时间播放 因此根据基准动画比较)
-            d1 = (double)ONE_LOOP_DURATION / NUMBER_CHARS_TOTAL;
-            d2 = duration / (mAnimLoop * NUMBER_CHARS_TOTAL);
-        } else {
-            //只滚一轮情况下
-            d1 = (double)ONE_LOOP_DURATION / NUMBER_CHARS_TOTAL;
-            d2 = duration / curTotal;
-        }
-        if(d1 >= d2) {
-            //比普通播放速度快
-            scale = (int) Math.round(d1 / d2);
-            rate = (float) (SCROLL_RATE_DEFAULT + (SCROLL_RATE_MAX - SCROLL_RATE_DEFAULT) / 10 * scale);
-            accelerateOffset = ACCELERATE_OFFSET_DEFAULT + ((ACCELERATE_OFFSET_MAX - ACCELERATE_OFFSET_DEFAULT) / 10 * scale);
-        } else {
-            scale = (int) Math.round(d2 / d1);
-            rate = (float) (SCROLL_RATE_DEFAULT - (SCROLL_RATE_DEFAULT - SCROLL_RATE_MIN) / 10 * scale);
-            accelerateOffset = ACCELERATE_OFFSET_DEFAULT + ((ACCELERATE_OFFSET_DEFAULT - ACCELERATE_OFFSET_MIN) / 10 * scale);
-        }
-        mOffsetRate = (float) Math.min(SCROLL_RATE_MAX, Math.max(SCROLL_RATE_MIN, rate));
-        mAccelateOffset = (float) Math.min(ACCELERATE_OFFSET_MAX, Math.max(ACCELERATE_OFFSET_MIN, accelerateOffset));
+    public void setNumberSteps(char from, char to, int steps, long delay, long duration, int base) {
+        mPendingBase = base;
+        mPendingFrom[0] = from;
+        mPendingFromLength = 1;
+        mPendingTo[0] = to;
+        mPendingToLength = 1;
+        mPendingSteps = steps;
+        postNumberChar(delay, SCROLL_LOOP_DEFAULT, 0, duration);
+        isPendingSteps = true;
     }
 
     /**
-     * 计算总共变化的步长
-     * 说明: 简单化。数字之间多步长动画，带文字的一个步长的动画。
+     * 设置起始和目标Text(多个字符的文字Text作为一个整体播放)
+     * 说明: 字符内容会被复制，调用方可以重用传入的数组。
      *
-     * @param from : 开始数字Text
-     * @param to : 结束数字Text
+     * @param from : 开始Text
+     * @param fromLength : 开始Text长度
+     * @param to : 结束Text
+     * @param toLength : 结束Text长度
+     * @param delay : 开始播放动画的延时
+     * @param animLoop : 基准动画播放轮数
      * @param animStepMax : 预设最大动画播放总步长
+     * @param duration ：动画播放时长
      */
-    private int calDeltaNum(String from, String to, int animStepMax) {
-        isFromNumeric = isNumeric(from);
-        isToNumeric = isNumeric(to);
-        int totalStep = 0;
-        if (isToNumeric) {
-            int startNum = getNumberValue(from);
-            int stopNum = getNumberValue(to);
-            //数字之间的动画需要播放的步长个数
-            if(Strategy.NATURAL == mStrategy) {
-                //自然模式
-                totalStep = (stopNum - startNum + NUMBER_CHARS_TOTAL) % NUMBER_CHARS_TOTAL + (mAnimLoop - 1) * NUMBER_CHARS_TOTAL;
-                totalStep = Math.max(totalStep, animStepMax);
-                mAnimDirection = 1;
-            } else {
-                //最短路径模式
-                totalStep = Math.abs(stopNum - startNum) + (mAnimLoop - 1) * NUMBER_CHARS_TOTAL;
-                totalStep = Math.max(totalStep, animStepMax);
-                //移动方向(1表示向上递增播放 -1表示向下递减播放)
-                mAnimDirection = stopNum >= startNum ? 1 : -1;
-            }
-        } else {
-            //文字的动画一个步长完成
-            totalStep = from.equals(to) ? 0 : 1;
-            mAnimDirection = 1;
+    public void setNumberText(char[] from, int fromLength, char[] to, int toLength, long delay,
+                              int animLoop, int animStepMax, long duration) {
+        mPendingFrom = copyPendingText(from, fromLength, mPendingFrom);
+        mPendingFromLength = fromLength;
+        mPendingTo = copyPendingText(to, toLength, mPendingTo);
+        mPendingToLength = toLength;
+        postNumberChar(delay, animLoop, animStepMax, duration);
+    }
+
+    /**
+     * 直接显示目标字符(不播放动画)
+     * 说明: 取消未开始和正在播放的动画，目标为空时通知父控件移除。
+     *
+     * @param to : 目标数字字符
+     */
+    public void setNumberCharImmediately(char to) {
+        mPendingTo[0] = to;
+        mPendingToLength = 1;
+        showPendingTextImmediately();
+    }
+
+    /**
+     * 直接显示目标Text(不播放动画)
+     *
+     * @param to : 目标Text
+     * @param toLength : 目标Text长度
+     */
+    public void setNumberTextImmediately(char[] to, int toLength) {
+        mPendingTo = copyPendingText(to, toLength, mPendingTo);
+        mPendingToLength = toLength;
+        showPendingTextImmediately();
+    }
+
+    /** 直接显示待播放的目标Text */
+    private void showPendingTextImmediately() {
+        isStartPending = false;
+        removeCallbacks(mStartRunnable);
+        removeCallbacks(mScrollRunnable);
+        mPendingFrom = copyPendingText(mPendingTo, mPendingToLength, mPendingFrom);
+        mPendingFromLength = mPendingToLength;
+        mColumn.setNumberChar(mPendingTo, 0, mPendingToLength, mPendingTo, 0, mPendingToLength,
+                SCROLL_LOOP_DEFAULT, 0, ONE_LOOP_DURATION);
+        checkContentWidth();
+        invalidate();
+        if (mColumn.isNeedRemove()) {
+            //不可见的数字Text不会绘制，直接通知移除
+            post(mAnimEndRunnable);
+        }
+    }
+
+    /** 延时开始播放动画(覆盖未开始的动画) */
+    private void postNumberChar(long delay, int animLoop, int animStepMax, long duration) {
+        mPendingAnimLoop = animLoop;
+        mPendingAnimStepMax = animStepMax;
+        mPendingDuration = duration;
+        isPendingSteps = false;
+        checkContentWidth();
+        mPendingStartTime = AnimationUtils.currentAnimationTimeMillis() + delay;
+        isStartPending = true;
+        removeCallbacks(mStartRunnable);
+        if (!isPaused) {
+            postDelayed(mStartRunnable, delay);
         }
-        return totalStep;
+    }
+
+    /** 复制待播放的Text */
+    private static char[] copyPendingText(String text, char[] dst) {
+        if (null == text) {
+            return dst;
+        }
+        if (dst.length < text.length()) {
+            dst = new char[text.length()];
+        }
+        text.getChars(0, text.length(), dst, 0);
+        return dst;
+    }
+
+    /** 复制待播放的Text */
+    private static char[] copyPendingText(char[] text, int length, char[] dst) {
+        if (dst.length < length) {
+            dst = new char[length];
+        }
+        if (text != dst) {
+            System.arraycopy(text, 0, dst, 0, length);
+        }
+        return dst;
     }
 
     /**
-     * 计算下一个数字Text
-     * 说明: 通过当前数字Text，计算下一个数字Text
+     * 计算内容宽度
+     * 说明: 数字和单个文字按照数字字形宽度，多个字符的文字Text按照实际宽度。
      */
-    private void calNextNumberText(String str) {
-        if (isToNumeric) {
-            //数字动画播放
-            mCurNum = getNumberValue(str);
-            mNextText = String.valueOf(calNextNumber(mCurNum));
+    private int calContentWidth() {
+        int width = getGlyphWidth();
+        width = Math.max(width, measureTextWidth(mPendingFrom, mPendingFromLength));
+        width = Math.max(width, measureTextWidth(mPendingTo, mPendingToLength));
+        return width;
+    }
+
+    private int measureTextWidth(char[] text, int length) {
+        if (length <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(mStyle.getUnitPaint().measureText(text, 0, length));
+    }
+
+    /** 字符表中最宽字形的宽度(只在字符表或者样式变化后测量一次) */
+    private int getGlyphWidth() {
+        if (mGlyphWidth < 0) {
+            mGlyphWidth = mStyle.getGlyphWidth(mColumn.getAlphabet());
+        }
+        return mGlyphWidth;
+    }
+
+    /** 多个字符的文字Text宽度变化时重新布局 */
+    private void checkContentWidth() {
+        if (mPendingFromLength <= 1 && mPendingToLength <= 1 && mContentWidth <= getGlyphWidth()) {
+            //只有单个字符(常见情况)
+            return;
+        }
+        if (calContentWidth() != mContentWidth) {
+            requestLayout();
+        }
+    }
+
+    /** 开始播放动画 */
+    private Runnable mStartRunnable = new Runnable() {
+        @Override
+        public void run() {
+            startPendingAnimation();
+        }
+    };
+
+    /** 开始播放未开始的动画 */
+    private void startPendingAnimation() {
+        isStartPending = false;
+        calculateFromAndTargetNumber();
+        //从预定的开始时间计算进度(开始时间已经过去时追赶)
+        mColumn.setStartTime(mPendingStartTime);
+    }
+
+    /**
+     * 计算开始和结束的数值
+     */
+    private void calculateFromAndTargetNumber() {
+        if (isPendingSteps) {
+            int base = mPendingBase > 0 ? mPendingBase : mColumn.getAlphabet().size();
+            mColumn.setNumberSteps(mPendingFrom[0], mPendingTo[0], mPendingSteps, mPendingDuration, base);
         } else {
-            //文字型动画播放(直接切换到目标数字Text)
-            mNextText = mTargetText;
+            mColumn.setNumberChar(mPendingFrom, 0, mPendingFromLength, mPendingTo, 0, mPendingToLength,
+                    mPendingAnimLoop, mPendingAnimStepMax, mPendingDuration);
         }
+        //刷新
+        invalidate();
     }
 
     /** 设置动画模式 */
     public void setScollAnimationMode(MultiScrollNumber.Mode mode) {
-        this.mAnimMode = mode;
-        calStrategy();
+        mColumn.setScollAnimationMode(mode);
+        calStrategy(mode);
     }
 
     /** 计算当前模式的数字播放策略 */
-    private ScrollNumber.Strategy calStrategy() {
+    private ScrollNumber.Strategy calStrategy(MultiScrollNumber.Mode mode) {
         ScrollNumber.Strategy strategy = ScrollNumber.Strategy.NATURAL;
-        if(MultiScrollNumber.Mode.SCOREBOARD == mAnimMode) {
+        if(MultiScrollNumber.Mode.SCOREBOARD == mode) {
             //如果记分牌模式动画播放采用最短距离策略
             strategy = ScrollNumber.Strategy.BIGGER_OR_SMALLER;
         }
@@ -393,79 +401,127 @@ public class ScrollNumber extends View {
 
     /** 设置数字滚动策略 */
     public void setStrategy(Strategy strategy) {
-        this.mStrategy = strategy;
+        mColumn.setStrategy(strategy);
     }
 
-    /** 设置数字 */
-    public void setTextSize(int textSize) {
-        this.mTextSize = sp2px(textSize);
-        mPaint.setTextSize(mTextSize);
-        measureTextHeight();
+    /**
+     * 设置可滚动的字符表
+     * 说明: 字符表中的字符循环滚动，下一次设置数字Text时生效。
+     */
+    public void setAlphabet(ScrollAlphabet alphabet) {
+        if (alphabet == mColumn.getAlphabet()) {
+            return;
+        }
+        mColumn.setAlphabet(alphabet);
+        mGlyphWidth = -1;
         requestLayout();
+    }
+
+    /** 可滚动的字符表 */
+    public ScrollAlphabet getAlphabet() {
+        return mColumn.getAlphabet();
+    }
+
+    /**
+     * 设置样式
+     * 说明: 只保存样式的引用，字形尺寸没有变化时不重新布局。
+     */
+    public void setStyle(ScrollNumberStyle style) {
+        if (null == style) throw new IllegalArgumentException("style couldn't be null");
+        if (style == mStyle) {
+            return;
+        }
+        boolean isSameMetrics = mStyle.hasSameMetrics(style);
+        mStyle = style;
+        if (!isSameMetrics) {
+            mGlyphWidth = -1;
+        }
+        mRenderer.setPaints(style.getPaint(), style.getUnitPaint());
+        measureTextHeight();
+        if (!isSameMetrics) {
+            requestLayout();
+        }
         invalidate();
     }
 
+    /** 获取样式 */
+    public ScrollNumberStyle getStyle() {
+        return mStyle;
+    }
+
+    /** 设置数字 */
+    public void setTextSize(int textSize) {
+        setStyle(mStyle.withTextSize(sp2px(textSize)));
+    }
+
     /** 设置数字单位字体大小 */
     public void setUnitTextSize(int unitTextSize) {
         //设置文字Text字体大小和画笔
-        this.mUnitTextSize = sp2px(unitTextSize);
-        mTextPaint.setTextSize(mUnitTextSize);
-        requestLayout();
-        invalidate();
+        setStyle(mStyle.withUnitTextSize(sp2px(unitTextSize)));
     }
 
     /** 设置数字字体 */
     public void setTextFont(String fileName) {
-        if (TextUtils.isEmpty(fileName))
-            throw new IllegalArgumentException("please check file name end with '.ttf' or '.otf'");
-        mTypeface = Typeface.createFromAsset(mContext.getAssets(), fileName);
-        if (mTypeface == null) throw new RuntimeException("please check your font!");
-        mPaint.setTypeface(mTypeface);
-        requestLayout();
-        invalidate();
+        setStyle(mStyle.withTypeface(loadTypeface(fileName)));
     }
 
     public void setUnitTextFont(String fileName) {
+        setStyle(mStyle.withUnitTypeface(loadTypeface(fileName)));
+    }
+
+    /** 加载字体 */
+    private Typeface loadTypeface(String fileName) {
         if (TextUtils.isEmpty(fileName))
             throw new IllegalArgumentException("please check file name end with '.ttf' or '.otf'");
-        mUnitTypeface = Typeface.createFromAsset(mContext.getAssets(), fileName);
-        if (mUnitTypeface == null) throw new RuntimeException("please check your font!");
-        mTextPaint.setTypeface(mUnitTypeface);
-        requestLayout();
-        invalidate();
+        Typeface typeface = ScrollNumberStyle.getTypeface(mContext, fileName);
+        if (typeface == null) throw new RuntimeException("please check your font!");
+        return typeface;
     }
 
     /** 设置数字Text字体颜色 */
     public void setTextColor(int textColor) {
-        this.mTextColor = textColor;
-        mPaint.setColor(textColor);
-        invalidate();
+        setStyle(mStyle.withTextColor(textColor));
     }
 
     /** 设置文字Text字体颜色 */
     public void setUnitTextColor(int textColor) {
-        this.mUnitTextColor = textColor;
-        mTextPaint.setColor(textColor);
-        invalidate();
+        setStyle(mStyle.withUnitTextColor(textColor));
     }
 
-    /** 设置动画播放加速器 */
-    public void setInterpolator(Interpolator interpolator) {
-        mInterpolator = interpolator;
+    /**
+     * 设置背景资源
+     * 说明: 背景资源没有变化时不重新设置。样式中的背景只解析一次，从共享的状态创建Drawable。
+     */
+    @SuppressWarnings("deprecation")
+    public void updateBackgroundResource(int resId) {
+        Drawable.ConstantState state = mStyle.getBackgroundState(getResources(), resId);
+        if (resId == mBackgroundResId && state == mBackgroundState) {
+            return;
+        }
+        mBackgroundResId = resId;
+        mBackgroundState = state;
+        if (null != state) {
+            setBackgroundDrawable(state.newDrawable(getResources()));
+        } else {
+            setBackgroundResource(resId);
+        }
     }
 
-    /** 计算字体高度 */
-    private void measureTextHeight() {
-        String str = TextUtils.isEmpty(mCurText) ? "0" : mCurText;
-        mPaint.getTextBounds(str, 0, 1, mTextBounds);
-        mTextHeight = mTextBounds.height();
+    /** 设置动画播放加速器 */
+    public void setInterpolator(final Interpolator interpolator) {
+        mColumn.setEasing(new ScrollColumn.Easing() {
+            @Override
+            public float getInterpolation(float input) {
+                return interpolator.getInterpolation(input);
+            }
+        });
     }
 
-    /** 测量文字Text高度 */
-    private void measureUnitTextHeight() {
-        String str = isEmptyChar(mCurText) || isNumeric(mCurText) ? "万" : mCurText;
-        mTextPaint.getTextBounds(str, 0, 1, mUnitTextBounds);
-        mUnitTextHeight = mUnitTextBounds.height();
+    /** 计算字体高度(字形尺寸由样式缓存) */
+    private void measureTextHeight() {
+        mTextHeight = mStyle.getTextHeight();
+        mUnitTextHeight = mStyle.getUnitTextHeight();
+        mColumn.setTextHeight(mTextHeight);
     }
 
     @Override
@@ -475,7 +531,9 @@ public class ScrollNumber extends View {
         setMeasuredDimension(width, height);
 
         mTextCenterX = getMeasuredWidth() / 2;
-        Log.d(TAG, "onMeasure TextCenterX: " + mTextCenterX + " height:" + getMeasuredHeight() + " TextHeight:" + height + "--getMeasuredWidth()=" + getMeasuredWidth() + "--getPaddingLeft()=" + getPaddingLeft());
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "onMeasure TextCenterX: " + mTextCenterX + " height:" + getMeasuredHeight() + " TextHeight:" + height + "--getMeasuredWidth()=" + getMeasuredWidth() + "--getPaddingLeft()=" + getPaddingLeft());
+        }
     }
 
     private int measureHeight(int measureSpec) {
@@ -488,8 +546,7 @@ public class ScrollNumber extends View {
                 break;
             case MeasureSpec.AT_MOST:
             case MeasureSpec.UNSPECIFIED:
-                mPaint.getTextBounds("0", 0, 1, mTextBounds);
-                result = mTextBounds.height();
+                result = mStyle.getTextHeight();
                 break;
         }
         result = mode == MeasureSpec.AT_MOST ? Math.min(result, val) : result;
@@ -506,8 +563,8 @@ public class ScrollNumber extends View {
                 break;
             case MeasureSpec.AT_MOST:
             case MeasureSpec.UNSPECIFIED:
-                mPaint.getTextBounds("0", 0, 1, mTextBounds);
-                result = mTextBounds.width();
+                mContentWidth = calContentWidth();
+                result = mContentWidth;
                 break;
         }
         result = mode == MeasureSpec.AT_MOST ? Math.min(result, val) : result;
@@ -516,43 +573,23 @@ public class ScrollNumber extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
-        if(TextUtils.isEmpty(mCurText) || TextUtils.isEmpty(mTargetText)) {
+        if(!mColumn.hasText()) {
             return;
         }
-        if (mLeftStep > 0) {
-            //需要播放文字或者数字未播放完成
-            postDelayed(mScrollRunnable, 0);
-            if (Math.abs(mOffset) >= 1) {
-                //剩余步长减少1
-                mLeftStep--;
-                //表示当前的数字Text已经移出NextText数字完全进入
-                mOffset += mAnimDirection;
-                Log.d(TAG, "onDraw CurText: " + mCurText + " NextText: " + mNextText + " leftStep: " + mLeftStep + " Offset:" + mOffset);
-                //当前数字Text切换为下一个数字Text
-                mCurText = mNextText;
-                //计算下一轮的NextText
-                calNextNumberText(mCurText);
+        boolean isScrolling = mColumn.nextFrame();
+        //暂停时只绘制当前状态，恢复后再推进
+        if (!isPaused) {
+            if (isScrolling) {
+                //需要播放文字或者数字未播放完成(限制帧率时延后推进)
+                postDelayed(mScrollRunnable, calFrameDelay());
+            } else {
+                //动画已经播放完成 父控件移除当前的数字Text
+                postDelayed(mAnimEndRunnable, 0);
             }
-            canvas.translate(0, mOffset * getMeasuredHeight());
-            drawSelf(canvas);
-            drawNext(canvas);
-        } else {
-            //动画已经播放完成
-            mOffset = 0;
-            canvas.translate(0, mOffset * getMeasuredHeight());
-            drawSelf(canvas);
-            //父控件移除当前的数字Text
-            postDelayed(mAnimEndRunnable, 0);
         }
-        Log.d(TAG, "onDraw mOffset: " + mOffset * getMeasuredHeight());
-    }
-
-    /** 计算当前数字的下一个数值 */
-    private int calNextNumber(int number) {
-        int nextNum = 0;
-        number = number == -1 ? 9 : number;
-        nextNum = (number + mAnimDirection + NUMBER_CHARS_TOTAL) % NUMBER_CHARS_TOTAL;
-        return nextNum;
+        mRenderer.setCanvas(canvas);
+        mColumn.draw(mRenderer, mTextCenterX, getMeasuredHeight());
+        mRenderer.setCanvas(null);
     }
 
     /**
@@ -562,68 +599,153 @@ public class ScrollNumber extends View {
     private Runnable mScrollRunnable = new Runnable() {
         @Override
         public void run() {
-            if(isFromNumeric && isToNumeric) {
-                //根据数字的位置计算偏移量
-                int step = (mDeltaNum - mLeftStep);
-                float x = (float) (ACCELERATE_MAX_VALUE * step / mDeltaNum);
-                mOffset -= mAnimDirection * mOffsetRate * (1 - mInterpolator.getInterpolation(x) + mAccelateOffset);
-                Log.d(TAG, "Runnable ACCELERATE: " + x + " mOffset: " + mOffset);
-            } else {
-                mOffset -= mAnimDirection * 0.15f * (1 - mInterpolator.getInterpolation(0) + 0.1);
-            }
-            invalidate();
+            scrollFrame(AnimationUtils.currentAnimationTimeMillis());
         }
     };
 
-    /** 动画播放完成 */
-    private Runnable mAnimEndRunnable = new Runnable() {
-        @Override
-        public void run() {
-            if(null != callback) {
-                //如果设置了ScrollNumber的回调处理函数移除当前子项
-                callback.animEnd(ScrollNumber.this);
-            }
-        }
-    };
+    /** 按照帧时间推进滚动偏移量并刷新 */
+    private void scrollFrame(long frameTime) {
+        mLastScrollTime = frameTime;
+        mColumn.scrollTo(frameTime);
+        invalidate();
+    }
 
-    /** 绘制下一个数字Text */
-    private void drawNext(Canvas canvas) {
-        int y = (int) (getMeasuredHeight() * (0.5f + mAnimDirection));
-        drawTextWithPaint(canvas, mNextText, mTextCenterX, y);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        isAttached = true;
+        updateRunningState();
     }
 
-    /** 绘制当前的数字Text */
-    private void drawSelf(Canvas canvas) {
-        int y = getMeasuredHeight() / 2;
-        drawTextWithPaint(canvas, mCurText, mTextCenterX, y);
+    @Override
+    protected void onDetachedFromWindow() {
+        isAttached = false;
+        updateRunningState();
+        super.onDetachedFromWindow();
     }
 
-    private void drawTextWithPaint(Canvas canvas, String text, int centerX, int centerY) {
-        Paint paint = getTextPaint(text);
-        if(TextUtils.isEmpty(text) || isNumeric(text)) {
-            String numberStr = text;
-            if(TextUtils.isEmpty(numberStr)) {
-                //文字Text采用空白字符填充
-                numberStr = " ";
-            }
-            canvas.drawText(numberStr, centerX, centerY + mTextHeight / 2,
-                    paint);
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateRunningState();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateRunningState();
+    }
+
+    /** 根据是否可见暂停或者恢复动画 */
+    private void updateRunningState() {
+        if (isAttached && isShown() && getWindowVisibility() == VISIBLE) {
+            resume();
         } else {
-            paint.getTextBounds(text, 0, 1, mUnitTextBounds);
-            mUnitTextHeight = mUnitTextBounds.height();
-            canvas.drawText(text, centerX, centerY + mUnitTextHeight / 2 - 2,
-                    paint);
+            pause();
         }
     }
 
-    /** 获取数字Text画笔 */
-    private Paint getTextPaint(String text) {
-        if(isNumeric(text)) {
-            return mPaint;
+    /**
+     * 暂停动画
+     * 说明: 移除所有等待执行的任务，不再持有当前控件。
+     */
+    private void pause() {
+        if (isPaused) {
+            return;
         }
-        return mTextPaint;
+        isPaused = true;
+        removeCallbacks(mStartRunnable);
+        removeCallbacks(mScrollRunnable);
+        removeCallbacks(mAnimEndRunnable);
+    }
+
+    /**
+     * 恢复动画
+     * 说明: 按照暂停期间经过的时间继续播放，已经播放完成的动画直接显示目标值。
+     */
+    private void resume() {
+        if (!isPaused) {
+            return;
+        }
+        isPaused = false;
+        if (isStartPending) {
+            long remaining = mPendingStartTime - AnimationUtils.currentAnimationTimeMillis();
+            if (remaining > 0) {
+                postDelayed(mStartRunnable, remaining);
+                return;
+            }
+            //暂停期间已经到了开始时间
+            startPendingAnimation();
+        }
+        invalidate();
     }
 
+    /**
+     * 停止Handler调度，之后由调用方通过doFrame逐帧推进(帧预算测试使用)
+     */
+    void pauseFrames() {
+        pause();
+    }
+
+    /**
+     * 按照指定时间执行Handler在这一帧会执行的任务(帧预算测试使用)
+     * 说明: 与mStartRunnable和mScrollRunnable执行相同的方法，只是时间由调用方指定。
+     *
+     * @param frameTime : 当前帧的时间
+     * @return 是否还在播放动画
+     */
+    boolean doFrame(long frameTime) {
+        if (isStartPending && frameTime >= mPendingStartTime) {
+            startPendingAnimation();
+        } else if (mColumn.isAnimating()) {
+            scrollFrame(frameTime);
+        }
+        return isAnimating();
+    }
+
+    /** 是否正在播放动画(包括等待开始的动画) */
+    public boolean isAnimating() {
+        return isStartPending || mColumn.isAnimating();
+    }
+
+    /** 计算下一帧的延时(帧率上限) */
+    private long calFrameDelay() {
+        if (mMinFrameInterval <= 0) {
+            return 0;
+        }
+        long elapsed = AnimationUtils.currentAnimationTimeMillis() - mLastScrollTime;
+        return Math.max(0, mMinFrameInterval - elapsed);
+    }
+
+    /**
+     * 设置动画帧率上限
+     * 说明: 动画按时间播放，降低帧率只减少绘制次数，不会拉长动画时长。
+     *
+     * @param fps : 帧率上限(小于等于0表示不限制)
+     */
+    public void setMaxFrameRate(int fps) {
+        mMinFrameInterval = fps > 0 ? 1000L / fps : 0;
+    }
+
+    /**
+     * 设置动画时长缩放
+     * 说明: 与系统的动画时长缩放设置一致，0表示不播放动画。
+     */
+    public void setDurationScale(float durationScale) {
+        mColumn.setDurationScale(durationScale);
+    }
+
+    /** 动画播放完成 */
+    private Runnable mAnimEndRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if(null != callback) {
+                //如果设置了ScrollNumber的回调处理函数移除当前子项
+                callback.animEnd(ScrollNumber.this);
+            }
+        }
+    };
+
     private int dp2px(float dpVal) {
         return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
                 dpVal, getResources().getDisplayMetrics());
@@ -641,51 +763,24 @@ public class ScrollNumber extends View {
      * @return
      */
     public static boolean isNumeric(String str) {
-        //-?[0-9]+.?[0-9]+  //正负整数
-        Pattern pattern = Pattern.compile("[0-9]*"); //正整数
-        Matcher isNum = pattern.matcher(str);
-        if (!isNum.matches()) {
-            return false;
-        }
-        return true;
+        return ScrollColumn.isNumeric(str);
     }
 
     /** 获取数字的值 */
     public int getNumberValue(String str) {
-        int number = 0;
-        if(isNumeric(str)) {
-            try {
-                number = Integer.parseInt(str);
-            }catch(Exception e) {
-                e.printStackTrace();
-            }
-        } else {
-            //文字默认为-1
-            number = -1;
-        }
-        return number;
+        return ScrollColumn.getNumberValue(str);
     }
 
     /** 是否是空字符串 */
     public static boolean isEmptyChar(String value) {
-        boolean isEmpty = false;
-        if(TextUtils.isEmpty(value) || value.equals(" ")) {
-            isEmpty = true;
-        }
-        return isEmpty;
+        return ScrollColumn.isEmptyChar(value);
     }
 
     /**
      * 获取字符串值（空值转化为""）
      */
     public String GetStringNoEmpty(String value) {
-        StringBuilder builder = new StringBuilder();
-        if(!TextUtils.isEmpty(value)) {
-            builder.append(value);
-        } else {
-            builder.append(" ");
-        }
-        return builder.toString();
+        return ScrollColumn.getStringNoEmpty(value);
     }
 
     /** 设置ScrollNumber的回调处理函数 */
@@ -695,6 +790,6 @@ public class ScrollNumber extends View {
 
     /** 是否需要移除当前项(目标对应项为空数字) */
     public boolean isNeedRemove() {
-        return isNeedRemove;
+        return mColumn.isNeedRemove();
     }
 }
@@ -0,0 +1,241 @@
+package top.wuhaojie.library;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+
+/**
+ * 离屏数字Text渲染(桌面小部件和通知)
+ * 说明: RemoteViews中不能使用自定义控件，按照MultiScrollNumber紧凑模式的规则(ScrollColumnTable)
+ * 推进和绘制，把当前数字或者一次动画中的某一帧绘制到Bitmap中，通过setImageViewBitmap显示。
+ * 不依赖主线程和Context，可以在后台线程中使用，但是不是线程安全的，一个实例只能在一个线程中使用。
+ * 轮流绘制到两个Bitmap缓冲区(RemoteViews发送前还持有上一次的Bitmap)，尺寸不变时不再创建Bitmap。
+ */
+public final class ScrollNumberBitmapRenderer {
+    /** Bitmap缓冲区个数 */
+    private static final int BUFFER_COUNT = 2;
+
+    /** 滚动引擎 */
+    private final ScrollColumnTable mTable = new ScrollColumnTable();
+    /** 数字对齐 */
+    private final NumberAligner mAligner = new NumberAligner();
+    /** 数字Text画笔(从样式复制，不与控件共用) */
+    private final Paint mPaint;
+    /** 文字Text画笔 */
+    private final Paint mUnitPaint;
+    private final CanvasNumberRenderer mRenderer;
+    private final Canvas mCanvas = new Canvas();
+    /** Bitmap缓冲区 */
+    private final Bitmap[] mBuffers = new Bitmap[BUFFER_COUNT];
+    /** 下一次绘制的缓冲区 */
+    private int mBufferIndex;
+
+    /** 可滚动的字符表 */
+    private ScrollAlphabet mAlphabet = ScrollAlphabet.DECIMAL;
+    /** 数字动画播放模式 */
+    private MultiScrollNumber.Mode mAnimMode = MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST;
+    /** 数字滚动策略 */
+    private ScrollNumber.Strategy mStrategy = ScrollNumber.Strategy.NATURAL;
+    /** 数字字形的宽度和高度 */
+    private int mTextWidth;
+    private int mTextHeight;
+    /** 每一列的宽度(不包括间距) */
+    private int mColumnWidth;
+    /** 列间距(px) */
+    private int mColumnSpacing;
+    /** 上下内边距(px) */
+    private int mVerticalPadding;
+    /** 背景颜色(默认透明) */
+    private int mBackgroundColor = Color.TRANSPARENT;
+    /** 渲染时间线上最近一帧的时间(只增不减) */
+    private long mFrameTime;
+    /** 当前动画在渲染时间线上的开始时间 */
+    private long mAnimStartTime;
+
+    public ScrollNumberBitmapRenderer(ScrollNumberStyle style) {
+        mPaint = new Paint();
+        mUnitPaint = new Paint();
+        mRenderer = new CanvasNumberRenderer(mPaint, mUnitPaint);
+        setStyle(style);
+    }
+
+    /** 设置样式(不使用背景资源) */
+    public void setStyle(ScrollNumberStyle style) {
+        if (null == style) {
+            throw new IllegalArgumentException("style couldn't be null!");
+        }
+        mPaint.set(style.getPaint());
+        mUnitPaint.set(style.getUnitPaint());
+        Rect bounds = new Rect();
+        mPaint.getTextBounds("0", 0, 1, bounds);
+        mTextWidth = bounds.width();
+        mTextHeight = bounds.height();
+        mTable.setTextHeight(mTextHeight);
+        measureColumnWidth();
+    }
+
+    /**
+     * 设置可滚动的字符表
+     * 说明: 下一次设置数字时生效。
+     */
+    public void setAlphabet(ScrollAlphabet alphabet) {
+        if (null == alphabet) {
+            throw new IllegalArgumentException("alphabet couldn't be null!");
+        }
+        mAlphabet = alphabet;
+        mAligner.setAlphabet(alphabet);
+        mTable.setAlphabet(alphabet);
+    }
+
+    /** 设置数字动画播放模式 */
+    public void setScollAnimationMode(MultiScrollNumber.Mode mode) {
+        mAnimMode = mode;
+        mTable.setScollAnimationMode(mode);
+    }
+
+    /** 设置数字滚动策略 */
+    public void setStrategy(ScrollNumber.Strategy strategy) {
+        mStrategy = strategy;
+        mTable.setStrategy(strategy);
+    }
+
+    /** 设置列间距(px) */
+    public void setColumnSpacing(int columnSpacing) {
+        mColumnSpacing = columnSpacing;
+    }
+
+    /** 设置上下内边距(px) */
+    public void setVerticalPadding(int verticalPadding) {
+        mVerticalPadding = verticalPadding;
+    }
+
+    /** 设置背景颜色 */
+    public void setBackgroundColor(int backgroundColor) {
+        mBackgroundColor = backgroundColor;
+    }
+
+    /** 直接显示数字(不播放动画) */
+    public void setNumber(String number) {
+        setNumberWithAnimation(number, number, false);
+    }
+
+    /**
+     * 设置动画的起始数字和目标数字
+     * 说明: 动画从下一次renderFrame的0ms开始，按照MultiScrollNumber的模式和延时逐位启动。
+     */
+    public void setNumberWithAnimation(String from, String to) {
+        setNumberWithAnimation(from, to, true);
+    }
+
+    private void setNumberWithAnimation(String from, String to, boolean isAnimation) {
+        mAligner.align(from, to);
+        char[] fromChars = mAligner.getFrom();
+        char[] toChars = mAligner.getTo();
+        int length = mAligner.getLength();
+        int animStartPosition = MultiScrollNumber.initAnimStartPosition(mAnimMode, fromChars, toChars, length);
+        mTable.setColumnCount(length);
+        mAnimStartTime = mFrameTime;
+        for (int i = 0; i < length; i++) {
+            //列索引低位在前
+            char fromChar = fromChars[length - 1 - i];
+            char toChar = toChars[length - 1 - i];
+            if (!isAnimation) {
+                mTable.setNumberCharImmediately(i, toChar);
+                continue;
+            }
+            long startTime = mAnimStartTime + MultiScrollNumber.calAnimDelay(mAnimMode, animStartPosition, true, i,
+                    MultiScrollNumber.NUMBER_ANIM_DELAY);
+            int animStep = MultiScrollNumber.calAnimStepMax(mAnimMode, mStrategy, mAlphabet.size(), animStartPosition, true, i);
+            mTable.setNumberChar(i, fromChar, toChar, startTime, ScrollNumber.SCROLL_LOOP_DEFAULT, animStep,
+                    MultiScrollNumber.NUMBER_ANIM_DURATION);
+        }
+        measureColumnWidth();
+    }
+
+    /** 按照最宽的字形(包括当前的文字字符)计算每一列的宽度 */
+    private void measureColumnWidth() {
+        int width = mTextWidth;
+        char[] glyphs = mAlphabet.getGlyphs();
+        for (int i = 0; i < glyphs.length; i++) {
+            width = Math.max(width, (int) Math.ceil(mPaint.measureText(glyphs, i, 1)));
+        }
+        char[] toChars = mAligner.getTo();
+        for (int i = 0; i < mAligner.getLength(); i++) {
+            char c = toChars[i];
+            if (!mAlphabet.contains(c) && !ScrollColumn.isEmptyChar(c)) {
+                width = Math.max(width, (int) Math.ceil(mUnitPaint.measureText(toChars, i, 1)));
+            }
+        }
+        mColumnWidth = width;
+    }
+
+    /** Bitmap宽度 */
+    public int getWidth() {
+        return Math.max(1, mTable.getColumnCount() * (mColumnWidth + mColumnSpacing));
+    }
+
+    /** Bitmap高度 */
+    public int getHeight() {
+        return mTextHeight + mVerticalPadding * 2;
+    }
+
+    /** 是否还有列在播放动画 */
+    public boolean isAnimating() {
+        return mTable.isAnimating();
+    }
+
+    /**
+     * 推进到动画开始后的指定时间并绘制
+     * 说明: 时间只能增加，例如每隔16ms渲染一帧生成帧序列，或者每秒渲染一次只显示结束状态。
+     *
+     * @param elapsed : 动画开始后经过的时间(ms)
+     * @return 绘制结果(缓冲区轮流使用，调用方不能回收，下下次渲染时会被覆盖)
+     */
+    public Bitmap renderFrame(long elapsed) {
+        long frameTime = mAnimStartTime + elapsed;
+        if (frameTime < mFrameTime) {
+            throw new IllegalArgumentException("frame time couldn't go backwards!");
+        }
+        mFrameTime = frameTime;
+        mTable.doFrame(frameTime);
+        return render();
+    }
+
+    /** 直接结束动画并绘制目标数字 */
+    public Bitmap renderFinal() {
+        mTable.finish();
+        return render();
+    }
+
+    private Bitmap render() {
+        int width = getWidth();
+        int height = getHeight();
+        Bitmap bitmap = mBuffers[mBufferIndex];
+        if (null == bitmap || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            //尺寸变化时旧的Bitmap可能还在RemoteViews中，不能回收
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mBuffers[mBufferIndex] = bitmap;
+        }
+        mBufferIndex = (mBufferIndex + 1) % BUFFER_COUNT;
+        mCanvas.setBitmap(bitmap);
+        mCanvas.drawColor(mBackgroundColor, PorterDuff.Mode.SRC);
+        mRenderer.setCanvas(mCanvas);
+        mTable.draw(mRenderer, 0, mColumnWidth + mColumnSpacing, height);
+        mRenderer.setCanvas(null);
+        mCanvas.setBitmap(null);
+        return bitmap;
+    }
+
+    /** 回收Bitmap缓冲区(调用方保证已经不再显示) */
+    public void release() {
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            if (null != mBuffers[i]) {
+                mBuffers[i].recycle();
+                mBuffers[i] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package top.wuhaojie.library;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 数字Text样式(不可变)
+ * 说明: 保存字体大小、颜色、字体和背景资源，以及由此生成的画笔和字形尺寸。
+ * 所有数字Text直接引用同一个样式对象，修改样式时生成新的样式对象。
+ * 相同内容的样式只保留一个，多个控件使用相同样式时共用一套画笔和背景。
+ * 画笔和字形尺寸在构造时生成，之后只读，可以在其他线程(例如离屏渲染)中使用。
+ * 背景资源第一次使用时解析一次，每个数字Text从共享的状态创建自己的Drawable。
+ */
+public final class ScrollNumberStyle {
+    /** 缓存的样式个数 */
+    private static final int STYLE_CACHE_SIZE = 32;
+    /** 相同内容的样式缓存(按照原始参数查找，命中时不创建画笔) */
+    private static final LruCache<Key, ScrollNumberStyle> sStyles = new LruCache<Key, ScrollNumberStyle>(STYLE_CACHE_SIZE);
+    /** 字体缓存(字体文件名-->字体) */
+    private static final Map<String, Typeface> sTypefaces = new HashMap<String, Typeface>();
+
+    /** 数字Text字体大小(px) */
+    private final float mTextSize;
+    /** 文字Text字体大小(px) */
+    private final float mUnitTextSize;
+    /** 数字Text字体颜色 */
+    private final int mTextColor;
+    /** 文字Text字体颜色 */
+    private final int mUnitTextColor;
+    /** 数字Text字体 */
+    private final Typeface mTypeface;
+    /** 文字Text字体 */
+    private final Typeface mUnitTypeface;
+    /** 数字Text背景资源 */
+    private final int mNumberBackgroundResId;
+    /** 文字Text背景资源 */
+    private final int mUnitBackgroundResId;
+
+    /** 样式参数 */
+    private final Key mKey;
+    /** 数字Text画笔 */
+    private final Paint mPaint;
+    /** 文字Text画笔 */
+    private final Paint mUnitPaint;
+    /** 数字字形的宽度和高度 */
+    private final int mTextWidth;
+    private final int mTextHeight;
+    /** 文字字形的高度 */
+    private final int mUnitTextHeight;
+    /** 解析后的背景(第一次使用时解析，没有共享状态的背景为null) */
+    private Drawable.ConstantState mNumberBackground;
+    private Drawable.ConstantState mUnitBackground;
+    private boolean isBackgroundResolved;
+
+    private ScrollNumberStyle(Key key, float textSize, float unitTextSize, int textColor, int unitTextColor,
+                              Typeface typeface, Typeface unitTypeface, int numberBackgroundResId, int unitBackgroundResId) {
+        mKey = key;
+        mTextSize = textSize;
+        mUnitTextSize = unitTextSize;
+        mTextColor = textColor;
+        mUnitTextColor = unitTextColor;
+        mTypeface = typeface;
+        mUnitTypeface = unitTypeface;
+        mNumberBackgroundResId = numberBackgroundResId;
+        mUnitBackgroundResId = unitBackgroundResId;
+        mPaint = createPaint(textSize, textColor, typeface);
+        mUnitPaint = createPaint(unitTextSize, unitTextColor, unitTypeface);
+        Rect bounds = new Rect();
+        mPaint.getTextBounds("0", 0, 1, bounds);
+        mTextWidth = bounds.width();
+        mTextHeight = bounds.height();
+        mUnitPaint.getTextBounds("万", 0, 1, bounds);
+        mUnitTextHeight = bounds.height();
+    }
+
+    /**
+     * 获取样式
+     * 说明: 相同内容的样式返回同一个对象。
+     *
+     * @param textSize : 数字Text字体大小(px)
+     * @param unitTextSize : 文字Text字体大小(px)
+     * @param textColor : 数字Text字体颜色
+     * @param unitTextColor : 文字Text字体颜色
+     */
+    public static ScrollNumberStyle obtain(float textSize, float unitTextSize, int textColor, int unitTextColor) {
+        return obtain(textSize, unitTextSize, textColor, unitTextColor, null, null, 0, 0);
+    }
+
+    /**
+     * 获取带背景资源的样式
+     *
+     * @param numberBackgroundResId : 数字Text背景资源
+     * @param unitBackgroundResId : 文字Text背景资源
+     */
+    public static ScrollNumberStyle obtain(float textSize, float unitTextSize, int textColor, int unitTextColor,
+                                           int numberBackgroundResId, int unitBackgroundResId) {
+        return obtain(textSize, unitTextSize, textColor, unitTextColor, null, null, numberBackgroundResId, unitBackgroundResId);
+    }
+
+    private static ScrollNumberStyle obtain(float textSize, float unitTextSize, int textColor, int unitTextColor,
+                                            Typeface typeface, Typeface unitTypeface, int numberBackgroundResId, int unitBackgroundResId) {
+        Key key = new Key(textSize, unitTextSize, textColor, unitTextColor,
+                typeface, unitTypeface, numberBackgroundResId, unitBackgroundResId);
+        synchronized (sStyles) {
+            ScrollNumberStyle style = sStyles.get(key);
+            if (null == style) {
+                //没有相同的样式时才创建画笔和测量字形
+                style = new ScrollNumberStyle(key, textSize, unitTextSize, textColor, unitTextColor,
+                        typeface, unitTypeface, numberBackgroundResId, unitBackgroundResId);
+                sStyles.put(key, style);
+            }
+            return style;
+        }
+    }
+
+    /**
+     * 获取字体
+     * 说明: 同一个字体文件只加载一次(任意线程调用)。
+     *
+     * @param fileName : assets中的字体文件名
+     */
+    public static Typeface getTypeface(Context context, String fileName) {
+        synchronized (sTypefaces) {
+            Typeface typeface = sTypefaces.get(fileName);
+            if (null == typeface) {
+                typeface = Typeface.createFromAsset(context.getAssets(), fileName);
+                if (null != typeface) {
+                    sTypefaces.put(fileName, typeface);
+                }
+            }
+            return typeface;
+        }
+    }
+
+    public ScrollNumberStyle withTextSize(float textSize) {
+        return obtain(textSize, mUnitTextSize, mTextColor, mUnitTextColor, mTypeface, mUnitTypeface, mNumberBackgroundResId, mUnitBackgroundResId);
+    }
+
+    public ScrollNumberStyle withUnitTextSize(float unitTextSize) {
+        return obtain(mTextSize, unitTextSize, mTextColor, mUnitTextColor, mTypeface, mUnitTypeface, mNumberBackgroundResId, mUnitBackgroundResId);
+    }
+
+    public ScrollNumberStyle withTextColor(int textColor) {
+        return obtain(mTextSize, mUnitTextSize, textColor, mUnitTextColor, mTypeface, mUnitTypeface, mNumberBackgroundResId, mUnitBackgroundResId);
+    }
+
+    public ScrollNumberStyle withUnitTextColor(int unitTextColor) {
+        return obtain(mTextSize, mUnitTextSize, mTextColor, unitTextColor, mTypeface, mUnitTypeface, mNumberBackgroundResId, mUnitBackgroundResId);
+    }
+
+    public ScrollNumberStyle withTypeface(Typeface typeface) {
+        return obtain(mTextSize, mUnitTextSize, mTextColor, mUnitTextColor, typeface, mUnitTypeface, mNumberBackgroundResId, mUnitBackgroundResId);
+    }
+
+    public ScrollNumberStyle withUnitTypeface(Typeface unitTypeface) {
+        return obtain(mTextSize, mUnitTextSize, mTextColor, mUnitTextColor, mTypeface, unitTypeface, mNumberBackgroundResId, mUnitBackgroundResId);
+    }
+
+    public ScrollNumberStyle withNumberBackgroundResource(int resId) {
+        return obtain(mTextSize, mUnitTextSize, mTextColor, mUnitTextColor, mTypeface, mUnitTypeface, resId, mUnitBackgroundResId);
+    }
+
+    public ScrollNumberStyle withUnitBackgroundResource(int resId) {
+        return obtain(mTextSize, mUnitTextSize, mTextColor, mUnitTextColor, mTypeface, mUnitTypeface, mNumberBackgroundResId, resId);
+    }
+
+    /** 数字Text画笔(共用，不能修改) */
+    public Paint getPaint() {
+        return mPaint;
+    }
+
+    /** 文字Text画笔(共用，不能修改) */
+    public Paint getUnitPaint() {
+        return mUnitPaint;
+    }
+
+    private static Paint createPaint(float textSize, int textColor, Typeface typeface) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setTextAlign(Paint.Align.CENTER);
+        paint.setTextSize(textSize);
+        paint.setColor(textColor);
+        if (null != typeface) {
+            paint.setTypeface(typeface);
+        }
+        return paint;
+    }
+
+    /** 数字字形的宽度 */
+    public int getTextWidth() {
+        return mTextWidth;
+    }
+
+    /**
+     * 字符表中最宽字形的宽度
+     * 说明: 十进制数字按照数字字形宽度，其他字符表(例如字母)按照最宽的字形。每次调用都会测量，调用方需要缓存。
+     */
+    public int getGlyphWidth(ScrollAlphabet alphabet) {
+        int width = getTextWidth();
+        if (ScrollAlphabet.DECIMAL != alphabet) {
+            Paint paint = mPaint;
+            for (int i = 0; i < alphabet.size(); i++) {
+                width = Math.max(width, (int) Math.ceil(paint.measureText(alphabet.getGlyphs(), i, 1)));
+            }
+        }
+        return width;
+    }
+
+    /** 数字字形的高度 */
+    public int getTextHeight() {
+        return mTextHeight;
+    }
+
+    /** 文字字形的高度 */
+    public int getUnitTextHeight() {
+        return mUnitTextHeight;
+    }
+
+    /** 字形尺寸是否相同(尺寸相同时不需要重新布局) */
+    public boolean hasSameMetrics(ScrollNumberStyle style) {
+        return Float.compare(mTextSize, style.mTextSize) == 0
+                && Float.compare(mUnitTextSize, style.mUnitTextSize) == 0
+                && mTypeface == style.mTypeface
+                && mUnitTypeface == style.mUnitTypeface;
+    }
+
+    public float getTextSize() {
+        return mTextSize;
+    }
+
+    public float getUnitTextSize() {
+        return mUnitTextSize;
+    }
+
+    public int getTextColor() {
+        return mTextColor;
+    }
+
+    public int getUnitTextColor() {
+        return mUnitTextColor;
+    }
+
+    public Typeface getTypeface() {
+        return mTypeface;
+    }
+
+    public Typeface getUnitTypeface() {
+        return mUnitTypeface;
+    }
+
+    public int getNumberBackgroundResource() {
+        return mNumberBackgroundResId;
+    }
+
+    public int getUnitBackgroundResource() {
+        return mUnitBackgroundResId;
+    }
+
+    /**
+     * 获取背景资源的共享状态
+     * 说明: 数字Text和文字Text的背景只解析一次，调用方用newDrawable创建自己的Drawable。
+     * 不是当前样式的背景资源或者背景没有共享状态时返回null。
+     */
+    public synchronized Drawable.ConstantState getBackgroundState(Resources res, int resId) {
+        if (0 == resId) {
+            return null;
+        }
+        if (!isBackgroundResolved) {
+            isBackgroundResolved = true;
+            mNumberBackground = resolveBackground(res, mNumberBackgroundResId);
+            mUnitBackground = resolveBackground(res, mUnitBackgroundResId);
+        }
+        if (resId == mNumberBackgroundResId) {
+            return mNumberBackground;
+        } else if (resId == mUnitBackgroundResId) {
+            return mUnitBackground;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Drawable.ConstantState resolveBackground(Resources res, int resId) {
+        if (0 == resId) {
+            return null;
+        }
+        Drawable drawable = res.getDrawable(resId);
+        return null == drawable ? null : drawable.getConstantState();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof ScrollNumberStyle && mKey.equals(((ScrollNumberStyle) o).mKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return mKey.hashCode();
+    }
+
+    /** 样式缓存的键(只包含原始参数，不创建画笔) */
+    private static final class Key {
+        private final float mTextSize;
+        private final float mUnitTextSize;
+        private final int mTextColor;
+        private final int mUnitTextColor;
+        private final Typeface mTypeface;
+        private final Typeface mUnitTypeface;
+        private final int mNumberBackgroundResId;
+        private final int mUnitBackgroundResId;
+
+        Key(float textSize, float unitTextSize, int textColor, int unitTextColor,
+            Typeface typeface, Typeface unitTypeface, int numberBackgroundResId, int unitBackgroundResId) {
+            mTextSize = textSize;
+            mUnitTextSize = unitTextSize;
+            mTextColor = textColor;
+            mUnitTextColor = unitTextColor;
+            mTypeface = typeface;
+            mUnitTypeface = unitTypeface;
+            mNumberBackgroundResId = numberBackgroundResId;
+            mUnitBackgroundResId = unitBackgroundResId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Float.compare(mTextSize, key.mTextSize) == 0
+                    && Float.compare(mUnitTextSize, key.mUnitTextSize) == 0
+                    && mTextColor == key.mTextColor
+                    && mUnitTextColor == key.mUnitTextColor
+                    && mTypeface == key.mTypeface
+                    && mUnitTypeface == key.mUnitTypeface
+                    && mNumberBackgroundResId == key.mNumberBackgroundResId
+                    && mUnitBackgroundResId == key.mUnitBackgroundResId;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(mTextSize);
+            result = 31 * result + Float.floatToIntBits(mUnitTextSize);
+            result = 31 * result + mTextColor;
+            result = 31 * result + mUnitTextColor;
+            result = 31 * result + (null != mTypeface ? mTypeface.hashCode() : 0);
+            result = 31 * result + (null != mUnitTypeface ? mUnitTypeface.hashCode() : 0);
+            result = 31 * result + mNumberBackgroundResId;
+            result = 31 * result + mUnitBackgroundResId;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package top.wuhaojie.library;
+
+import android.content.BroadcastReceiver;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.database.ContentObserver;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.provider.Settings;
+
+/**
+ * 系统动画设置(动画时长缩放和省电模式)
+ * 说明: 第一个控件附加到窗口时读取一次，之后通过ContentObserver和省电模式广播更新，
+ * 所有控件共用，数字更新时不再读取Settings和调用PowerManager。最后一个控件离开窗口时注销。
+ * 只在主线程调用。
+ */
+final class SystemAnimationSettings {
+    /** 附加到窗口的控件个数 */
+    private static int sAttachedCount;
+    /** 注销时使用的Context(Application) */
+    private static Context sContext;
+    /** 动画时长缩放(0表示系统关闭了动画) */
+    private static float sDurationScale = 1f;
+    /** 是否处于省电模式 */
+    private static boolean isPowerSaveMode;
+
+    private static final ContentObserver sDurationScaleObserver = new ContentObserver(new Handler(Looper.getMainLooper())) {
+        @Override
+        public void onChange(boolean selfChange) {
+            if (null != sContext) {
+                sDurationScale = readDurationScale(sContext);
+            }
+        }
+    };
+
+    private static final BroadcastReceiver sPowerSaveReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (null != sContext) {
+                isPowerSaveMode = readPowerSaveMode(sContext);
+            }
+        }
+    };
+
+    private SystemAnimationSettings() {
+    }
+
+    /** 控件附加到窗口(第一个控件注册监听并读取当前设置) */
+    static void attach(Context context) {
+        if (sAttachedCount++ > 0) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        sContext = null == appContext ? context : appContext;
+        ContentResolver resolver = sContext.getContentResolver();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            resolver.registerContentObserver(Settings.Global.getUriFor(Settings.Global.ANIMATOR_DURATION_SCALE),
+                    false, sDurationScaleObserver);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            resolver.registerContentObserver(Settings.System.getUriFor(Settings.System.ANIMATOR_DURATION_SCALE),
+                    false, sDurationScaleObserver);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            sContext.registerReceiver(sPowerSaveReceiver, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        }
+        sDurationScale = readDurationScale(sContext);
+        isPowerSaveMode = readPowerSaveMode(sContext);
+    }
+
+    /** 控件离开窗口(最后一个控件注销监听) */
+    static void detach() {
+        if (sAttachedCount <= 0 || --sAttachedCount > 0) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            sContext.getContentResolver().unregisterContentObserver(sDurationScaleObserver);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            sContext.unregisterReceiver(sPowerSaveReceiver);
+        }
+        sContext = null;
+    }
+
+    /**
+     * 获取动画时长缩放
+     * 说明: 没有控件附加到窗口时(例如附加之前设置数字)直接读取。
+     */
+    static float getDurationScale(Context context) {
+        return sAttachedCount > 0 ? sDurationScale : readDurationScale(context);
+    }
+
+    /** 是否处于省电模式 */
+    static boolean isPowerSaveMode(Context context) {
+        return sAttachedCount > 0 ? isPowerSaveMode : readPowerSaveMode(context);
+    }
+
+    /** 读取系统动画时长缩放(开发者选项) */
+    private static float readDurationScale(Context context) {
+        ContentResolver resolver = context.getContentResolver();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getFloat(resolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            return Settings.System.getFloat(resolver, Settings.System.ANIMATOR_DURATION_SCALE, 1f);
+        }
+        return 1f;
+    }
+
+    /** 读取是否处于省电模式 */
+    private static boolean readPowerSaveMode(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return false;
+        }
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return null != powerManager && powerManager.isPowerSaveMode();
+    }
+}
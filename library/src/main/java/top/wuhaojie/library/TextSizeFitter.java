@@ -0,0 +1,77 @@
+package top.wuhaojie.library;
+
+/**
+ * 字体大小自适应
+ * 说明: 记录每个单元格在原始字体大小下的内容宽度(字形宽度与字体大小成正比)，
+ * 通过二分查找得到总宽度不超过可用宽度的最大字体大小，查找过程中不需要重新测量字形。
+ */
+final class TextSizeFitter {
+    /** 每个单元格在原始字体大小下的内容宽度 */
+    private int[] mBaseWidths = new int[16];
+    /** 单元格个数 */
+    private int mCount;
+    /** 每个单元格固定的宽度(内边距和间距，不随字体大小变化) */
+    private int mOverhead;
+    /** 原始字体大小(px) */
+    private float mTextSize;
+
+    /**
+     * 开始记录单元格宽度
+     *
+     * @param textSize : 原始字体大小(px)
+     * @param overhead : 每个单元格固定的宽度
+     */
+    void reset(float textSize, int overhead) {
+        mTextSize = textSize;
+        mOverhead = overhead;
+        mCount = 0;
+    }
+
+    /** 追加一个单元格在原始字体大小下的内容宽度 */
+    void add(int baseWidth) {
+        if (mCount == mBaseWidths.length) {
+            int[] widths = new int[mCount * 2];
+            System.arraycopy(mBaseWidths, 0, widths, 0, mCount);
+            mBaseWidths = widths;
+        }
+        mBaseWidths[mCount++] = baseWidth;
+    }
+
+    /** 计算指定字体大小下的总宽度 */
+    int calTotalWidth(int textSize) {
+        float scale = textSize / mTextSize;
+        int width = 0;
+        for (int i = 0; i < mCount; i++) {
+            width += mOverhead + (int) Math.ceil(mBaseWidths[i] * scale);
+        }
+        return width;
+    }
+
+    /**
+     * 查找总宽度不超过可用宽度的最大字体大小
+     *
+     * @param availableWidth : 可用宽度
+     * @param minTextSize : 最小字体大小(px，都放不下时采用)
+     * @return 字体大小(px)，不超过原始字体大小
+     */
+    int fit(int availableWidth, int minTextSize) {
+        int hi = (int) mTextSize;
+        if (calTotalWidth(hi) <= availableWidth) {
+            return hi;
+        }
+        int lo = minTextSize;
+        if (lo >= hi || calTotalWidth(lo) > availableWidth) {
+            return Math.min(lo, hi);
+        }
+        //lo放得下 hi放不下
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (calTotalWidth(mid) <= availableWidth) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,88 @@
+package top.wuhaojie.library;
+
+import java.util.Arrays;
+
+/**
+ * 每个数字Text的更新频率统计
+ * 说明: 按列(低位在前，位数增加时低位的索引不变)记录目标字符变化的平均间隔。
+ * 平均间隔短于动画时长时，动画还没有播放完就被下一次更新打断，这一列改为直接显示目标字符；
+ * 平均间隔超过动画时长的两倍时恢复动画，避免在临界频率上来回切换。
+ * 至少记录MIN_INTERVALS个间隔后才降级，偶尔一次连续更新(例如连续点击两次)不会影响动画。
+ */
+final class UpdateRateTracker {
+    /** 平均间隔的平滑系数(新间隔的权重) */
+    private static final float SMOOTHING = 0.5f;
+    /** 恢复动画的间隔倍数 */
+    private static final int RECOVER_FACTOR = 2;
+    /** 降级前至少需要的间隔个数 */
+    static final int MIN_INTERVALS = 3;
+
+    /** 上一次更新的时间(-1表示还没有更新) */
+    private long[] mLastUpdateTime = new long[0];
+    /** 平均更新间隔(-1表示还没有间隔) */
+    private float[] mAvgInterval = new float[0];
+    /** 已经记录的间隔个数(达到MIN_INTERVALS后不再增加) */
+    private int[] mIntervalCount = new int[0];
+    /** 是否更新过快 */
+    private boolean[] mFastFlags = new boolean[0];
+
+    /** 保证列数容量(新增的列没有记录) */
+    void ensureColumnCount(int count) {
+        int capacity = mLastUpdateTime.length;
+        if (capacity >= count) {
+            return;
+        }
+        int newCapacity = Math.max(count, capacity * 2);
+        mLastUpdateTime = Arrays.copyOf(mLastUpdateTime, newCapacity);
+        mAvgInterval = Arrays.copyOf(mAvgInterval, newCapacity);
+        mIntervalCount = Arrays.copyOf(mIntervalCount, newCapacity);
+        mFastFlags = Arrays.copyOf(mFastFlags, newCapacity);
+        Arrays.fill(mLastUpdateTime, capacity, newCapacity, -1);
+        Arrays.fill(mAvgInterval, capacity, newCapacity, -1);
+    }
+
+    /**
+     * 记录一列的目标字符变化
+     *
+     * @param column : 列索引(低位在前)
+     * @param now : 当前时间(ms)
+     * @param animDuration : 这次更新需要播放的动画时长(ms)
+     * @return 是否更新过快(直接显示目标字符)
+     */
+    boolean onUpdate(int column, long now, long animDuration) {
+        ensureColumnCount(column + 1);
+        long lastUpdateTime = mLastUpdateTime[column];
+        mLastUpdateTime[column] = now;
+        if (lastUpdateTime < 0 || now < lastUpdateTime) {
+            return mFastFlags[column];
+        }
+        float interval = now - lastUpdateTime;
+        float avg = mAvgInterval[column];
+        avg = avg < 0 ? interval : avg + SMOOTHING * (interval - avg);
+        mAvgInterval[column] = avg;
+        if (mIntervalCount[column] < MIN_INTERVALS) {
+            mIntervalCount[column]++;
+        }
+        boolean isFast = mFastFlags[column];
+        if (isFast) {
+            isFast = avg < animDuration * RECOVER_FACTOR;
+        } else {
+            isFast = mIntervalCount[column] >= MIN_INTERVALS && avg < animDuration;
+        }
+        mFastFlags[column] = isFast;
+        return isFast;
+    }
+
+    /** 列是否更新过快 */
+    boolean isFast(int column) {
+        return column < mFastFlags.length && mFastFlags[column];
+    }
+
+    /** 清除所有记录 */
+    void reset() {
+        Arrays.fill(mLastUpdateTime, -1);
+        Arrays.fill(mAvgInterval, -1);
+        Arrays.fill(mIntervalCount, 0);
+        Arrays.fill(mFastFlags, false);
+    }
+}
@@ -0,0 +1,70 @@
+package top.wuhaojie.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ClockFormat测试(JVM)
+ * 说明: 逐秒走完一天(和一段倒计时)，每一列只在变化时滚动一步，并且按照列的进制循环。
+ */
+public class ClockFormatTest {
+    private static final ScrollAlphabet ALPHABET = ScrollAlphabet.DECIMAL;
+
+    @Test
+    public void formatsHoursMinutesSeconds() {
+        assertEquals("00:00:00", ClockFormat.format(0, ALPHABET));
+        assertEquals("23:59:59", ClockFormat.format(ClockFormat.SECONDS_PER_DAY - 1, ALPHABET));
+        assertEquals("01:02:03", ClockFormat.format(3723, ALPHABET));
+        //倒计时超过99小时
+        assertEquals("100:00:00", ClockFormat.format(100 * 3600, ALPHABET));
+        assertEquals("０１:００:００", ClockFormat.format(3600, ScrollAlphabet.FULLWIDTH_DIGITS));
+    }
+
+    @Test
+    public void everySecondOfDayScrollsOneStep() {
+        assertTicks(0, ClockFormat.SECONDS_PER_DAY + 1, false);
+    }
+
+    @Test
+    public void countdownScrollsOneStepDown() {
+        assertTicks(0, 30 * 3600, true);
+    }
+
+    @Test
+    public void jumpsTakeShortestPathWithinBase() {
+        char[] from = new char[8];
+        char[] to = new char[8];
+        //23:00:00 --> 07:00:00
+        ClockFormat.fillColumns(23 * 3600, ALPHABET, from);
+        ClockFormat.fillColumns(7 * 3600, ALPHABET, to);
+        int base = ClockFormat.calColumnBase(6, false, from, to, ALPHABET);
+        assertEquals(10, base);
+        assertEquals(4, ClockFormat.calSteps(3, 7, base, 1));
+        //00:00:10 --> 00:00:50
+        assertEquals(-2, ClockFormat.calSteps(1, 5, 6, 1));
+    }
+
+    /** 逐秒走时(时钟向上 倒计时向下)，检查每一列的步数 */
+    private static void assertTicks(long start, long end, boolean isCountdown) {
+        char[] from = new char[16];
+        char[] to = new char[16];
+        int direction = isCountdown ? -1 : 1;
+        for (long t = start; t + 1 < end; t++) {
+            long fromSeconds = isCountdown ? end - t : t % ClockFormat.SECONDS_PER_DAY;
+            long toSeconds = isCountdown ? end - t - 1 : (t + 1) % ClockFormat.SECONDS_PER_DAY;
+            int length = ClockFormat.fillColumns(fromSeconds, ALPHABET, from);
+            assertEquals(length, ClockFormat.fillColumns(toSeconds, ALPHABET, to));
+            for (int i = 0; i < length; i++) {
+                if (from[i] == to[i]) {
+                    continue;
+                }
+                int base = ClockFormat.calColumnBase(i, isCountdown, from, to, ALPHABET);
+                int steps = ClockFormat.calSteps(ALPHABET.indexOf(from[i]), ALPHABET.indexOf(to[i]), base, direction);
+                assertEquals(fromSeconds + "->" + toSeconds + " column " + i, direction, steps);
+                //与滚动引擎的校验一致
+                new ScrollColumn().setNumberSteps(from[i], to[i], steps, ScrollNumber.ONE_LOOP_DURATION, base);
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package top.wuhaojie.library;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * NumberAligner与原有格式化实现的一致性测试(JVM)
+ */
+public class NumberAlignerTest {
+
+    /** 随机生成字符串使用的字符(数字、空白、单字文字、多字文字) */
+    private static final String CHARS = "0123456789 万亿兆,./$USD%次秒";
+
+    private static String[] align(NumberAligner aligner, String from, String to) {
+        aligner.align(from, to);
+        return new String[]{
+                new String(aligner.getFrom(), 0, aligner.getLength()),
+                new String(aligner.getTo(), 0, aligner.getLength())
+        };
+    }
+
+    private static void assertSameAsLegacy(NumberAligner aligner, String from, String to) {
+        String[] expected = LegacyFormatter.format(from, to);
+        String[] actual = align(aligner, from, to);
+        assertEquals("from [" + from + "] to [" + to + "]", expected[0], actual[0]);
+        assertEquals("from [" + from + "] to [" + to + "]", expected[1], actual[1]);
+    }
+
+    private static String randomText(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            //数字出现的概率更高
+            if (random.nextInt(3) > 0) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            } else {
+                builder.append(CHARS.charAt(random.nextInt(CHARS.length())));
+            }
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void alignsUnitGroups() {
+        //10万空空空 --> 空1亿300 打洞后去掉目标为空的最高位
+        String[] result = align(new NumberAligner(), "10万", "1亿300");
+        assertEquals("0万000", result[0]);
+        assertEquals("1亿300", result[1]);
+    }
+
+    @Test
+    public void sameAsLegacyForKnownCases() {
+        NumberAligner aligner = new NumberAligner();
+        String[][] cases = {
+                {"", "123"}, {"123", ""}, {"9", "10"}, {"10", "9"}, {"1万2", "3万4"},
+                {"12", "3万4"}, {"$12", "$345"}, {"1.5万", "12.25亿"}, {"12次/秒", "3次/秒"},
+                {"100 USD", "99 USD"}, {"万", "亿"}, {"1 2", "345"}, {"12万3456", "1亿2345万6789"},
+        };
+        for (String[] c : cases) {
+            assertSameAsLegacy(aligner, c[0], c[1]);
+        }
+    }
+
+    @Test
+    public void sameAsLegacyForRandomInputs() {
+        Random random = new Random(20261019L);
+        NumberAligner aligner = new NumberAligner();
+        for (int i = 0; i < 20000; i++) {
+            assertSameAsLegacy(aligner, randomText(random, 12), randomText(random, 12));
+        }
+    }
+
+    @Test
+    public void growsForLongInputs() {
+        Random random = new Random(7L);
+        NumberAligner aligner = new NumberAligner();
+        for (int i = 0; i < 200; i++) {
+            assertSameAsLegacy(aligner, randomText(random, 200), randomText(random, 200));
+        }
+    }
+
+    /**
+     * 原有的格式化实现(StringBuilder版本，只把TextUtils替换为本地方法)
+     * 说明: 作为对齐结果的参照，不要修改。
+     */
+    private static final class LegacyFormatter {
+        private static final String DEFAULT_NUMBER_CHAR = "0";
+        private static final String DEFAULT_TEXT_CHAR = " ";
+        private static final String DEFAULT_EMPTY_CHAR = " ";
+
+        static String[] format(String from, String to) {
+            StringBuilder fromBuffer = new StringBuilder();
+            StringBuilder toBuffer = new StringBuilder();
+            formatNumberGroupByChar(from, to, fromBuffer, toBuffer);
+            formatPrimaryByTarget(fromBuffer, toBuffer);
+            return new String[]{fromBuffer.toString(), toBuffer.toString()};
+        }
+
+        private static boolean isEmpty(String str) {
+            return null == str || str.length() == 0;
+        }
+
+        private static void formatPrimaryByTarget(StringBuilder fromBuffer, StringBuilder toBuffer) {
+            String subStr = "";
+            for(int i = toBuffer.length(); i > 0; i--) {
+                subStr = toBuffer.substring(i - 1, i);
+                if(ScrollColumn.isEmptyChar(subStr)) {
+                    fromBuffer.delete(i - 1, i);
+                    toBuffer.delete(i - 1, i);
+                } else if(ScrollColumn.isNumeric(subStr)) {
+                    if(ScrollColumn.isEmptyChar(fromBuffer.substring(i - 1, i))) {
+                        fromBuffer.replace(i - 1, i, DEFAULT_NUMBER_CHAR);
+                    }
+                } else {
+                    if(ScrollColumn.isEmptyChar(fromBuffer.substring(i - 1, i))) {
+                        fromBuffer.replace(i - 1, i, subStr);
+                    }
+                }
+            }
+        }
+
+        private static void initEmptyNumber(String from, String to,
+                                            StringBuilder fromBuffer, StringBuilder toBuffer) {
+            int lenFrom = 0;
+            int lenTo = 0;
+            if (isEmpty(from) && !isEmpty(to)) {
+                lenTo = to.length();
+                for (int i = 0; i < lenTo; i++) {
+                    if(ScrollColumn.isNumeric(to.substring(i, i + 1))) {
+                        fromBuffer.append(DEFAULT_NUMBER_CHAR);
+                    } else {
+                        fromBuffer.append(DEFAULT_TEXT_CHAR);
+                    }
+                }
+                toBuffer.append(to);
+            } else if (!isEmpty(from) && isEmpty(to)) {
+                lenFrom = from.length();
+                for (int i = 0; i < lenFrom; i++) {
+                    toBuffer.append(DEFAULT_EMPTY_CHAR);
+                }
+                fromBuffer.append(from);
+            }
+        }
+
+        private static void formatNumberGroupByChar(String from, String to,
+                                                    StringBuilder fromBuffer, StringBuilder toBuffer) {
+            if (isEmpty(from) && isEmpty(to)) {
+                return;
+            }
+            if(!isEmpty(from) && !isEmpty(to)) {
+                initNumberWithChar(from, to, fromBuffer, toBuffer);
+            } else {
+                initEmptyNumber(from, to, fromBuffer, toBuffer);
+            }
+        }
+
+        private static void initNumberWithChar(String from, String to,
+                                               StringBuilder fromBuffer, StringBuilder toBuffer) {
+            int indexFrom = 0;
+            int indexTo = 0;
+            int nextFrom = 0;
+            int nextTo = 0;
+            int lenWordFrom = 0;
+            int lenWordTo = 0;
+            int groupFromCnt = 0;
+            int groupToCnt = 0;
+            if(!isEmpty(from) && !isEmpty(to)) {
+                groupFromCnt = calculateGroupCount(from);
+                groupToCnt = calculateGroupCount(to);
+                int groupCnt = Math.min(groupFromCnt, groupToCnt);
+                for(int i = 0; i < groupCnt; i++) {
+                    indexFrom = findWordCharFromString(from, nextFrom);
+                    indexTo = findWordCharFromString(to, nextTo);
+                    if(indexFrom < 0 && indexTo < 0) {
+                        initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo);
+                        break;
+                    } else {
+                        if(indexFrom < 0) {
+                            indexFrom = from.length();
+                        }
+                        if(indexTo < 0) {
+                            indexTo = to.length();
+                        }
+                        initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo, indexFrom, indexTo);
+                        lenWordFrom = calculateWordCharLength(from, indexFrom);
+                        lenWordTo = calculateWordCharLength(to, indexTo);
+                        initGroupWordChar(from, to, fromBuffer, toBuffer, indexFrom, indexTo, lenWordFrom, lenWordTo);
+                        nextFrom = indexFrom + lenWordFrom;
+                        nextTo = indexTo + lenWordTo;
+                    }
+                }
+                initGroupWithEmptyNumber(from, to, fromBuffer, toBuffer, nextFrom, nextTo, from.length() - nextFrom, to.length() - nextTo);
+            }
+        }
+
+        private static int calculateWordCharLength(String from, int indexFrom) {
+            int lenWordFrom = 0;
+            int nextWordCharFrom = 0;
+            if(!isEmpty(from) && indexFrom < from.length()) {
+                if(indexFrom > 0) {
+                    nextWordCharFrom = findNumericCharFromString(from, indexFrom);
+                    lenWordFrom = nextWordCharFrom < indexFrom ? from.length() - indexFrom : nextWordCharFrom - indexFrom;
+                }
+            }
+            return lenWordFrom;
+        }
+
+        private static void initGroupWithEmptyNumber(String from, String to, StringBuilder fromBuffer,
+                                                     StringBuilder toBuffer, int indexFrom, int indexTo,
+                                                     int lenFrom, int lenTo) {
+            if(lenFrom <= 0 && lenTo <= 0) {
+                return;
+            }
+            String subFrom = "";
+            String subTo = "";
+            if(!isEmpty(from) && indexFrom >= 0 && indexFrom + lenFrom <= from.length()) {
+                subFrom = from.substring(indexFrom, indexFrom + lenFrom);
+            }
+            if(!isEmpty(to) && indexTo >= 0 && indexTo + lenTo <= to.length()) {
+                subTo = to.substring(indexTo, indexTo + lenTo);
+            }
+            initEmptyNumber(subFrom, subTo, fromBuffer, toBuffer);
+        }
+
+        private static void initGroupWordChar(String from, String to, StringBuilder fromBuffer,
+                                              StringBuilder toBuffer, int indexFrom, int indexTo,
+                                              int lenWordFrom, int lenWordTo) {
+            if(isEmpty(from) || isEmpty(to)) {
+                return;
+            }
+            if((indexFrom < 0 && indexTo < 0)) {
+                return;
+            }
+            if((indexFrom > 0 && indexFrom + lenWordFrom > from.length())
+                    || (indexTo > 0 && indexTo + lenWordTo > to.length())) {
+                return;
+            }
+            int groupWordLen = Math.max(lenWordFrom, lenWordTo);
+            if(groupWordLen <= 0) {
+                return;
+            }
+            for(int i = 0; i < groupWordLen - lenWordFrom; i++) {
+                fromBuffer.append(DEFAULT_TEXT_CHAR);
+            }
+            if(indexFrom >= 0 && lenWordFrom > 0) {
+                fromBuffer.append(from.substring(indexFrom, indexFrom + lenWordFrom));
+            }
+            for(int i = 0; i < groupWordLen - lenWordTo; i++) {
+                toBuffer.append(DEFAULT_EMPTY_CHAR);
+            }
+            if(indexTo >= 0 && lenWordTo > 0) {
+                toBuffer.append(to.substring(indexTo, indexTo + lenWordTo));
+            }
+        }
+
+        private static void initNumberGroup(String from, String to, StringBuilder fromBuffer,
+                                            StringBuilder toBuffer, int nextFrom, int nextTo) {
+            int lenFrom = isEmpty(from) ? 0 : from.length();
+            int lenTo = isEmpty(to) ? 0 : to.length();
+            initNumberGroup(from, to, fromBuffer, toBuffer, nextFrom, nextTo, lenFrom, lenTo);
+        }
+
+        private static void initNumberGroup(String from, String to,
+                                            StringBuilder fromBuffer, StringBuilder toBuffer,
+                                            int nextFrom, int nextTo, int indexFrom, int indexTo) {
+            if(isEmpty(from) && isEmpty(to)) {
+                return;
+            }
+            if(nextFrom < 0 || nextTo < 0) {
+                return;
+            }
+            int lenFrom = 0;
+            int lenTo = 0;
+            int groupLen = 0;
+            lenFrom = nextFrom >= 0 ? indexFrom - nextFrom : indexTo;
+            lenTo = nextTo >= 0 ? indexTo - nextTo : indexTo;
+            groupLen = Math.max(lenFrom, lenTo);
+            if(nextFrom < 0) {
+                nextFrom = 0;
+            }
+            if(nextTo < 0) {
+                nextTo = 0;
+            }
+            for(int j = 0; j < groupLen - lenFrom; j++) {
+                fromBuffer.append(DEFAULT_NUMBER_CHAR);
+            }
+            if(nextFrom + lenFrom <= from.length()) {
+                fromBuffer.append(from.substring(nextFrom, nextFrom + lenFrom));
+            }
+            for(int j = 0; j < groupLen - lenTo; j++) {
+                toBuffer.append(DEFAULT_EMPTY_CHAR);
+            }
+            if(nextTo + lenTo <= to.length()) {
+                toBuffer.append(to.substring(nextTo, nextTo + lenTo));
+            }
+        }
+
+        private static int calculateGroupCount(String from) {
+            int groupCnt = 0;
+            if (!isEmpty(from)) {
+                if (1 == from.length()) {
+                    return 1;
+                }
+                String curText = "";
+                String nextText = "";
+                curText = from.substring(0, 1);
+                for (int i = 0; i < from.length(); i++) {
+                    nextText = from.substring(i + 1, i + 2);
+                    if (ScrollColumn.isNumeric(curText) ^ ScrollColumn.isNumeric(nextText)) {
+                        groupCnt++;
+                    }
+                    curText = nextText;
+                    if (i + 2 >= from.length()) {
+                        break;
+                    }
+                }
+                if (0 == groupCnt) {
+                    groupCnt = 1;
+                }
+            }
+            return groupCnt;
+        }
+
+        private static int findNumericCharFromString(String from, int start) {
+            int index = -1;
+            if(!isEmpty(from) && start >= 0 && start < from.length()) {
+                String subStr = "";
+                for(int i = start; i < from.length(); i++) {
+                    subStr = from.substring(i, i+1);
+                    if(ScrollColumn.isNumeric(subStr)) {
+                        index = i;
+                        break;
+                    }
+                }
+            }
+            return index;
+        }
+
+        private static int findWordCharFromString(String from, int start) {
+            int index = -1;
+            if(!isEmpty(from) && start >= 0 && start < from.length()) {
+                String subStr = "";
+                for(int i = start; i < from.length(); i++) {
+                    subStr = from.substring(i, i+1);
+                    if(!ScrollColumn.isEmptyChar(subStr) && !ScrollColumn.isNumeric(subStr)) {
+                        index = i;
+                        break;
+                    }
+                }
+            }
+            return index;
+        }
+    }
+}
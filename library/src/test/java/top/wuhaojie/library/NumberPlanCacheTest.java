@@ -0,0 +1,72 @@
+package top.wuhaojie.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * NumberPlanCache测试(JVM)
+ */
+public class NumberPlanCacheTest {
+    private static final MultiScrollNumber.Mode MODE = MultiScrollNumber.Mode.START_FIRST_ARRIVAL_LAST;
+
+    @Test
+    public void hitReturnsSamePlanAsAligner() {
+        NumberPlanCache cache = new NumberPlanCache(4);
+        NumberAligner aligner = new NumberAligner();
+        NumberPlanCache.Plan miss = cache.obtain("9.5万", "12万3456", MODE, ScrollAlphabet.DECIMAL, aligner);
+        NumberPlanCache.Plan hit = cache.obtain("9.5万", "12万3456", MODE, ScrollAlphabet.DECIMAL, aligner);
+        assertSame(miss, hit);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        aligner.align("9.5万", "12万3456");
+        assertEquals(new String(aligner.getFrom(), 0, aligner.getLength()), hit.from);
+        assertEquals(new String(aligner.getTo(), 0, aligner.getLength()), hit.to);
+    }
+
+    @Test
+    public void keyIncludesModeAndAlphabet() {
+        NumberPlanCache cache = new NumberPlanCache(4);
+        NumberAligner aligner = new NumberAligner();
+        NumberPlanCache.Plan natural = cache.obtain("12", "19", MODE, ScrollAlphabet.DECIMAL, aligner);
+        NumberPlanCache.Plan scoreboard = cache.obtain("12", "19", MultiScrollNumber.Mode.SCOREBOARD,
+                ScrollAlphabet.DECIMAL, aligner);
+        assertNotSame(natural, scoreboard);
+        assertEquals(2, natural.animStartPosition);
+        assertEquals(0, scoreboard.animStartPosition);
+        aligner.setAlphabet(ScrollAlphabet.HEX);
+        cache.obtain("12", "19", MODE, ScrollAlphabet.HEX, aligner);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        NumberPlanCache cache = new NumberPlanCache(2);
+        NumberAligner aligner = new NumberAligner();
+        cache.obtain("1", "2", MODE, ScrollAlphabet.DECIMAL, aligner);
+        cache.obtain("2", "3", MODE, ScrollAlphabet.DECIMAL, aligner);
+        //访问后1-->2变为最近使用
+        cache.obtain("1", "2", MODE, ScrollAlphabet.DECIMAL, aligner);
+        cache.obtain("3", "4", MODE, ScrollAlphabet.DECIMAL, aligner);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHitCount());
+
+        cache.obtain("1", "2", MODE, ScrollAlphabet.DECIMAL, aligner);
+        assertEquals(2, cache.getHitCount());
+        cache.obtain("2", "3", MODE, ScrollAlphabet.DECIMAL, aligner);
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void zeroSizeDisablesCache() {
+        NumberPlanCache cache = new NumberPlanCache(0);
+        NumberAligner aligner = new NumberAligner();
+        cache.obtain("1", "2", MODE, ScrollAlphabet.DECIMAL, aligner);
+        cache.obtain("1", "2", MODE, ScrollAlphabet.DECIMAL, aligner);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+}
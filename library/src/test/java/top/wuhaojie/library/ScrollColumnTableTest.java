@@ -0,0 +1,257 @@
+package top.wuhaojie.library;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * ScrollColumnTable测试(JVM)
+ * 说明: 按列存放的引擎与ScrollColumn逐帧比较，保证滚动规则一致。
+ */
+public class ScrollColumnTableTest {
+    private static final String CHARS = "0123456789万亿 ";
+    private static final String HEX_CHARS = "0123456789ABCDEF万 ";
+    private static final long DURATION = ScrollNumber.ONE_LOOP_DURATION;
+    private static final int COLUMN_WIDTH = 10;
+    private static final int TEXT_HEIGHT = 10;
+    private static final int HEIGHT = 40;
+
+    /** 线程信息(获取本身会分配内存，只获取一次) */
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long allocatedBytes() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void sameFramesAsScrollColumn() {
+        assertSameFrames(ScrollAlphabet.DECIMAL, CHARS, 43);
+    }
+
+    @Test
+    public void sameFramesAsScrollColumnHex() {
+        assertSameFrames(ScrollAlphabet.HEX, HEX_CHARS, 47);
+    }
+
+    @Test
+    public void alphabetLettersDrawWithNumberPaint() {
+        //字母在十进制字符表下按文字滚动到位，切换为十六进制字符表后按数字画笔绘制(与ScrollColumn一致)
+        String letters = "ABCDEF";
+        ScrollColumnTable table = new ScrollColumnTable();
+        table.setTextHeight(TEXT_HEIGHT);
+        table.setColumnCount(letters.length());
+        ScrollColumn[] expected = new ScrollColumn[letters.length()];
+        for (int i = 0; i < letters.length(); i++) {
+            expected[i] = new ScrollColumn();
+            expected[i].setTextHeight(TEXT_HEIGHT);
+            expected[i].setNumberChar(' ', letters.charAt(i), ScrollNumber.SCROLL_LOOP_DEFAULT, 0, DURATION);
+            table.setNumberChar(i, ' ', letters.charAt(i), 0, ScrollNumber.SCROLL_LOOP_DEFAULT, 0, DURATION);
+        }
+        table.finish();
+        table.setAlphabet(ScrollAlphabet.HEX);
+        for (ScrollColumn column : expected) {
+            column.finish();
+            column.setAlphabet(ScrollAlphabet.HEX);
+        }
+        DrawLog log = assertSameDraw("hex", table, expected);
+        assertEquals(letters.length(), log.mUnits.size());
+        assertFalse(log.mUnits.contains(Boolean.TRUE));
+    }
+
+    /** 相同的设置下逐帧比较状态和绘制结果(字形、位置和画笔) */
+    private static void assertSameFrames(ScrollAlphabet alphabet, String chars, long seed) {
+        Random random = new Random(seed);
+        ScrollNumber.Strategy[] strategies = ScrollNumber.Strategy.values();
+        long[] frameIntervals = {16, 33, 100};
+        int columns = 64;
+        for (int round = 0; round < 30; round++) {
+            ScrollNumber.Strategy strategy = strategies[round % strategies.length];
+            long frameInterval = frameIntervals[round % frameIntervals.length];
+            ScrollColumnTable table = new ScrollColumnTable();
+            table.setAlphabet(alphabet);
+            table.setStrategy(strategy);
+            table.setTextHeight(TEXT_HEIGHT);
+            table.setColumnCount(columns);
+            ScrollColumn[] expected = new ScrollColumn[columns];
+            long[] startTimes = new long[columns];
+            for (int i = 0; i < columns; i++) {
+                char from = chars.charAt(random.nextInt(chars.length()));
+                char to = chars.charAt(random.nextInt(chars.length()));
+                int animStepMax = random.nextInt(3) * alphabet.size();
+                startTimes[i] = 1000 + random.nextInt(4) * 50;
+                expected[i] = new ScrollColumn();
+                expected[i].setAlphabet(alphabet);
+                expected[i].setStrategy(strategy);
+                expected[i].setTextHeight(TEXT_HEIGHT);
+                expected[i].setNumberChar(from, to, ScrollNumber.SCROLL_LOOP_DEFAULT, animStepMax, DURATION);
+                table.setNumberChar(i, from, to, startTimes[i], ScrollNumber.SCROLL_LOOP_DEFAULT, animStepMax, DURATION);
+                assertEquals(expected[i].getDeltaNum(), table.getDeltaNum(i));
+            }
+            //与ScrollNumber的调度流程一致: 到达开始时间时设置开始时间，然后逐帧推进
+            boolean[] isStarted = new boolean[columns];
+            boolean isAnimating = true;
+            for (long time = 1000; isAnimating; time += frameInterval) {
+                isAnimating = table.doFrame(time);
+                for (int i = 0; i < columns; i++) {
+                    if (time < startTimes[i]) {
+                        continue;
+                    }
+                    if (!isStarted[i]) {
+                        isStarted[i] = true;
+                        expected[i].setStartTime(startTimes[i]);
+                    }
+                    if (expected[i].nextFrame()) {
+                        expected[i].scrollTo(time);
+                    }
+                    String name = "round " + round + " column " + i + " time " + time;
+                    assertEquals(name, expected[i].getCurNumber(), table.getCurNumber(i));
+                    assertEquals(name, expected[i].getLeftStep(), table.getLeftStep(i));
+                    if (expected[i].getLeftStep() > 0) {
+                        assertEquals(name, expected[i].getOffset(), table.getOffset(i), 0f);
+                    }
+                }
+                assertSameDraw("round " + round + " time " + time, table, expected);
+                assertTrue(time < 100000);
+            }
+        }
+    }
+
+    /** 比较整张表与逐列ScrollColumn绘制的字形 返回整张表的绘制记录(空白字符只有ScrollColumn绘制，不比较) */
+    private static DrawLog assertSameDraw(String name, ScrollColumnTable table, ScrollColumn[] expected) {
+        DrawLog tableLog = new DrawLog();
+        table.draw(tableLog, 0, COLUMN_WIDTH, HEIGHT);
+        DrawLog columnLog = new DrawLog();
+        for (int i = 0; i < expected.length; i++) {
+            expected[i].draw(columnLog, (expected.length - 1 - i) * COLUMN_WIDTH + COLUMN_WIDTH / 2, HEIGHT);
+        }
+        assertEquals(name, columnLog.mChars.size(), tableLog.mChars.size());
+        for (int k = 0; k < tableLog.mChars.size(); k++) {
+            String drawName = name + " draw " + k + " '" + columnLog.mChars.get(k) + "'";
+            assertEquals(drawName, columnLog.mChars.get(k), tableLog.mChars.get(k));
+            assertEquals(drawName, columnLog.mUnits.get(k), tableLog.mUnits.get(k));
+            assertEquals(drawName, columnLog.mXs.get(k), tableLog.mXs.get(k), 0.001f);
+            assertEquals(drawName, columnLog.mYs.get(k), tableLog.mYs.get(k), 0.001f);
+        }
+        return tableLog;
+    }
+
+    /** 记录每一次绘制的字符、位置和画笔 */
+    private static class DrawLog extends RecordingNumberRenderer {
+        final List<Character> mChars = new ArrayList<Character>();
+        final List<Boolean> mUnits = new ArrayList<Boolean>();
+        final List<Float> mXs = new ArrayList<Float>();
+        final List<Float> mYs = new ArrayList<Float>();
+
+        DrawLog() {
+            super(COLUMN_WIDTH, TEXT_HEIGHT);
+        }
+
+        @Override
+        public void drawText(char[] text, int index, int count, float x, float y, boolean isUnit) {
+            super.drawText(text, index, count, x, y, isUnit);
+            for (int k = index; k < index + count; k++) {
+                if (ScrollColumn.isEmptyChar(text[k])) {
+                    continue;
+                }
+                mChars.add(text[k]);
+                mUnits.add(isUnit);
+                mXs.add(getLastX());
+                mYs.add(getLastY());
+            }
+        }
+    }
+
+    @Test
+    public void stepsRollThroughCarry() {
+        ScrollColumnTable table = new ScrollColumnTable();
+        table.setAlphabet(ScrollAlphabet.HEX);
+        table.setColumnCount(1);
+        table.setNumberSteps(0, 'E', '1', 19, 0, DURATION);
+        assertEquals(19, table.getDeltaNum(0));
+        for (long time = 0; table.doFrame(time); time += 16) {
+            assertTrue(time < 100000);
+        }
+        assertEquals(1, table.getCurNumber(0));
+    }
+
+    @Test
+    public void stepsWrapWithinBase() {
+        //时钟 23:59:59 --> 00:00:00 的小时个位和十位
+        ScrollColumnTable table = new ScrollColumnTable();
+        table.setColumnCount(2);
+        table.setNumberSteps(0, '3', '0', 1, 0, DURATION, 4);
+        table.setNumberSteps(1, '2', '0', 1, 0, DURATION, 3);
+        assertEquals(1, table.getDeltaNum(0));
+        for (long time = 0; table.doFrame(time); time += 16) {
+            assertTrue(time < 100000);
+        }
+        assertEquals(0, table.getCurNumber(0));
+        assertEquals(0, table.getCurNumber(1));
+    }
+
+    @Test
+    public void drawsOnlyRequestedColumns() {
+        //水平虚拟化只绘制可见的列，位置与绘制全部列时相同
+        int columns = 200;
+        ScrollColumnTable table = new ScrollColumnTable();
+        table.setColumnCount(columns);
+        for (int i = 0; i < columns; i++) {
+            table.setNumberCharImmediately(i, (char) ('0' + i % 10));
+        }
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        table.draw(renderer, 0, COLUMN_WIDTH, HEIGHT, 10, 19);
+        assertEquals(10, renderer.getDrawTextCount());
+        assertEquals("9", renderer.getLastText());
+        assertEquals((columns - 1 - 19) * COLUMN_WIDTH + COLUMN_WIDTH / 2f, renderer.getLastX(), 0f);
+
+        renderer.reset();
+        table.draw(renderer, 0, COLUMN_WIDTH, HEIGHT, 195, columns + 5);
+        assertEquals(5, renderer.getDrawTextCount());
+        renderer.reset();
+        table.draw(renderer, 0, COLUMN_WIDTH, HEIGHT, 0, -1);
+        assertEquals(0, renderer.getDrawTextCount());
+    }
+
+    @Test
+    public void thousandsOfColumnsDoNotAllocate() {
+        ScrollColumnTable table = new ScrollColumnTable();
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        int columns = 4000;
+        table.setColumnCount(columns);
+        //预热(类加载和JIT编译)
+        play(table, renderer, columns, 0);
+        long start = allocatedBytes();
+        long overhead = allocatedBytes() - start;
+
+        long allocated = Long.MAX_VALUE;
+        int frames = 0;
+        for (int round = 0; round < 5; round++) {
+            start = allocatedBytes();
+            frames = play(table, renderer, columns, round + 1);
+            allocated = Math.min(allocated, allocatedBytes() - start - overhead);
+        }
+        assertTrue(frames > 0);
+        assertEquals("bytes allocated in " + frames + " frames", 0, allocated);
+    }
+
+    /** 所有列播放一次完整动画 返回帧数 */
+    private static int play(ScrollColumnTable table, NumberRenderer renderer, int columns, int seed) {
+        for (int i = 0; i < columns; i++) {
+            char from = (char) ('0' + (i + seed) % 10);
+            char to = (char) ('0' + (i * 7 + seed) % 10);
+            table.setNumberChar(i, from, to, i % 8 * 16, ScrollNumber.SCROLL_LOOP_DEFAULT, 0, DURATION);
+        }
+        int frames = 0;
+        for (long time = 0; table.doFrame(time); time += 16) {
+            table.draw(renderer, 0, 10, 40);
+            frames++;
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,333 @@
+package top.wuhaojie.library;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * ScrollColumn逐帧流程测试(JVM)
+ */
+public class ScrollColumnTest {
+
+    /** 播放一次完整动画 返回帧数 */
+    private static int spin(ScrollColumn column, NumberRenderer renderer, char from, char to) {
+        column.setNumberChar(from, to, ScrollNumber.SCROLL_LOOP_DEFAULT, ScrollNumber.NUMBER_CHARS_TOTAL, ScrollNumber.ONE_LOOP_DURATION);
+        int frames = 0;
+        while (column.nextFrame()) {
+            column.draw(renderer, 10, 40);
+            column.scroll();
+            frames++;
+        }
+        column.draw(renderer, 10, 40);
+        return frames;
+    }
+
+    /**
+     * 按固定帧间隔播放一次完整动画
+     *
+     * @return 动画结束的时间
+     */
+    private static long spinWithFrameTime(ScrollColumn column, NumberRenderer renderer, char from, char to, long frameInterval) {
+        column.setNumberChar(from, to, ScrollNumber.SCROLL_LOOP_DEFAULT, ScrollNumber.NUMBER_CHARS_TOTAL, ScrollNumber.ONE_LOOP_DURATION);
+        long time = 0;
+        while (column.nextFrame()) {
+            column.draw(renderer, 10, 40);
+            time += frameInterval;
+            column.scrollTo(time);
+        }
+        return time;
+    }
+
+    /** 线程信息(获取本身会分配内存，只获取一次) */
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** 当前线程已分配的字节数 */
+    private static long allocatedBytes() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void spinArrivesAtTarget() {
+        ScrollColumn column = new ScrollColumn();
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        int frames = spin(column, renderer, '3', '7');
+        assertTrue(frames > 0);
+        assertEquals(7, column.getCurNumber());
+        assertEquals("7", renderer.getLastText());
+        assertFalse(column.isAnimating());
+    }
+
+    @Test
+    public void textSwitchArrivesAtTarget() {
+        ScrollColumn column = new ScrollColumn();
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        spin(column, renderer, '9', '万');
+        assertEquals(-1, column.getCurNumber());
+        assertEquals("万", renderer.getLastText());
+    }
+
+    @Test
+    public void frameDoesNotAllocate() {
+        ScrollColumn column = new ScrollColumn();
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        //预热(类加载和缓存扩容)
+        for (int i = 0; i < 20; i++) {
+            spin(column, renderer, '0', '9');
+            spin(column, renderer, ' ', '5');
+            spin(column, renderer, '5', '万');
+        }
+        //测量本身的开销
+        long start = allocatedBytes();
+        long overhead = allocatedBytes() - start;
+
+        //JIT编译时会一次性解析类中的字符串常量，取多轮中的最小值(每帧分配内存时每一轮都不为0)
+        long allocated = Long.MAX_VALUE;
+        int frames = 0;
+        for (int round = 0; round < 5; round++) {
+            start = allocatedBytes();
+            frames = 0;
+            for (int i = 0; i < 10; i++) {
+                frames += spin(column, renderer, '0', '9');
+                frames += spin(column, renderer, ' ', '5');
+                frames += spin(column, renderer, '5', '万');
+            }
+            allocated = Math.min(allocated, allocatedBytes() - start - overhead);
+        }
+        assertTrue(frames > 0);
+        assertEquals("bytes allocated in " + frames + " frames", 0, allocated);
+    }
+
+    @Test
+    public void lateFramesSkipDigitsAndEndOnTime() {
+        ScrollColumn column = new ScrollColumn();
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        long nominal = spinWithFrameTime(column, renderer, '0', '9', 16);
+        int nominalDraws = renderer.getDrawTextCount();
+
+        renderer.reset();
+        long janky = spinWithFrameTime(column, renderer, '0', '9', 100);
+        assertEquals(9, column.getCurNumber());
+        //卡顿时动画不会被拉长(误差不超过一个卡顿帧)
+        assertTrue("janky spin ended at " + janky + "ms, nominal " + nominal + "ms", janky <= nominal + 100);
+        //中间的数字被跳过，绘制次数减少
+        assertTrue(renderer.getDrawTextCount() < nominalDraws);
+    }
+
+    @Test
+    public void longStallFinishesAnimation() {
+        ScrollColumn column = new ScrollColumn();
+        column.setNumberChar('2', '8', ScrollNumber.SCROLL_LOOP_DEFAULT, ScrollNumber.NUMBER_CHARS_TOTAL, ScrollNumber.ONE_LOOP_DURATION);
+        column.scrollTo(0);
+        column.scrollTo(60000);
+        assertFalse(column.isAnimating());
+        assertEquals(8, column.getCurNumber());
+    }
+
+    @Test
+    public void repeatedFrameTimeDoesNotAdvance() {
+        ScrollColumn column = new ScrollColumn();
+        column.setNumberChar('0', '9', ScrollNumber.SCROLL_LOOP_DEFAULT, ScrollNumber.NUMBER_CHARS_TOTAL, ScrollNumber.ONE_LOOP_DURATION);
+        column.scrollTo(0);
+        column.scrollTo(16);
+        float offset = column.getOffset();
+        int leftStep = column.getLeftStep();
+        column.scrollTo(16);
+        column.scrollTo(10);
+        assertEquals(offset, column.getOffset(), 0f);
+        assertEquals(leftStep, column.getLeftStep());
+    }
+
+    @Test
+    public void durationScaleStretchesAnimation() {
+        ScrollColumn column = new ScrollColumn();
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        long nominal = spinWithFrameTime(column, renderer, '0', '9', 16);
+        column.setDurationScale(2f);
+        long scaled = spinWithFrameTime(column, renderer, '0', '9', 16);
+        assertTrue("scaled spin ended at " + scaled + "ms, nominal " + nominal + "ms", scaled > nominal * 3 / 2);
+        //缩放为0时直接结束
+        column.setDurationScale(0f);
+        column.setNumberChar('1', '6', ScrollNumber.SCROLL_LOOP_DEFAULT, ScrollNumber.NUMBER_CHARS_TOTAL, ScrollNumber.ONE_LOOP_DURATION);
+        column.scrollTo(0);
+        column.scrollTo(16);
+        assertFalse(column.isAnimating());
+        assertEquals(6, column.getCurNumber());
+    }
+
+    @Test
+    public void stepsRollThroughCarry() {
+        ScrollColumn column = new ScrollColumn();
+        column.setNumberSteps('8', '3', 15, ScrollNumber.ONE_LOOP_DURATION);
+        assertEquals(15, column.getDeltaNum());
+        int switches = 0;
+        int lastNumber = column.getCurNumber();
+        while (column.nextFrame()) {
+            column.scroll();
+            if (column.getCurNumber() != lastNumber) {
+                switches++;
+                lastNumber = column.getCurNumber();
+            }
+        }
+        assertEquals(15, switches);
+        assertEquals(3, column.getCurNumber());
+    }
+
+    @Test
+    public void negativeStepsRollDown() {
+        ScrollColumn column = new ScrollColumn();
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        column.setNumberSteps('2', '9', -3, ScrollNumber.ONE_LOOP_DURATION);
+        while (column.nextFrame()) {
+            column.draw(renderer, 10, 40);
+            column.scroll();
+        }
+        assertEquals(9, column.getCurNumber());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stepsMustMatchDigits() {
+        new ScrollColumn().setNumberSteps('2', '9', 3, ScrollNumber.ONE_LOOP_DURATION);
+    }
+
+    @Test
+    public void shortestStrategyWrapsAround() {
+        ScrollColumn column = new ScrollColumn();
+        column.setStrategy(ScrollNumber.Strategy.SHORTEST);
+        column.setNumberChar('9', '0', ScrollNumber.SCROLL_LOOP_DEFAULT, 0, ScrollNumber.ONE_LOOP_DURATION);
+        assertEquals(1, column.getDeltaNum());
+        while (column.nextFrame()) {
+            column.scroll();
+        }
+        assertEquals(0, column.getCurNumber());
+
+        column.setNumberChar('1', '8', ScrollNumber.SCROLL_LOOP_DEFAULT, 0, ScrollNumber.ONE_LOOP_DURATION);
+        assertEquals(3, column.getDeltaNum());
+        while (column.nextFrame()) {
+            column.scroll();
+        }
+        assertEquals(8, column.getCurNumber());
+    }
+
+    @Test
+    public void shortestStepsTakeNearestDirection() {
+        assertEquals(1, ScrollColumn.calShortestSteps(9, 0));
+        assertEquals(-1, ScrollColumn.calShortestSteps(0, 9));
+        assertEquals(5, ScrollColumn.calShortestSteps(2, 7));
+        assertEquals(-4, ScrollColumn.calShortestSteps(7, 3));
+        assertEquals(0, ScrollColumn.calShortestSteps(4, 4));
+        //最短路径模式不使用预设步长
+        assertEquals(-3, ScrollColumn.calSteps(ScrollNumber.Strategy.SHORTEST, 1, 8, 1, 20));
+        assertEquals(20, ScrollColumn.calSteps(ScrollNumber.Strategy.NATURAL, 1, 8, 1, 20));
+    }
+
+    @Test
+    public void hexAlphabetScrollsThroughLetters() {
+        ScrollColumn column = new ScrollColumn();
+        column.setAlphabet(ScrollAlphabet.HEX);
+        column.setStrategy(ScrollNumber.Strategy.SHORTEST);
+        column.setNumberChar('F', '0', ScrollNumber.SCROLL_LOOP_DEFAULT, 0, ScrollNumber.ONE_LOOP_DURATION);
+        assertEquals(1, column.getDeltaNum());
+        while (column.nextFrame()) {
+            column.scroll();
+        }
+        assertEquals(0, column.getCurNumber());
+
+        column.setStrategy(ScrollNumber.Strategy.NATURAL);
+        column.setNumberChar('9', 'B', ScrollNumber.SCROLL_LOOP_DEFAULT, 0, ScrollNumber.ONE_LOOP_DURATION);
+        assertEquals(2, column.getDeltaNum());
+        while (column.nextFrame()) {
+            column.scroll();
+        }
+        assertEquals(11, column.getCurNumber());
+        //不在字符表中的字符一步切换
+        column.setNumberChar('B', 'x', ScrollNumber.SCROLL_LOOP_DEFAULT, 0, ScrollNumber.ONE_LOOP_DURATION);
+        assertEquals(1, column.getDeltaNum());
+    }
+
+    @Test
+    public void letterAlphabetDrawsGlyphsAndCountsSteps() {
+        ScrollColumn column = new ScrollColumn();
+        column.setAlphabet(ScrollAlphabet.LETTERS);
+        column.setNumberSteps('Y', 'B', 29, ScrollNumber.ONE_LOOP_DURATION);
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        while (column.nextFrame()) {
+            column.draw(renderer, 10, 40);
+            column.scroll();
+        }
+        column.draw(renderer, 10, 40);
+        assertEquals(1, column.getCurNumber());
+        assertEquals("B", renderer.getLastText());
+        //Y到B向上3步
+        assertEquals(3, ScrollColumn.calShortestSteps(24, 1, 26));
+        assertEquals(-3, ScrollColumn.calShortestSteps(1, 24, 26));
+    }
+
+    @Test
+    public void alphabetIndexTableMatchesGlyphOrder() {
+        ScrollAlphabet[] alphabets = {ScrollAlphabet.DECIMAL, ScrollAlphabet.HEX, ScrollAlphabet.LETTERS,
+                ScrollAlphabet.FULLWIDTH_DIGITS, ScrollAlphabet.ARABIC_INDIC_DIGITS};
+        for (ScrollAlphabet alphabet : alphabets) {
+            for (int i = 0; i < alphabet.size(); i++) {
+                assertEquals(i, alphabet.indexOf(alphabet.charAt(i)));
+            }
+            assertEquals(-1, alphabet.indexOf(' '));
+            assertEquals(-1, alphabet.indexOf('万'));
+        }
+        assertEquals(-1, ScrollAlphabet.HEX.indexOf('a'));
+        assertEquals(7, ScrollAlphabet.FULLWIDTH_DIGITS.indexOf('７'));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void alphabetRejectsDuplicateGlyphs() {
+        new ScrollAlphabet("ABCA");
+    }
+
+    @Test
+    public void sparseAlphabetFindsGlyphs() {
+        //ASCII和汉字混合(范围超过查找表上限时二分查找)
+        ScrollAlphabet alphabet = new ScrollAlphabet("零1二3四");
+        for (int i = 0; i < alphabet.size(); i++) {
+            assertEquals(i, alphabet.indexOf(alphabet.charAt(i)));
+        }
+        assertEquals(-1, alphabet.indexOf('2'));
+        assertEquals(-1, alphabet.indexOf('万'));
+        assertEquals(-1, alphabet.indexOf(' '));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sparseAlphabetRejectsDuplicateGlyphs() {
+        new ScrollAlphabet("1万2万");
+    }
+
+    @Test
+    public void stepsWrapWithinBase() {
+        //时钟秒的十位 5-->0 向上一步
+        ScrollColumn column = new ScrollColumn();
+        column.setNumberSteps('5', '0', 1, ScrollNumber.ONE_LOOP_DURATION, 6);
+        assertEquals(1, column.getDeltaNum());
+        RecordingNumberRenderer renderer = new RecordingNumberRenderer();
+        column.draw(renderer, 10, 40);
+        assertEquals("0", renderer.getLastText());
+        while (column.nextFrame()) {
+            column.scroll();
+        }
+        assertEquals(0, column.getCurNumber());
+
+        //倒计时 0-->5 向下一步
+        column.setNumberSteps('0', '5', -1, ScrollNumber.ONE_LOOP_DURATION, 6);
+        column.draw(renderer, 10, 40);
+        assertEquals("5", renderer.getLastText());
+        while (column.nextFrame()) {
+            column.scroll();
+        }
+        assertEquals(5, column.getCurNumber());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stepsRejectDigitOutsideBase() {
+        new ScrollColumn().setNumberSteps('7', '0', 1, ScrollNumber.ONE_LOOP_DURATION, 6);
+    }
+}
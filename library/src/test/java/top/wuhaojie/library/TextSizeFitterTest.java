@@ -0,0 +1,59 @@
+package top.wuhaojie.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 字体大小自适应测试(JVM)
+ */
+public class TextSizeFitterTest {
+
+    private static TextSizeFitter create(float textSize, int overhead, int... baseWidths) {
+        TextSizeFitter fitter = new TextSizeFitter();
+        fitter.reset(textSize, overhead);
+        for (int width : baseWidths) {
+            fitter.add(width);
+        }
+        return fitter;
+    }
+
+    @Test
+    public void keepsTextSizeWhenItFits() {
+        TextSizeFitter fitter = create(60f, 10, 30, 30, 30);
+        assertEquals(120, fitter.calTotalWidth(60));
+        assertEquals(60, fitter.fit(120, 10));
+        assertEquals(60, fitter.fit(1000, 10));
+    }
+
+    @Test
+    public void findsLargestFittingSize() {
+        TextSizeFitter fitter = create(60f, 10, 30, 30, 30, 45);
+        for (int available = 60; available <= 200; available++) {
+            int size = fitter.fit(available, 1);
+            assertTrue(fitter.calTotalWidth(size) <= available);
+            if (size < 60) {
+                //再大一号就放不下
+                assertTrue(fitter.calTotalWidth(size + 1) > available);
+            }
+        }
+    }
+
+    @Test
+    public void clampsToMinimumSize() {
+        TextSizeFitter fitter = create(60f, 10, 30, 30);
+        assertEquals(8, fitter.fit(5, 8));
+    }
+
+    @Test
+    public void growsForManyCells() {
+        TextSizeFitter fitter = new TextSizeFitter();
+        fitter.reset(40f, 2);
+        for (int i = 0; i < 1000; i++) {
+            fitter.add(20);
+        }
+        int size = fitter.fit(10000, 1);
+        assertTrue(fitter.calTotalWidth(size) <= 10000);
+        assertTrue(fitter.calTotalWidth(size + 1) > 10000);
+    }
+}
@@ -0,0 +1,94 @@
+package top.wuhaojie.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * UpdateRateTracker测试(JVM)
+ */
+public class UpdateRateTrackerTest {
+    private static final long DURATION = ScrollNumber.ONE_LOOP_DURATION;
+
+    @Test
+    public void lowColumnsOfFastCounterDegrade() {
+        //每100ms更新一次的计数器: 个位每次变化 十位每秒变化 百位每10秒变化
+        UpdateRateTracker tracker = new UpdateRateTracker();
+        for (long time = 0; time <= 60000; time += 100) {
+            long value = time / 100;
+            tracker.onUpdate(0, time, DURATION);
+            if (value % 10 == 0) {
+                tracker.onUpdate(1, time, DURATION);
+            }
+            if (value % 100 == 0) {
+                tracker.onUpdate(2, time, DURATION);
+            }
+        }
+        assertTrue(tracker.isFast(0));
+        assertTrue(tracker.isFast(1));
+        assertFalse(tracker.isFast(2));
+        assertFalse(tracker.isFast(3));
+    }
+
+    @Test
+    public void recoversWithHysteresis() {
+        UpdateRateTracker tracker = new UpdateRateTracker();
+        long time = 0;
+        for (int i = 0; i < 10; i++) {
+            tracker.onUpdate(0, time, DURATION);
+            time += 50;
+        }
+        assertTrue(tracker.isFast(0));
+        //略慢于动画时长仍然保持降级
+        for (int i = 0; i < 10; i++) {
+            time += DURATION + 100;
+            assertTrue(tracker.onUpdate(0, time, DURATION));
+        }
+        //慢于两倍动画时长后恢复动画
+        time += DURATION * 4;
+        tracker.onUpdate(0, time, DURATION);
+        time += DURATION * 4;
+        assertFalse(tracker.onUpdate(0, time, DURATION));
+    }
+
+    @Test
+    public void shortStepAnimationsKeepUpWithClock() {
+        //时钟秒的个位每秒滚动一步(约150ms)
+        UpdateRateTracker tracker = new UpdateRateTracker();
+        long stepDuration = ScrollNumber.ONE_LOOP_DURATION / ScrollNumber.NUMBER_CHARS_TOTAL;
+        for (long time = 0; time < 10000; time += 1000) {
+            assertFalse(tracker.onUpdate(0, time, stepDuration));
+        }
+    }
+
+    @Test
+    public void occasionalShortGapKeepsAnimation() {
+        //连续点击两次: 只有一个很短的间隔
+        UpdateRateTracker tracker = new UpdateRateTracker();
+        assertFalse(tracker.onUpdate(0, 0, DURATION));
+        assertFalse(tracker.onUpdate(0, 200, DURATION));
+        //之后按照正常频率更新
+        assertFalse(tracker.onUpdate(0, 200 + DURATION * 3, DURATION));
+        assertFalse(tracker.isFast(0));
+        //持续的快速更新达到间隔个数后降级
+        long time = 10000;
+        for (int i = 0; i < UpdateRateTracker.MIN_INTERVALS; i++) {
+            assertFalse(tracker.isFast(1));
+            tracker.onUpdate(1, time, DURATION);
+            time += 100;
+        }
+        assertTrue(tracker.onUpdate(1, time, DURATION));
+    }
+
+    @Test
+    public void resetForgetsHistory() {
+        UpdateRateTracker tracker = new UpdateRateTracker();
+        for (long time = 0; time < 1000; time += 10) {
+            tracker.onUpdate(5, time, DURATION);
+        }
+        assertTrue(tracker.isFast(5));
+        tracker.reset();
+        assertFalse(tracker.isFast(5));
+        assertFalse(tracker.onUpdate(5, 2000, DURATION));
+    }
+}